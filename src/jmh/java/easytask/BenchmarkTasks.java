@@ -0,0 +1,69 @@
+package easytask;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Task generators shared by the JMH benchmarks.
+ * Workloads:
+ *  - "strings": SchoolTasks whose priorities are free-form strings (canonical, other casing, custom labels)
+ *  - "mixed":   alternating SchoolTask / PersonalTask with the three canonical priorities
+ */
+final class BenchmarkTasks {
+
+    static final String STRINGS = "strings";
+    static final String MIXED = "mixed";
+
+    private static final String[] CANONICAL = {"High", "Medium", "Low"};
+    private static final String[] FREE_FORM = {"High", "medium", "LOW", "Someday", "high", "Urgent!", "Low", ""};
+    private static final String[] COURSES = {"IST261", "IST242", "MATH220", "CMPSC221", "ENGL202"};
+    private static final String[] MOODS = {"Happy", "Calm", "Tired", "Motivated"};
+    private static final LocalDate START = LocalDate.of(2025, 1, 1);
+
+    private BenchmarkTasks() {
+    }
+
+    /** Task number i of a workload; the same (prefix, i) always gives an equal task. */
+    static Task task(String workload, String prefix, int i) {
+        int mix = (int) ((i * 0x9E3779B1L) >>> 7) & Integer.MAX_VALUE; // cheap deterministic spread of dates/priorities
+        LocalDate due = (mix % 17 == 0) ? null : START.plusDays(mix % 730);
+        if (STRINGS.equals(workload)) {
+            return new SchoolTask(prefix + i, "Reading and exercises", due,
+                    FREE_FORM[mix % FREE_FORM.length], COURSES[mix % COURSES.length]);
+        }
+        String priority = CANONICAL[mix % CANONICAL.length];
+        if ((i & 1) == 0) {
+            return new SchoolTask(prefix + i, "Reading and exercises", due, priority, COURSES[mix % COURSES.length]);
+        }
+        return new PersonalTask(prefix + i, "Errands", due, priority, MOODS[mix % MOODS.length]);
+    }
+
+    static List<Task> tasks(String workload, String prefix, int count) {
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) tasks.add(task(workload, prefix, i));
+        return tasks;
+    }
+
+    /** A TaskList stored in dir, pre-filled with size tasks and saved as a snapshot. */
+    static TaskList filledList(Path dir, String workload, int size) {
+        TaskList list = new TaskList(dir.toFile());
+        list.addAll(tasks(workload, "T", size));
+        list.saveToFile();
+        list.flush();
+        return list;
+    }
+
+    static void deleteRecursively(Path dir) throws IOException {
+        if (dir == null || !Files.exists(dir)) return;
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+}
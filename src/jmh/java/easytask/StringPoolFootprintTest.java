@@ -0,0 +1,109 @@
+package easytask;
+
+import org.junit.jupiter.api.Test;
+
+import javax.management.ObjectName;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Heap histogram of 1M tasks decoded from the binary codec, as loaded (priority text, course
+ * codes and mood tags canonicalized) and with every task given its own copy of those strings,
+ * the layout before canonicalization. Slow and heap-hungry, so it lives in the jmh profile:
+ *   mvn -Pjmh test -Dtest=StringPoolFootprintTest
+ * Counts come from the GC.class_histogram diagnostic command, which runs a full GC first.
+ */
+class StringPoolFootprintTest {
+
+    private static final int TASKS = 1_000_000;
+
+    /** Live instances and bytes of String and byte[] after a full GC. */
+    private record Histogram(long strings, long stringBytes, long byteArrays, long byteArrayBytes) {
+        long total() {
+            return stringBytes + byteArrayBytes;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("String %,d (%,d B), byte[] %,d (%,d B)", strings, stringBytes, byteArrays, byteArrayBytes);
+        }
+    }
+
+    @Test
+    void testCanonicalTagsSaveHeapAtOneMillionTasks() throws Exception {
+        byte[] encoded = encode(BenchmarkTasks.MIXED);
+        Task[] tasks = decode(encoded);
+        Histogram canonical = histogram();
+
+        unshare(tasks);
+        Histogram copies = histogram();
+        assertEquals(TASKS, tasks.length); // keeps the tasks reachable through both histograms
+
+        System.out.println("1M tasks, canonical:  " + canonical);
+        System.out.println("1M tasks, own copies: " + copies);
+        System.out.printf("saved: %,d Strings, %,d byte[], %.1f MB%n", copies.strings() - canonical.strings(),
+                copies.byteArrays() - canonical.byteArrays(), (copies.total() - canonical.total()) / 1e6);
+
+        // every task carries a priority and a course code or mood tag: two strings each
+        assertTrue(copies.strings() - canonical.strings() >= 2L * TASKS * 9 / 10, copies + " vs " + canonical);
+        assertTrue(copies.byteArrays() - canonical.byteArrays() >= 2L * TASKS * 9 / 10, copies + " vs " + canonical);
+        assertTrue(copies.total() - canonical.total() >= 64L * TASKS, copies + " vs " + canonical); // >= 32 B per string
+    }
+
+    private static byte[] encode(String workload) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * TASKS);
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (int i = 0; i < TASKS; i++) BinaryTaskCodec.INSTANCE.write(BenchmarkTasks.task(workload, "T", i), out);
+        return bytes.toByteArray();
+    }
+
+    private static Task[] decode(byte[] encoded) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(encoded));
+        Task[] tasks = new Task[TASKS];
+        for (int i = 0; i < TASKS; i++) tasks[i] = BinaryTaskCodec.INSTANCE.read(in);
+        return tasks;
+    }
+
+    /** Give each task private copies of its priority and tag, bypassing the canonicalizing setters. */
+    private static void unshare(Task[] tasks) throws ReflectiveOperationException {
+        Field courseCode = SchoolTask.class.getDeclaredField("courseCode");
+        Field moodTag = PersonalTask.class.getDeclaredField("moodTag");
+        courseCode.setAccessible(true);
+        moodTag.setAccessible(true);
+        for (Task t : tasks) {
+            t.priority = copy(t.priority);
+            Field tag = (t instanceof SchoolTask) ? courseCode : moodTag;
+            tag.set(t, copy((String) tag.get(t)));
+        }
+    }
+
+    private static String copy(String s) {
+        return (s == null) ? null : new String(s.toCharArray());
+    }
+
+    private static Histogram histogram() throws Exception {
+        String text = (String) ManagementFactory.getPlatformMBeanServer().invoke(
+                new ObjectName("com.sun.management:type=DiagnosticCommand"), "gcClassHistogram",
+                new Object[] {new String[0]}, new String[] {String[].class.getName()});
+        long strings = 0, stringBytes = 0, arrays = 0, arrayBytes = 0;
+        for (String line : text.split("\n")) {
+            String[] cols = line.trim().split("\\s+"); // "1:  <instances>  <bytes>  <class name> (<module>)"
+            if (cols.length < 4 || !cols[0].endsWith(":")) continue;
+            if (cols[3].equals("java.lang.String")) {
+                strings = Long.parseLong(cols[1]);
+                stringBytes = Long.parseLong(cols[2]);
+            } else if (cols[3].equals("[B")) {
+                arrays = Long.parseLong(cols[1]);
+                arrayBytes = Long.parseLong(cols[2]);
+            }
+        }
+        return new Histogram(strings, stringBytes, arrays, arrayBytes);
+    }
+}
@@ -0,0 +1,107 @@
+package easytask;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory hot paths of TaskList (title index, urgent queue, list maintenance, journal append)
+ * at 1k to 1M tasks. Mutations use the default asynchronous commit, so fsync cost is not
+ * included here; TaskListPersistenceBenchmark covers the disk paths.
+ * Operations that must build a new Task (add, update) include allocating it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TaskListBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    int size;
+
+    @Param({BenchmarkTasks.STRINGS, BenchmarkTasks.MIXED})
+    String workload;
+
+    private Path dir;
+    private TaskList list;
+    private String[] titles;          // titles of the pre-filled tasks
+    private final List<Task> added = new ArrayList<>();
+    private int seq;                  // numbering for tasks created during the run
+    private long rng = 0x2545F4914F6CDD1DL;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("easytask-bench");
+        list = BenchmarkTasks.filledList(dir, workload, size);
+        titles = new String[size];
+        for (int i = 0; i < size; i++) titles[i] = "T" + i;
+    }
+
+    /** Drop what addTask added this iteration so every iteration starts at the same size. */
+    @TearDown(Level.Iteration)
+    public void trim() {
+        list.removeAll(added);
+        added.clear();
+        list.flush();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        list.close();
+        BenchmarkTasks.deleteRecursively(dir);
+    }
+
+    private int nextIndex(int bound) {
+        rng ^= rng << 13; // xorshift: no allocation, no shared state with the code under test
+        rng ^= rng >>> 7;
+        rng ^= rng << 17;
+        return (int) ((rng >>> 1) % bound);
+    }
+
+    @Benchmark
+    public Task getByTitle() {
+        return list.getByTitle(titles[nextIndex(size)]);
+    }
+
+    @Benchmark
+    public void addTask() {
+        Task t = BenchmarkTasks.task(workload, "A", seq++);
+        list.addTask(t);
+        added.add(t);
+    }
+
+    /** The list size stays constant; subtract addTask to estimate removeByTitle alone. */
+    @Benchmark
+    public boolean addThenRemoveByTitle() {
+        Task t = BenchmarkTasks.task(workload, "R", seq++);
+        list.addTask(t);
+        return list.removeByTitle(t.getTitle());
+    }
+
+    @Benchmark
+    public void updateTask() {
+        int index = nextIndex(size);
+        Task replacement = BenchmarkTasks.task(workload, "T", index); // same title, new instance
+        replacement.setDueDate(replacement.getDueDate() == null ? null : replacement.getDueDate().plusDays(seq++ & 31));
+        list.updateTask(index, replacement);
+    }
+
+    @Benchmark
+    public Task peekMostUrgent() {
+        return list.peekMostUrgent();
+    }
+
+    /** Pop the most urgent task and put it back, so the heap keeps its size. */
+    @Benchmark
+    public Task popMostUrgent() {
+        Task t = list.popMostUrgent();
+        list.addTask(t);
+        return t;
+    }
+}
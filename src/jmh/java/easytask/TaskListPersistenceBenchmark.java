@@ -0,0 +1,61 @@
+package easytask;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Snapshot save/load cost at 1k to 1M tasks.
+ * loadFromFile only maps the snapshot (tasks decode on first access), so loadAndReadAll
+ * adds the cost of touching every task once, the way a full-table render or export would.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TaskListPersistenceBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    int size;
+
+    @Param({BenchmarkTasks.STRINGS, BenchmarkTasks.MIXED})
+    String workload;
+
+    private Path dir;
+    private TaskList list;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("easytask-bench");
+        list = BenchmarkTasks.filledList(dir, workload, size);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        list.close();
+        BenchmarkTasks.deleteRecursively(dir);
+    }
+
+    /** Full snapshot rewrite, encoding every task. */
+    @Benchmark
+    public void saveToFile() {
+        list.saveToFile();
+    }
+
+    @Benchmark
+    public int loadFromFile() {
+        list.loadFromFile();
+        return list.size();
+    }
+
+    @Benchmark
+    public void loadAndReadAll(Blackhole bh) {
+        list.loadFromFile();
+        for (Task t : list.getAllTasks()) bh.consume(t);
+    }
+}
@@ -0,0 +1,80 @@
+package easytask;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * java.util.PriorityQueue vs UrgencyHeap as TaskList's urgent queue, both ordered by
+ * TaskList.urgencyComparator(). A PriorityQueue can only re-key a task by remove (an O(n) scan)
+ * and re-insert; UrgencyHeap.update re-sifts it in place in O(log n) without allocating.
+ * Each benchmark changes one task's priority or pops and re-files one task, so the size stays constant.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class UrgencyQueueBenchmark {
+
+    private static final String[] PRIORITIES = {"High", "Medium", "Low"};
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    int size;
+
+    private Task[] tasks;
+    private PriorityQueue<Task> queue;
+    private UrgencyHeap heap;
+    private int seq;
+    private long rng = 0x2545F4914F6CDD1DL;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Task> list = BenchmarkTasks.tasks(BenchmarkTasks.MIXED, "T", size);
+        tasks = list.toArray(new Task[0]);
+        queue = new PriorityQueue<>(TaskList.urgencyComparator());
+        queue.addAll(list);
+        heap = UrgencyHeap.of(TaskList.urgencyComparator(), tasks);
+    }
+
+    private Task nextTask() {
+        rng ^= rng << 13; // xorshift: no allocation, no shared state with the code under test
+        rng ^= rng >>> 7;
+        rng ^= rng << 17;
+        return tasks[(int) ((rng >>> 1) % size)];
+    }
+
+    @Benchmark
+    public boolean priorityQueueUpdate() {
+        Task t = nextTask();
+        queue.remove(t);
+        t.setPriority(PRIORITIES[seq++ % 3]);
+        return queue.offer(t);
+    }
+
+    @Benchmark
+    public boolean urgencyHeapUpdate() {
+        Task t = nextTask();
+        t.setPriority(PRIORITIES[seq++ % 3]);
+        return heap.update(t);
+    }
+
+    @Benchmark
+    public Task priorityQueuePollOffer() {
+        Task t = queue.poll();
+        t.setPriority(PRIORITIES[seq++ % 3]);
+        queue.offer(t);
+        return t;
+    }
+
+    @Benchmark
+    public Task urgencyHeapPollOffer() {
+        Task t = heap.poll();
+        t.setPriority(PRIORITIES[seq++ % 3]);
+        heap.offer(t);
+        return t;
+    }
+}
@@ -0,0 +1,233 @@
+package easytask;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Equality indexes on task attributes, answering conjunctive filters such as
+ * priority = HIGH and completed = false and courseCode = "MATH101" by intersecting
+ * posting lists instead of testing every task.
+ * Each indexed task gets an int doc id. For every attribute value, the posting list is
+ * a sorted int array while it is sparse and switches to a BitSet once the array would be
+ * larger; an intersection starts from the smallest list and probes the others (or ANDs
+ * the bitsets when every list is dense).
+ * Attributes are pluggable: define(name, key) before any task is added; standard() has
+ * priority, completed, course code and mood tag. A task whose key is null is not listed
+ * under that attribute.
+ * Not synchronized: TaskList updates it under its write lock and queries under the read lock.
+ */
+public class AttributeIndex implements TaskIndex {
+
+    public static final String PRIORITY = "priority";    // Priority (Task.getPriorityLevel)
+    public static final String COMPLETED = "completed";  // Boolean
+    public static final String COURSE = "courseCode";    // String, SchoolTask only
+    public static final String MOOD = "moodTag";         // String, PersonalTask only
+
+    private final Map<String, Attribute> attributes = new LinkedHashMap<>();
+    private final IdentityHashMap<Task, Integer> docOf = new IdentityHashMap<>();
+    private Task[] docs = new Task[16];             // doc id -> task, null once removed
+    private Object[][] docValues = new Object[16][]; // doc id -> attribute values it was indexed under
+    private int nextDoc;
+
+    private static final class Attribute {
+        final int slot; // position in docValues
+        final Function<? super Task, ?> key;
+        final Map<Object, Posting> postings = new HashMap<>();
+
+        Attribute(int slot, Function<? super Task, ?> key) {
+            this.slot = slot;
+            this.key = key;
+        }
+    }
+
+    /** Doc ids holding one attribute value: ascending int array while sparse, BitSet once dense. */
+    private static final class Posting {
+        int[] ids = new int[4];
+        int size;       // array entries, including removed docs
+        BitSet bits;    // non-null once dense
+        int cardinality;
+
+        void add(int doc, Task[] live) {
+            cardinality++;
+            if (bits != null) {
+                bits.set(doc);
+                return;
+            }
+            if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+            ids[size++] = doc; // doc ids only grow, so the array stays sorted
+            if (size >= 64 && size * 32L >= live.length) { // 4 bytes per entry vs one bit per doc id
+                bits = new BitSet(live.length);
+                for (int i = 0; i < size; i++) {
+                    if (ids[i] == doc || live[ids[i]] != null) bits.set(ids[i]); // skip removed docs
+                }
+                ids = null;
+            }
+        }
+
+        void remove(int doc, Task[] live) {
+            cardinality--;
+            if (bits != null) {
+                bits.clear(doc);
+            } else if ((size - cardinality) * 2 > size) {
+                int kept = 0; // more than half removed: squeeze them out
+                for (int i = 0; i < size; i++) {
+                    if (live[ids[i]] != null) ids[kept++] = ids[i];
+                }
+                size = kept;
+            }
+        }
+
+        /** Only asked about live docs, so removed entries still in the array never match. */
+        boolean contains(int doc) {
+            return (bits != null) ? bits.get(doc) : Arrays.binarySearch(ids, 0, size, doc) >= 0;
+        }
+    }
+
+    /** Priority, completed, course code and mood tag. */
+    public static AttributeIndex standard() {
+        AttributeIndex index = new AttributeIndex();
+        index.define(PRIORITY, Task::getPriorityLevel);
+        index.define(COMPLETED, Task::isCompleted);
+        index.define(COURSE, t -> (t instanceof SchoolTask s) ? s.getCourseCode() : null);
+        index.define(MOOD, t -> (t instanceof PersonalTask p) ? p.getMoodTag() : null);
+        return index;
+    }
+
+    /** Add an attribute, keyed by the given function; only allowed while the index is empty. */
+    public void define(String name, Function<? super Task, ?> key) {
+        if (nextDoc > 0) throw new IllegalStateException("Define attributes before adding tasks");
+        attributes.put(name, new Attribute(attributes.size(), key));
+    }
+
+    @Override
+    public void add(Task task) {
+        if (task == null) return;
+        remove(task);
+        if (nextDoc == docs.length) makeRoom();
+        int doc = nextDoc++;
+        Object[] values = new Object[attributes.size()];
+        for (Attribute a : attributes.values()) {
+            Object value = a.key.apply(task);
+            values[a.slot] = value;
+            if (value != null) a.postings.computeIfAbsent(value, v -> new Posting()).add(doc, docs);
+        }
+        docs[doc] = task;
+        docValues[doc] = values;
+        docOf.put(task, doc);
+    }
+
+    @Override
+    public void remove(Task task) {
+        Integer doc = docOf.remove(task);
+        if (doc == null) return;
+        docs[doc] = null;
+        Object[] values = docValues[doc];
+        for (Attribute a : attributes.values()) {
+            Object value = values[a.slot];
+            if (value == null) continue;
+            Posting p = a.postings.get(value);
+            p.remove(doc, docs);
+            if (p.cardinality == 0) a.postings.remove(value);
+        }
+        docValues[doc] = null;
+    }
+
+    /** Number of indexed tasks. */
+    public int size() {
+        return docOf.size();
+    }
+
+    /** Tasks matching every attribute = value pair (in the order they were indexed). */
+    public List<Task> select(Map<String, ?> criteria) {
+        List<Task> result = new ArrayList<>();
+        match(criteria, result);
+        return result;
+    }
+
+    /** Number of tasks matching every attribute = value pair. */
+    public int count(Map<String, ?> criteria) {
+        return match(criteria, null);
+    }
+
+    /** Intersect the postings of the criteria; collects the matches if out is non-null. */
+    private int match(Map<String, ?> criteria, List<Task> out) {
+        if (criteria.isEmpty()) {
+            for (int d = 0; d < nextDoc; d++) {
+                if (docs[d] != null && out != null) out.add(docs[d]);
+            }
+            return docOf.size();
+        }
+        List<Posting> lists = new ArrayList<>(criteria.size());
+        boolean allDense = true;
+        for (Map.Entry<String, ?> c : criteria.entrySet()) {
+            Attribute a = attributes.get(c.getKey());
+            if (a == null) throw new IllegalArgumentException("Unknown attribute: " + c.getKey());
+            Posting p = (c.getValue() == null) ? null : a.postings.get(c.getValue());
+            if (p == null) return 0;
+            lists.add(p);
+            allDense &= p.bits != null;
+        }
+        lists.sort((x, y) -> Integer.compare(x.cardinality, y.cardinality));
+        Posting smallest = lists.get(0);
+        List<Posting> rest = lists.subList(1, lists.size());
+
+        int count = 0;
+        if (allDense) {
+            BitSet bits = (BitSet) smallest.bits.clone();
+            for (Posting p : rest) bits.and(p.bits);
+            if (out == null) return bits.cardinality();
+            for (int d = bits.nextSetBit(0); d >= 0; d = bits.nextSetBit(d + 1)) out.add(docs[d]);
+            return out.size();
+        }
+        if (smallest.bits != null) {
+            for (int d = smallest.bits.nextSetBit(0); d >= 0; d = smallest.bits.nextSetBit(d + 1)) {
+                if (inAll(rest, d)) count += emit(d, out);
+            }
+        } else {
+            for (int i = 0; i < smallest.size; i++) {
+                int d = smallest.ids[i];
+                if (docs[d] != null && inAll(rest, d)) count += emit(d, out);
+            }
+        }
+        return count;
+    }
+
+    private static boolean inAll(List<Posting> lists, int doc) {
+        for (Posting p : lists) {
+            if (!p.contains(doc)) return false;
+        }
+        return true;
+    }
+
+    private int emit(int doc, List<Task> out) {
+        if (out != null) out.add(docs[doc]);
+        return 1;
+    }
+
+    /** Out of doc ids: renumber the live docs if most ids are dead, otherwise grow. */
+    private void makeRoom() {
+        if (docOf.size() * 2 < nextDoc) {
+            List<Task> live = new ArrayList<>(docOf.size());
+            for (int d = 0; d < nextDoc; d++) {
+                if (docs[d] != null) live.add(docs[d]);
+            }
+            for (Attribute a : attributes.values()) a.postings.clear();
+            docOf.clear();
+            Arrays.fill(docs, null);
+            Arrays.fill(docValues, null);
+            nextDoc = 0;
+            for (Task t : live) add(t); // ids restart at 0, so there is room again
+        } else {
+            int capacity = docs.length * 2;
+            docs = Arrays.copyOf(docs, capacity);
+            docValues = Arrays.copyOf(docValues, capacity);
+        }
+    }
+}
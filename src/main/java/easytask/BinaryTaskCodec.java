@@ -0,0 +1,157 @@
+package easytask;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * Compact hand-rolled binary TaskCodec.
+ * Record layout:
+ *   [byte header]   high nibble = format version, low nibble = subtype (School / Personal)
+ *   [byte flags]    bit 0 = completed
+ *   [int dueDate]   epoch day, NO_DATE for null
+ *   [byte priority] High/Medium/Low code, or CUSTOM followed by the original string
+ *   [string title] [string description] [string courseCode | moodTag]
+ * Strings are a varint (byte length + 1, 0 = null) followed by UTF-8 bytes.
+ * A null task is the single header byte 0.
+ */
+public class BinaryTaskCodec implements TaskCodec {
+
+    public static final byte ID = 2;
+    public static final BinaryTaskCodec INSTANCE = new BinaryTaskCodec();
+
+    static final int VERSION = 1;
+
+    static final int KIND_SCHOOL = 1;
+    static final int KIND_PERSONAL = 2;
+
+    static final int NO_DATE = Integer.MIN_VALUE;
+
+    // priority codes
+    static final byte PRIORITY_NULL = 0;
+    static final byte PRIORITY_HIGH = 1;
+    static final byte PRIORITY_MEDIUM = 2;
+    static final byte PRIORITY_LOW = 3;
+    static final byte PRIORITY_CUSTOM = 4;
+
+    private static final int FLAG_COMPLETED = 1;
+
+    @Override
+    public byte id() {
+        return ID;
+    }
+
+    @Override
+    public void write(Task task, DataOutput out) throws IOException {
+        if (task == null) {
+            out.writeByte(0);
+            return;
+        }
+        int kind;
+        String tag;
+        if (task instanceof SchoolTask school) {
+            kind = KIND_SCHOOL;
+            tag = school.getCourseCode();
+        } else if (task instanceof PersonalTask personal) {
+            kind = KIND_PERSONAL;
+            tag = personal.getMoodTag();
+        } else {
+            throw new IOException("Binary codec cannot encode " + task.getClass().getName());
+        }
+        out.writeByte((VERSION << 4) | kind);
+        out.writeByte(task.isCompleted() ? FLAG_COMPLETED : 0);
+        out.writeInt(task.getDueDate() == null ? NO_DATE : Math.toIntExact(task.getDueDate().toEpochDay()));
+        byte code = priorityCode(task.getPriority());
+        out.writeByte(code);
+        if (code == PRIORITY_CUSTOM) writeString(out, task.getPriority());
+        writeString(out, task.getTitle());
+        writeString(out, task.getDescription());
+        writeString(out, tag);
+    }
+
+    @Override
+    public Task read(DataInput in) throws IOException {
+        int header = in.readUnsignedByte();
+        if (header == 0) return null;
+        int version = header >>> 4;
+        if (version != VERSION) throw new IOException("Unsupported binary task version: " + version);
+        int kind = header & 0x0F;
+        int flags = in.readUnsignedByte();
+        int epochDay = in.readInt();
+        byte code = in.readByte();
+        String priority = (code == PRIORITY_CUSTOM) ? readString(in) : priorityName(code);
+        String title = readString(in);
+        String description = readString(in);
+        String tag = readString(in);
+        LocalDate due = (epochDay == NO_DATE) ? null : LocalDate.ofEpochDay(epochDay);
+
+        Task task = switch (kind) {
+            case KIND_SCHOOL -> new SchoolTask(title, description, due, priority, tag);
+            case KIND_PERSONAL -> new PersonalTask(title, description, due, priority, tag);
+            default -> throw new IOException("Unknown task kind: " + kind);
+        };
+        task.setCompleted((flags & FLAG_COMPLETED) != 0);
+        return task;
+    }
+
+    /** Exact-match codes only, so "high" or "Urgent" round-trip unchanged as CUSTOM strings. */
+    static byte priorityCode(String p) {
+        if (p == null) return PRIORITY_NULL;
+        switch (p) {
+            case "High":   return PRIORITY_HIGH;
+            case "Medium": return PRIORITY_MEDIUM;
+            case "Low":    return PRIORITY_LOW;
+            default:       return PRIORITY_CUSTOM;
+        }
+    }
+
+    static String priorityName(byte code) throws IOException {
+        switch (code) {
+            case PRIORITY_NULL:   return null;
+            case PRIORITY_HIGH:   return "High";
+            case PRIORITY_MEDIUM: return "Medium";
+            case PRIORITY_LOW:    return "Low";
+            default: throw new IOException("Unknown priority code: " + code);
+        }
+    }
+
+    static void writeString(DataOutput out, String s) throws IOException {
+        if (s == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, utf8.length + 1);
+        out.write(utf8);
+    }
+
+    static String readString(DataInput in) throws IOException {
+        int len = readVarInt(in);
+        if (len == 0) return null;
+        if (len == 1) return ""; // shared instance for the common empty description or tag
+        byte[] utf8 = new byte[len - 1];
+        in.readFully(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    /** LEB128-style unsigned varint: 7 bits per byte, high bit = more bytes follow. */
+    static void writeVarInt(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    static int readVarInt(DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("Malformed varint");
+    }
+}
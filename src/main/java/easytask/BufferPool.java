@@ -0,0 +1,118 @@
+package easytask;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool of fixed-size byte buffers shared by many writers (e.g. the journals of hundreds of
+ * TaskLists). A writer borrows a buffer only while it holds unflushed bytes, so the memory used
+ * for buffering follows the number of lists being written at the same moment, not the number
+ * of lists that are open.
+ * At most maxPooled idle buffers are kept; beyond that acquire() allocates and release() drops.
+ */
+public class BufferPool {
+
+    /** Pool used by TaskLists that are not given one. */
+    public static final BufferPool SHARED = new BufferPool(64 * 1024, 16);
+
+    private final int bufferSize;
+    private final ArrayBlockingQueue<byte[]> idle;
+    private final AtomicLong allocated = new AtomicLong();
+
+    public BufferPool(int bufferSize, int maxPooled) {
+        this.bufferSize = bufferSize;
+        this.idle = new ArrayBlockingQueue<>(Math.max(1, maxPooled));
+    }
+
+    public int bufferSize() {
+        return bufferSize;
+    }
+
+    /** An idle buffer, or a new one if none is idle. */
+    public byte[] acquire() {
+        byte[] buf = idle.poll();
+        if (buf == null) {
+            allocated.incrementAndGet();
+            buf = new byte[bufferSize];
+        }
+        return buf;
+    }
+
+    /** Give a buffer back; the caller must not touch it afterwards. */
+    public void release(byte[] buf) {
+        if (buf != null && buf.length == bufferSize) idle.offer(buf); // full pool: left to the GC
+    }
+
+    /** Buffers allocated so far (a measure of peak concurrent use). */
+    public long allocatedCount() {
+        return allocated.get();
+    }
+
+    /** Buffers currently idle in the pool. */
+    public int idleCount() {
+        return idle.size();
+    }
+
+    /** Buffered stream over out that takes a pooled buffer on the first write and returns it on every flush. */
+    public OutputStream output(OutputStream out) {
+        return new PooledOutputStream(out);
+    }
+
+    private final class PooledOutputStream extends OutputStream {
+        private final OutputStream out;
+        private byte[] buf;  // null while nothing is buffered
+        private int count;
+
+        PooledOutputStream(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (buf == null) buf = acquire();
+            else if (count == buf.length) drain();
+            buf[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (len >= bufferSize) { // too big to buffer: pass straight through
+                drain();
+                out.write(b, off, len);
+                return;
+            }
+            if (buf == null) buf = acquire();
+            else if (len > buf.length - count) drain();
+            System.arraycopy(b, off, buf, count, len);
+            count += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            drain();
+            if (buf != null) {
+                release(buf);
+                buf = null;
+            }
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                out.close();
+            }
+        }
+
+        private void drain() throws IOException {
+            if (count > 0) {
+                out.write(buf, 0, count);
+                count = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,407 @@
+package easytask;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Column-wise (struct-of-arrays) in-memory store of tasks: one primitive array per field instead
+ * of one object graph per task.
+ *  - due dates as an int[] of epoch days, priority level as a byte[] (Priority ordinal),
+ *    completed as a BitSet, task kind as a byte[]
+ *  - course code / mood tag and the priority text dictionary-encoded: an int[] of codes into a
+ *    small table holding each distinct string once
+ *  - titles and descriptions as UTF-8 bytes in one shared byte[] per column, addressed by offset
+ * A million tasks are a dozen arrays rather than millions of Task, String and LocalDate objects,
+ * and scans such as countOverdue or mostUrgent walk primitive arrays sequentially.
+ *
+ * Rows are read through Row, a reusable flyweight view (no allocation per row), or copied out as
+ * real Tasks with toTask. Rows keep insertion order; remove(int) shifts the rows after it.
+ * Only SchoolTask and PersonalTask are supported (like BinaryTaskCodec).
+ * Not synchronized.
+ */
+public class ColumnarTaskStore {
+
+    private static final int NO_DATE = Integer.MIN_VALUE;
+    private static final byte KIND_SCHOOL = 0;
+    private static final byte KIND_PERSONAL = 1;
+    private static final Priority[] LEVELS = Priority.values();
+
+    private int size;
+    private byte[] kind = new byte[16];
+    private int[] due = new int[16];
+    private byte[] level = new byte[16];
+    private int[] priorityText = new int[16];   // code in priorities, -1 = null
+    private int[] tag = new int[16];            // code in tags, -1 = null
+    private final BitSet completed = new BitSet();
+    private final Dictionary priorities = new Dictionary();
+    private final Dictionary tags = new Dictionary();
+    private final TextColumn titles = new TextColumn();
+    private final TextColumn descriptions = new TextColumn();
+
+    /** Distinct strings of one column, each stored once and referred to by an int code. */
+    private static final class Dictionary {
+        final List<String> values = new ArrayList<>();
+        final Map<String, Integer> codes = new HashMap<>();
+
+        int encode(String s) {
+            if (s == null) return -1;
+            Integer code = codes.get(s);
+            if (code == null) {
+                code = values.size();
+                values.add(s);
+                codes.put(s, code);
+            }
+            return code;
+        }
+
+        String decode(int code) {
+            return (code < 0) ? null : values.get(code);
+        }
+
+        long bytes() {
+            long total = 0;
+            for (String s : values) total += 40 + s.length() + 48; // String + its array + map entry, roughly
+            return total;
+        }
+    }
+
+    /**
+     * Variable-length strings of one column as UTF-8 in a single byte[]. Replaced or removed
+     * values leave garbage behind, squeezed out once it outweighs the live bytes.
+     */
+    private static final class TextColumn {
+        byte[] data = new byte[256];
+        int used;           // bytes appended so far
+        int garbage;        // bytes no longer referenced
+        int[] start = new int[16];
+        int[] length = new int[16]; // -1 = null
+
+        void grow(int capacity) {
+            start = Arrays.copyOf(start, capacity);
+            length = Arrays.copyOf(length, capacity);
+        }
+
+        /** Store the value of row (rows = rows in use, for compaction). */
+        void set(int row, String s, int rows) {
+            if (length[row] > 0) garbage += length[row];
+            length[row] = -1; // the old bytes are garbage now, even if we compact below
+            if (s == null) return;
+            byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+            if (used + utf8.length > data.length) {
+                if (garbage * 2 > used) compact(rows);
+                if (used + utf8.length > data.length) {
+                    data = Arrays.copyOf(data, Math.max(data.length * 2, used + utf8.length));
+                }
+            }
+            System.arraycopy(utf8, 0, data, used, utf8.length);
+            start[row] = used;
+            length[row] = utf8.length;
+            used += utf8.length;
+        }
+
+        String get(int row) {
+            int len = length[row];
+            if (len < 0) return null;
+            return (len == 0) ? "" : new String(data, start[row], len, StandardCharsets.UTF_8);
+        }
+
+        /** Rewrite the live values of rows [0, rows) back to back. */
+        void compact(int rows) {
+            byte[] packed = new byte[Math.max(256, used - garbage)];
+            int at = 0;
+            for (int r = 0; r < rows; r++) {
+                int len = length[r];
+                if (len <= 0) continue;
+                System.arraycopy(data, start[r], packed, at, len);
+                start[r] = at;
+                at += len;
+            }
+            data = packed;
+            used = at;
+            garbage = 0;
+        }
+    }
+
+    public ColumnarTaskStore() {
+    }
+
+    /** A store holding copies of the given tasks, in order. */
+    public ColumnarTaskStore(Collection<? extends Task> tasks) {
+        ensureCapacity(tasks.size());
+        for (Task t : tasks) add(t);
+    }
+
+    /**
+     * Columnar copy of a TaskList, read a chunk at a time with peekTasks so tasks that were still
+     * undecoded in its snapshot are not kept in memory by the copy.
+     */
+    public static ColumnarTaskStore copyOf(TaskList list) {
+        ColumnarTaskStore store = new ColumnarTaskStore();
+        final int chunk = 4096;
+        Task[] tasks;
+        for (int from = 0; (tasks = list.peekTasks(from, chunk)).length > 0; from += tasks.length) {
+            store.ensureCapacity(store.size + tasks.length);
+            for (Task t : tasks) store.add(t);
+        }
+        return store;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Append a copy of the task's fields; returns its row. */
+    public int add(Task task) {
+        if (!(task instanceof SchoolTask || task instanceof PersonalTask)) {
+            throw new IllegalArgumentException("Columnar store cannot hold " + task);
+        }
+        ensureCapacity(size + 1);
+        int row = size++;
+        titles.length[row] = -1; // a removed row may have left values here
+        descriptions.length[row] = -1;
+        write(row, task);
+        return row;
+    }
+
+    /** Overwrite row with a copy of the task's fields. */
+    public void set(int row, Task task) {
+        checkRow(row);
+        write(row, task);
+    }
+
+    /** Remove a row; later rows move up by one. */
+    public void remove(int row) {
+        checkRow(row);
+        int tail = size - row - 1;
+        titles.set(row, null, size);       // counts its bytes as garbage
+        descriptions.set(row, null, size);
+        System.arraycopy(kind, row + 1, kind, row, tail);
+        System.arraycopy(due, row + 1, due, row, tail);
+        System.arraycopy(level, row + 1, level, row, tail);
+        System.arraycopy(priorityText, row + 1, priorityText, row, tail);
+        System.arraycopy(tag, row + 1, tag, row, tail);
+        for (TextColumn c : new TextColumn[] {titles, descriptions}) {
+            System.arraycopy(c.start, row + 1, c.start, row, tail);
+            System.arraycopy(c.length, row + 1, c.length, row, tail);
+        }
+        for (int r = row; r < size - 1; r++) completed.set(r, completed.get(r + 1));
+        size--;
+        completed.clear(size);
+    }
+
+    /** Remove every row the filter accepts, in one pass; returns how many were removed. */
+    public int removeIf(Predicate<? super Row> filter) {
+        Row view = new Row();
+        int kept = 0;
+        for (int r = 0; r < size; r++) {
+            if (filter.test(view.at(r))) {
+                titles.set(r, null, size);
+                descriptions.set(r, null, size);
+                continue;
+            }
+            if (kept != r) move(r, kept);
+            kept++;
+        }
+        int removed = size - kept;
+        completed.clear(kept, size);
+        size = kept;
+        return removed;
+    }
+
+    /** A new Task with the row's fields. */
+    public Task toTask(int row) {
+        checkRow(row);
+        String title = titles.get(row);
+        String description = descriptions.get(row);
+        LocalDate dueDate = (due[row] == NO_DATE) ? null : LocalDate.ofEpochDay(due[row]);
+        String priority = priorities.decode(priorityText[row]);
+        String t = tags.decode(tag[row]);
+        Task task = (kind[row] == KIND_SCHOOL)
+                ? new SchoolTask(title, description, dueDate, priority, t)
+                : new PersonalTask(title, description, dueDate, priority, t);
+        task.setCompleted(completed.get(row));
+        return task;
+    }
+
+    /** A reusable view; point it at a row with at(row). */
+    public Row row() {
+        return new Row();
+    }
+
+    /** Visit every row through one flyweight view (valid only during the call). */
+    public void forEach(Consumer<? super Row> action) {
+        Row view = new Row();
+        for (int r = 0; r < size; r++) action.accept(view.at(r));
+    }
+
+    // ===== Scans over primitive columns =====
+
+    /** Open tasks due before today. */
+    public int countOverdue(LocalDate today) {
+        int limit = Math.toIntExact(today.toEpochDay());
+        int count = 0;
+        for (int r = 0; r < size; r++) {
+            int d = due[r];
+            if (d != NO_DATE && d < limit && !completed.get(r)) count++;
+        }
+        return count;
+    }
+
+    /** Number of tasks per Priority, indexed by Priority.ordinal(). */
+    public int[] countByPriority() {
+        int[] counts = new int[LEVELS.length];
+        for (int r = 0; r < size; r++) counts[level[r]]++;
+        return counts;
+    }
+
+    /** Rows due from 'from' to 'to' (inclusive), in row order. */
+    public int[] rowsDueBetween(LocalDate from, LocalDate to) {
+        int lo = Math.toIntExact(from.toEpochDay());
+        int hi = Math.toIntExact(to.toEpochDay());
+        int[] rows = new int[16];
+        int n = 0;
+        for (int r = 0; r < size; r++) {
+            int d = due[r];
+            if (d != NO_DATE && d >= lo && d <= hi) {
+                if (n == rows.length) rows = Arrays.copyOf(rows, n * 2);
+                rows[n++] = r;
+            }
+        }
+        return Arrays.copyOf(rows, n);
+    }
+
+    /** Row with the smallest urgency key (same order as Task.getUrgencyKey), or -1 if empty. */
+    public int mostUrgent() {
+        int best = -1;
+        long bestKey = Long.MAX_VALUE;
+        for (int r = 0; r < size; r++) {
+            long key = urgencyKey(r);
+            if (key < bestKey) {
+                bestKey = key;
+                best = r;
+            }
+        }
+        return best;
+    }
+
+    /** Approximate heap bytes held by the store (arrays, dictionaries and text). */
+    public long memoryBytes() {
+        long arrays = 16L * 9 + kind.length + 4L * due.length + level.length
+                + 4L * priorityText.length + 4L * tag.length + completed.size() / 8
+                + titles.data.length + descriptions.data.length
+                + 8L * (titles.start.length + descriptions.start.length);
+        return arrays + priorities.bytes() + tags.bytes();
+    }
+
+    /** memoryBytes() per task (0 when empty). */
+    public double bytesPerTask() {
+        return (size == 0) ? 0 : (double) memoryBytes() / size;
+    }
+
+    private long urgencyKey(int r) {
+        long rank = Priority.HIGH.getValue() - LEVELS[level[r]].getValue();
+        long day = (due[r] == NO_DATE) ? 0xFFFFFFFFL : ((long) due[r] - Integer.MIN_VALUE) & 0xFFFFFFFFL;
+        return (rank << 32) | day;
+    }
+
+    private void write(int row, Task task) {
+        if (task instanceof SchoolTask s) {
+            kind[row] = KIND_SCHOOL;
+            tag[row] = tags.encode(s.getCourseCode());
+        } else if (task instanceof PersonalTask p) {
+            kind[row] = KIND_PERSONAL;
+            tag[row] = tags.encode(p.getMoodTag());
+        } else {
+            throw new IllegalArgumentException("Columnar store cannot hold " + task);
+        }
+        due[row] = (task.getDueDate() == null) ? NO_DATE : Math.toIntExact(task.getDueDate().toEpochDay());
+        level[row] = (byte) task.getPriorityLevel().ordinal();
+        priorityText[row] = priorities.encode(task.getPriority());
+        completed.set(row, task.isCompleted());
+        titles.set(row, task.getTitle(), size);
+        descriptions.set(row, task.getDescription(), size);
+    }
+
+    /** Copy row 'from' onto row 'to' (to < from), for removeIf. */
+    private void move(int from, int to) {
+        kind[to] = kind[from];
+        due[to] = due[from];
+        level[to] = level[from];
+        priorityText[to] = priorityText[from];
+        tag[to] = tag[from];
+        completed.set(to, completed.get(from));
+        for (TextColumn c : new TextColumn[] {titles, descriptions}) {
+            c.start[to] = c.start[from];
+            c.length[to] = c.length[from];
+        }
+    }
+
+    private void ensureCapacity(int rows) {
+        if (rows <= kind.length) return;
+        int capacity = Math.max(rows, kind.length * 2);
+        kind = Arrays.copyOf(kind, capacity);
+        due = Arrays.copyOf(due, capacity);
+        level = Arrays.copyOf(level, capacity);
+        priorityText = Arrays.copyOf(priorityText, capacity);
+        tag = Arrays.copyOf(tag, capacity);
+        titles.grow(capacity);
+        descriptions.grow(capacity);
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) throw new IndexOutOfBoundsException("Row: " + row + ", Size: " + size);
+    }
+
+    /**
+     * Flyweight view of one row: the same getters as Task, read straight from the columns.
+     * One instance can be moved across any number of rows; it holds no task data itself.
+     */
+    public final class Row {
+        private int row;
+
+        private Row() {
+        }
+
+        /** Point this view at a row; returns this. */
+        public Row at(int row) {
+            checkRow(row);
+            this.row = row;
+            return this;
+        }
+
+        public int index() { return row; }
+
+        public String getTitle() { return titles.get(row); }
+
+        public String getDescription() { return descriptions.get(row); }
+
+        public LocalDate getDueDate() { return (due[row] == NO_DATE) ? null : LocalDate.ofEpochDay(due[row]); }
+
+        /** Due date as an epoch day, without allocating; Integer.MIN_VALUE when there is none. */
+        public int getDueEpochDay() { return due[row]; }
+
+        public String getPriority() { return priorities.decode(priorityText[row]); }
+
+        public Priority getPriorityLevel() { return LEVELS[level[row]]; }
+
+        public boolean isCompleted() { return completed.get(row); }
+
+        public boolean isSchoolTask() { return kind[row] == KIND_SCHOOL; }
+
+        /** Course code of a school task, mood tag of a personal task. */
+        public String getTag() { return tags.decode(tag[row]); }
+
+        public long getUrgencyKey() { return urgencyKey(row); }
+
+        public Task toTask() { return ColumnarTaskStore.this.toTask(row); }
+    }
+}
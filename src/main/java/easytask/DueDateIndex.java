@@ -0,0 +1,105 @@
+package easytask;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Secondary index on Task.getDueDate(): a sorted map from epoch day to the tasks due that day.
+ * Range queries walk only the days inside the range, so "due this week" or "overdue" cost
+ * O(log n + days + k) instead of a scan of every task. Tasks without a due date are not indexed.
+ * overdueCount keeps a running count of open tasks due before the last day it was asked about,
+ * kept current by add/remove; asking again for the same day is O(1), and the next day only
+ * walks the days in between.
+ * Each task is remembered under the day (and completed flag) it was indexed with, so a task
+ * edited in place can still be removed; TaskList re-adds it after editTask/updateTask.
+ * Not synchronized: TaskList updates it under its write lock and queries under the read lock
+ * (overdueCount, which moves the running count, locks the index against other readers).
+ */
+public class DueDateIndex implements TaskIndex {
+
+    /** Tasks due on one day, in the order they were indexed, plus how many are still open. */
+    private static final class Bucket {
+        final Map<Task, Boolean> tasks = new LinkedHashMap<>(); // task -> completed when indexed
+        int open;
+    }
+
+    private final TreeMap<Long, Bucket> byDay = new TreeMap<>();
+    private final IdentityHashMap<Task, Long> dayOf = new IdentityHashMap<>();
+    private long countedBefore = Long.MIN_VALUE; // day overdueCount was last asked about
+    private int openBefore;                      // open tasks due before countedBefore
+
+    /** Index a task under its current due date (re-indexes it if it is already present). */
+    public void add(Task task) {
+        if (task == null) return;
+        remove(task);
+        LocalDate due = task.getDueDate();
+        if (due == null) return;
+        long day = due.toEpochDay();
+        Bucket bucket = byDay.computeIfAbsent(day, d -> new Bucket());
+        bucket.tasks.put(task, task.isCompleted());
+        if (!task.isCompleted()) {
+            bucket.open++;
+            if (day < countedBefore) openBefore++;
+        }
+        dayOf.put(task, day);
+    }
+
+    public void remove(Task task) {
+        Long day = dayOf.remove(task);
+        if (day == null) return;
+        Bucket bucket = byDay.get(day);
+        Boolean completed = bucket.tasks.remove(task);
+        if (Boolean.FALSE.equals(completed)) {
+            bucket.open--;
+            if (day < countedBefore) openBefore--;
+        }
+        if (bucket.tasks.isEmpty()) byDay.remove(day);
+    }
+
+    /** Number of tasks that have a due date. */
+    public int size() {
+        return dayOf.size();
+    }
+
+    /** Tasks due from 'from' to 'to' (both inclusive), earliest first. */
+    public List<Task> dueBetween(LocalDate from, LocalDate to) {
+        List<Task> result = new ArrayList<>();
+        if (from.isAfter(to)) return result;
+        for (Bucket bucket : byDay.subMap(from.toEpochDay(), true, to.toEpochDay(), true).values()) {
+            result.addAll(bucket.tasks.keySet());
+        }
+        return result;
+    }
+
+    /** Open (not completed) tasks due before today, earliest first. */
+    public List<Task> overdue(LocalDate today) {
+        List<Task> result = new ArrayList<>();
+        for (Bucket bucket : byDay.headMap(today.toEpochDay(), false).values()) {
+            if (bucket.open == 0) continue;
+            for (Map.Entry<Task, Boolean> e : bucket.tasks.entrySet()) {
+                if (!e.getValue()) result.add(e.getKey());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Number of open tasks due before today. O(1) when today is the day asked about last time;
+     * otherwise the running count moves over the days in between (one counter per day).
+     */
+    public synchronized int overdueCount(LocalDate today) {
+        long day = today.toEpochDay();
+        if (day > countedBefore) {
+            for (Bucket bucket : byDay.subMap(countedBefore, true, day, false).values()) openBefore += bucket.open;
+        } else if (day < countedBefore) {
+            for (Bucket bucket : byDay.subMap(day, true, countedBefore, false).values()) openBefore -= bucket.open;
+        }
+        countedBefore = day;
+        return openBefore;
+    }
+}
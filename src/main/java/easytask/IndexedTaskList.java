@@ -0,0 +1,429 @@
+package easytask;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+
+/**
+ * Task list backing TaskList with O(log n) positional lookup and deletion.
+ * Each element lives in a slot that never moves while it is in the list; removing an element
+ * only marks its slot dead. A Fenwick tree over the live slots turns position -> slot
+ * (get/set/remove) and slot -> position (indexOf) into O(log n) walks, and an identity map
+ * gives every task its slot, so indexOf/remove(Object) no longer scan or shift the array.
+ * Dead slots are squeezed out when they outnumber the live ones (amortized O(1) per removal).
+ *
+ * Slots may also start out as records in a MappedTaskStore: a record is decoded the first time
+ * get(i) touches it and cached in the store, so heap use follows the rows actually used.
+ * Not synchronized: TaskList guards mutations with its write lock; concurrent get() calls are safe.
+ */
+public class IndexedTaskList extends AbstractList<Task> {
+
+    private static final int OWN = -1;   // slot holds its own Task in tasks[slot]
+    private static final int DEAD = -2;  // slot was removed
+    private static final int MIN_CAPACITY = 16;
+
+    private final MappedTaskStore store;  // null unless loaded from a mapped snapshot
+    private Task[] tasks;                 // per slot, used when records[slot] == OWN
+    private int[] records;                // per slot: store record, OWN or DEAD
+    private int[] tree;                   // Fenwick tree of live-slot counts, 1-based, length capacity + 1
+    private int slots;                    // slots in use (live + dead)
+    private int size;                     // live slots
+    private IdentityHashMap<Task, Integer> slotOf; // slot of every task held in tasks[]
+    private int[] recordSlot;             // store record -> slot, or -1 once the record was replaced/removed
+    private boolean aliased;              // some task was added twice, so slotOf may not know every copy
+
+    public IndexedTaskList() {
+        this(null, MIN_CAPACITY);
+    }
+
+    public IndexedTaskList(Collection<? extends Task> initial) {
+        this(null, capacityFor(initial.size()));
+        for (Task task : initial) append(task);
+    }
+
+    public IndexedTaskList(MappedTaskStore store) {
+        this(store, capacityFor(store.size()));
+        int count = store.size();
+        recordSlot = new int[count];
+        for (int i = 0; i < count; i++) {
+            records[i] = i;
+            recordSlot[i] = i;
+        }
+        slots = size = count;
+        buildTree();
+    }
+
+    private IndexedTaskList(MappedTaskStore store, int capacity) {
+        this.store = store;
+        this.tasks = new Task[capacity];
+        this.records = new int[capacity];
+        this.tree = new int[capacity + 1];
+        this.slotOf = new IdentityHashMap<>();
+    }
+
+    private IndexedTaskList(IndexedTaskList other) {
+        this.store = other.store;
+        this.tasks = other.tasks.clone();
+        this.records = other.records.clone();
+        this.tree = other.tree.clone();
+        this.slots = other.slots;
+        this.size = other.size;
+        this.slotOf = new IdentityHashMap<>(other.slotOf);
+        this.recordSlot = (other.recordSlot == null) ? null : other.recordSlot.clone();
+        this.aliased = other.aliased;
+    }
+
+    /** Point-in-time copy (arrays only, nothing is decoded). */
+    public IndexedTaskList copy() {
+        return new IndexedTaskList(this);
+    }
+
+    @Override
+    public Task get(int index) {
+        checkIndex(index);
+        return taskAt(slotAt(index));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Task set(int index, Task task) {
+        checkIndex(index);
+        int slot = slotAt(index);
+        Task old = taskAt(slot);
+        unlink(slot);
+        link(task, slot);
+        return old;
+    }
+
+    /** Appending is O(log n); inserting before the end rebuilds the slots (TaskList only appends). */
+    @Override
+    public void add(int index, Task task) {
+        if (index < 0 || index > size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        if (index == size) {
+            append(task);
+        } else {
+            rebuild(capacityFor(size + 1), index, task);
+        }
+        modCount++;
+    }
+
+    @Override
+    public Task remove(int index) {
+        checkIndex(index);
+        int slot = slotAt(index);
+        Task old = taskAt(slot);
+        kill(slot);
+        modCount++;
+        if (slots > MIN_CAPACITY && size < slots / 4) rebuild(capacityFor(size), -1, null);
+        return old;
+    }
+
+    /** Position of the task in O(log n): identity lookup of its slot, then a prefix count of live slots. */
+    @Override
+    public int indexOf(Object o) {
+        if (o instanceof Task task) {
+            int slot = slotOf(task);
+            if (slot >= 0) return prefixCount(slot) - 1;
+        }
+        // null, or a task added twice whose first copy was removed: fall back to a scan
+        return (o == null || aliased) ? scanFor(o) : -1;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        int index = indexOf(o);
+        if (index < 0) return false;
+        remove(index);
+        return true;
+    }
+
+    /** Single pass over the slots instead of one removal per element. */
+    @Override
+    public boolean removeIf(Predicate<? super Task> filter) {
+        boolean changed = false;
+        for (int slot = 0; slot < slots; slot++) {
+            if (records[slot] != DEAD && filter.test(taskAt(slot))) {
+                kill(slot);
+                changed = true;
+            }
+        }
+        if (changed) {
+            modCount++;
+            rebuild(capacityFor(size), -1, null);
+        }
+        return changed;
+    }
+
+    @Override
+    public void clear() {
+        for (int slot = 0; slot < slots; slot++) records[slot] = DEAD;
+        rebuild(MIN_CAPACITY, -1, null);
+        modCount++;
+    }
+
+    /** Walks the slots in order, O(1) per element (get(i) would cost O(log n) each). */
+    @Override
+    public Iterator<Task> iterator() {
+        return new Iterator<>() {
+            private int next = nextLive(0);
+            private int last = -1;
+            private int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext() {
+                return next < slots;
+            }
+
+            @Override
+            public Task next() {
+                if (modCount != expectedModCount) throw new ConcurrentModificationException();
+                if (next >= slots) throw new NoSuchElementException();
+                last = next;
+                next = nextLive(next + 1);
+                return taskAt(last);
+            }
+
+            @Override
+            public void remove() {
+                if (last < 0) throw new IllegalStateException();
+                if (modCount != expectedModCount) throw new ConcurrentModificationException();
+                kill(last); // no rebuild here, so the cursor's slot numbers stay valid
+                last = -1;
+                expectedModCount = ++modCount;
+            }
+        };
+    }
+
+    /**
+     * Elements [from, from + count) in one O(log n + count) walk. Records nobody has materialized
+     * are decoded without being cached in the store, so read-only views (the task table) can page
+     * through millions of rows without keeping them all in memory.
+     */
+    public Task[] peekRange(int from, int count) {
+        return range(from, count, false);
+    }
+
+    /**
+     * Elements [from, from + count) as get() returns them: decoded records are cached in the
+     * store. Safe to call from several threads at once (e.g. one per segment while preloading).
+     */
+    public Task[] getRange(int from, int count) {
+        return range(from, count, true);
+    }
+
+    private Task[] range(int from, int count, boolean cache) {
+        if (from < 0 || count < 0 || from + count > size) {
+            throw new IndexOutOfBoundsException("Range: " + from + "+" + count + ", Size: " + size);
+        }
+        Task[] out = new Task[count];
+        int slot = (count == 0) ? 0 : slotAt(from);
+        for (int i = 0; i < count; i++) {
+            int record = records[slot];
+            try {
+                out[i] = (record < 0) ? tasks[slot] : cache ? store.get(record) : store.peek(record);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error reading task record " + record, e);
+            }
+            slot = nextLive(slot + 1);
+        }
+        return out;
+    }
+
+    /** Element i, decoded without caching like peekRange. */
+    public Task peek(int index) {
+        checkIndex(index);
+        int slot = slotAt(index);
+        int record = records[slot];
+        try {
+            return (record < 0) ? tasks[slot] : store.peek(record);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading task record " + record, e);
+        }
+    }
+
+    /**
+     * Encode element i for a new snapshot. Records that were never replaced are copied
+     * byte-for-byte when the codec matches, so re-snapshotting does not materialize them.
+     * (A task edited in place must go through TaskList.editTask/updateTask, which replaces the slot.)
+     */
+    public void writeRecord(int index, TaskCodec codec, DataOutput out) throws IOException {
+        checkIndex(index);
+        int slot = slotAt(index);
+        int record = records[slot];
+        if (record == OWN) {
+            codec.write(tasks[slot], out);
+        } else if (codec.id() == store.codec().id()) {
+            store.copyRecord(record, out);
+        } else {
+            codec.write(store.get(record), out);
+        }
+    }
+
+    private void append(Task task) {
+        if (slots == tasks.length) rebuild(capacityFor(size + 1), -1, null);
+        int slot = slots++;
+        link(task, slot);
+        size++;
+        for (int i = slot + 1; i < tree.length; i += i & -i) tree[i]++;
+    }
+
+    /** Put a task into a slot that is counted as live. */
+    private void link(Task task, int slot) {
+        tasks[slot] = task;
+        records[slot] = OWN;
+        if (task == null) return;
+        int existing = slotOf(task);
+        if (existing >= 0) {
+            aliased = true;
+            if (existing < slot) return; // indexOf reports the first copy
+        }
+        slotOf.put(task, slot);
+    }
+
+    /** Forget whatever the slot held (it stays live until kill()). */
+    private void unlink(int slot) {
+        int record = records[slot];
+        if (record >= 0) {
+            recordSlot[record] = -1;
+        } else if (record == OWN && tasks[slot] != null) {
+            Integer mapped = slotOf.get(tasks[slot]);
+            if (mapped != null && mapped == slot) slotOf.remove(tasks[slot]);
+        }
+        tasks[slot] = null;
+    }
+
+    private void kill(int slot) {
+        unlink(slot);
+        records[slot] = DEAD;
+        size--;
+        for (int i = slot + 1; i < tree.length; i += i & -i) tree[i]--;
+    }
+
+    private int slotOf(Task task) {
+        Integer slot = slotOf.get(task);
+        if (slot != null) return slot;
+        if (store != null) {
+            int record = store.recordOf(task);
+            if (record >= 0) return recordSlot[record];
+        }
+        return -1;
+    }
+
+    private Task taskAt(int slot) {
+        int record = records[slot];
+        if (record < 0) return tasks[slot];
+        try {
+            return store.get(record);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading task record " + record, e);
+        }
+    }
+
+    /** Slot of the index-th live element: binary descent of the Fenwick tree. */
+    private int slotAt(int index) {
+        int pos = 0;
+        int remaining = index + 1;
+        for (int step = Integer.highestOneBit(tree.length - 1); step > 0; step >>= 1) {
+            int next = pos + step;
+            if (next < tree.length && tree[next] < remaining) {
+                pos = next;
+                remaining -= tree[next];
+            }
+        }
+        return pos; // tree index pos + 1 is slot pos
+    }
+
+    /** Live slots in [0, slot]. */
+    private int prefixCount(int slot) {
+        int count = 0;
+        for (int i = slot + 1; i > 0; i -= i & -i) count += tree[i];
+        return count;
+    }
+
+    private int nextLive(int slot) {
+        while (slot < slots && records[slot] == DEAD) slot++;
+        return slot;
+    }
+
+    private int scanFor(Object o) {
+        int index = 0;
+        for (int slot = 0; slot < slots; slot++) {
+            if (records[slot] == DEAD) continue;
+            if (taskAt(slot) == o) return index;
+            index++;
+        }
+        return -1;
+    }
+
+    /**
+     * Squeeze out dead slots into arrays of the given capacity, optionally inserting
+     * a task at a position, and rebuild the tree and slot maps. O(n).
+     */
+    private void rebuild(int capacity, int insertAt, Task inserted) {
+        Task[] oldTasks = tasks;
+        int[] oldRecords = records;
+        int oldSlots = slots;
+        tasks = new Task[capacity];
+        records = new int[capacity];
+        tree = new int[capacity + 1];
+        slotOf = new IdentityHashMap<>();
+        aliased = false;
+        if (recordSlot != null) Arrays.fill(recordSlot, -1);
+        slots = 0;
+        for (int slot = 0; slot < oldSlots; slot++) {
+            if (oldRecords[slot] == DEAD) continue;
+            if (slots == insertAt) place(inserted, OWN);
+            place(oldTasks[slot], oldRecords[slot]);
+        }
+        if (slots == insertAt) place(inserted, OWN);
+        size = slots;
+        buildTree();
+    }
+
+    private void place(Task task, int record) {
+        int slot = slots++;
+        if (record >= 0) {
+            records[slot] = record;
+            recordSlot[record] = slot;
+        } else {
+            link(task, slot);
+        }
+    }
+
+    /** O(n) Fenwick build over the first `slots` slots. */
+    private void buildTree() {
+        Arrays.fill(tree, 0);
+        for (int i = 1; i < tree.length; i++) {
+            if (i <= slots && records[i - 1] != DEAD) tree[i]++;
+            int parent = i + (i & -i);
+            if (parent < tree.length) tree[parent] += tree[i];
+        }
+    }
+
+    private static int capacityFor(int count) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < count * 2 && capacity > 0) capacity <<= 1; // room to append before the next rebuild
+        return capacity;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+}
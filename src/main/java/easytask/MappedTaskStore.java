@@ -0,0 +1,161 @@
+package easytask;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Read-only, memory-mapped view of a version 2 or 3 snapshot file.
+ * Opening maps the file, checks the header/trailer and (version 3) verifies the checksum, a
+ * sequential pass over the mapped bytes that is skipped on a warm restart; no task is decoded
+ * until read(i) is called.
+ * get(i) additionally caches the decoded task, so every list built on this store
+ * (including point-in-time copies) sees the same Task instance for a record,
+ * and recordOf(task) maps such an instance back to its record.
+ * The mapping lives as long as the store is reachable (Java cannot unmap it safely while lazy
+ * readers may still use it); TaskSnapshot.write copes with a platform that will not replace a
+ * mapped file.
+ */
+public class MappedTaskStore {
+
+    private final MappedByteBuffer buffer;
+    private final TaskCodec codec;
+    private final long nextGen;
+    private final int count;
+    private final int tableOffset;
+    private final AtomicReferenceArray<Task> decoded; // shared cache of materialized records
+    private final ConcurrentHashMap<Task, Integer> recordOf = new ConcurrentHashMap<>(); // Task uses identity equality
+
+    private MappedTaskStore(MappedByteBuffer buffer, TaskCodec codec, long nextGen, int count, int tableOffset) {
+        this.buffer = buffer;
+        this.codec = codec;
+        this.nextGen = nextGen;
+        this.count = count;
+        this.tableOffset = tableOffset;
+        this.decoded = new AtomicReferenceArray<>(count);
+    }
+
+    /**
+     * Map a snapshot file; throws IOException if it is not a mappable (version 2 or 3, < 2 GB) snapshot,
+     * and TaskSnapshot.CorruptSnapshotException if it is one but fails verification.
+     */
+    public static MappedTaskStore open(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length > Integer.MAX_VALUE) throw new IOException("Snapshot too large to map");
+            if (length < TaskSnapshot.V2_HEADER_BYTES + TaskSnapshot.TRAILER_BYTES) throw new IOException("Not a mappable snapshot");
+            MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, length); // stays valid after close
+            byte version = buf.get(4);
+            if (buf.getInt(0) != TaskSnapshot.MAGIC || version < 2 || version > TaskSnapshot.VERSION) {
+                throw new IOException("Not a mappable snapshot");
+            }
+            if (version >= 3) {
+                if (length < TaskSnapshot.HEADER_BYTES + TaskSnapshot.TRAILER_BYTES) {
+                    throw new TaskSnapshot.CorruptSnapshotException("Snapshot " + file + " is truncated");
+                }
+                TaskSnapshot.verify(file, buf); // before trusting the trailer or offset table
+            }
+            if (buf.getInt((int) length - 4) != TaskSnapshot.MAGIC) {
+                if (version >= 3) throw new TaskSnapshot.CorruptSnapshotException("Snapshot " + file + " has no trailer");
+                throw new IOException("Not a mappable snapshot");
+            }
+            TaskCodec codec = TaskCodec.forId(buf.get(5));
+            long nextGen = buf.getLong(6);
+            int count = buf.getInt(14);
+            long tableOffset = buf.getLong((int) length - TaskSnapshot.TRAILER_BYTES);
+            if (tableOffset + 8L * count != length - TaskSnapshot.TRAILER_BYTES) throw new IOException("Corrupt snapshot offset table");
+            return new MappedTaskStore(buf, codec, nextGen, count, (int) tableOffset);
+        }
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public TaskCodec codec() {
+        return codec;
+    }
+
+    /** First journal generation NOT covered by this snapshot. */
+    public long nextGen() {
+        return nextGen;
+    }
+
+    /** Record i, decoded on first access and cached; concurrent callers always get the same instance. */
+    public Task get(int i) throws IOException {
+        Task task = decoded.get(i);
+        if (task == null) {
+            task = read(i);
+            if (task != null) {
+                if (decoded.compareAndSet(i, null, task)) {
+                    recordOf.put(task, i);
+                } else {
+                    task = decoded.get(i); // another thread won the race
+                }
+            }
+        }
+        return task;
+    }
+
+    /** Record i as get() would return it, but a record nobody materialized yet is decoded without caching. */
+    public Task peek(int i) throws IOException {
+        Task task = decoded.get(i);
+        return (task != null) ? task : read(i);
+    }
+
+    /** Record that get() decoded into this instance, or -1 if the task did not come from this store. */
+    public int recordOf(Task task) {
+        Integer record = recordOf.get(task);
+        return (record == null) ? -1 : record;
+    }
+
+    /** Decode record i without caching. Thread-safe: each call reads through its own buffer view. */
+    public Task read(int i) throws IOException {
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset(i)).limit(end(i));
+        return codec.read(new DataInputStream(new ByteBufferInputStream(view)));
+    }
+
+    /** Copy record i unchanged (used when re-snapshotting records that were never materialized). */
+    public void copyRecord(int i, DataOutput out) throws IOException {
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset(i)).limit(end(i));
+        byte[] raw = new byte[view.remaining()];
+        view.get(raw);
+        out.write(raw);
+    }
+
+    private int offset(int i) {
+        return (int) buffer.getLong(tableOffset + 8 * i);
+    }
+
+    private int end(int i) {
+        return (i + 1 < count) ? offset(i + 1) : tableOffset;
+    }
+
+    /** Minimal InputStream over a ByteBuffer so codecs can read with DataInput. */
+    private static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buf;
+
+        ByteBufferInputStream(ByteBuffer buf) {
+            this.buf = buf;
+        }
+
+        @Override
+        public int read() {
+            return buf.hasRemaining() ? (buf.get() & 0xFF) : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (!buf.hasRemaining()) return -1;
+            int n = Math.min(len, buf.remaining());
+            buf.get(b, off, n);
+            return n;
+        }
+    }
+}
@@ -17,4 +17,9 @@ public class MotivationalQuote implements Notifiable {
     public String sendNotification() {
         return "💬 Motivation: \"" + quote + "\"";
     }
+
+    @Override
+    public void appendNotification(StringBuilder out) {
+        out.append("💬 Motivation: \"").append(quote).append('"');
+    }
 }
@@ -11,4 +11,13 @@ public interface Notifiable {
      * @return message string
      */
     String sendNotification();
+
+    /**
+     * Append the notification text to out. Batching code (NotificationDispatcher) renders many
+     * notifications into one reused builder this way; override it to skip the intermediate String.
+     * @param out builder to append to
+     */
+    default void appendNotification(StringBuilder out) {
+        out.append(sendNotification());
+    }
 }
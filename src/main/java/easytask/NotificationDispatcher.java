@@ -0,0 +1,288 @@
+package easytask;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pipeline stage between Notifiable producers (e.g. ReminderScheduler) and NotificationSinks.
+ * Notifications go into a bounded queue; one dispatcher thread drains up to maxBatch of them
+ * at a time, renders the batch into a reused StringBuilder (Notifiable.appendNotification, one
+ * line each) and hands the text to every sink. A burst of reminders at a deadline becomes a
+ * few large writes instead of one write (or one dialog) per reminder.
+ * Backpressure: submit() blocks while the queue is full, offer() gives up after a timeout, so
+ * a slow sink slows producers down instead of letting notifications pile up in memory.
+ * Each sink keeps its own metrics (see stats()); a failing sink is counted and skipped for
+ * that batch, the others still get it.
+ */
+public class NotificationDispatcher implements AutoCloseable {
+
+    private static final int INITIAL_BUFFER = 4096;
+    private static final int MAX_KEPT_BUFFER = 1 << 20; // a larger buffer is dropped after its batch
+
+    /** Point-in-time metrics of one sink. */
+    public static final class SinkStats {
+        private final String name;
+        private final long notifications;
+        private final long batches;
+        private final long failures;
+        private final long busyNanos;
+        private final long maxDeliverNanos;
+        private final long maxLatencyNanos;
+
+        SinkStats(String name, long notifications, long batches, long failures,
+                  long busyNanos, long maxDeliverNanos, long maxLatencyNanos) {
+            this.name = name;
+            this.notifications = notifications;
+            this.batches = batches;
+            this.failures = failures;
+            this.busyNanos = busyNanos;
+            this.maxDeliverNanos = maxDeliverNanos;
+            this.maxLatencyNanos = maxLatencyNanos;
+        }
+
+        public String getName() { return name; }
+
+        /** Notifications delivered successfully. */
+        public long getNotifications() { return notifications; }
+
+        /** Batches delivered successfully. */
+        public long getBatches() { return batches; }
+
+        /** Batches the sink threw on. */
+        public long getFailures() { return failures; }
+
+        /** Notifications per second of time spent inside the sink. */
+        public double getThroughput() {
+            return (busyNanos == 0) ? 0 : notifications * 1e9 / busyNanos;
+        }
+
+        /** Mean time of one deliver() call, in microseconds. */
+        public double getAverageDeliverMicros() {
+            long calls = batches + failures;
+            return (calls == 0) ? 0 : busyNanos / 1e3 / calls;
+        }
+
+        public double getMaxDeliverMicros() { return maxDeliverNanos / 1e3; }
+
+        /** Longest time from submit() to delivery of a notification, in microseconds. */
+        public double getMaxLatencyMicros() { return maxLatencyNanos / 1e3; }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d sent in %d batches, %d failed, %.0f/s, deliver avg %.1f us max %.1f us, latency max %.1f us",
+                    name, notifications, batches, failures, getThroughput(),
+                    getAverageDeliverMicros(), getMaxDeliverMicros(), getMaxLatencyMicros());
+        }
+    }
+
+    /** A queued notification and when it was submitted. */
+    private static final class Pending {
+        final Notifiable notification;
+        final long submitted;
+
+        Pending(Notifiable notification, long submitted) {
+            this.notification = notification;
+            this.submitted = submitted;
+        }
+    }
+
+    /** A sink and its counters (guarded by the Meter itself; written by the dispatcher thread only). */
+    private static final class Meter {
+        final NotificationSink sink;
+        long notifications;
+        long batches;
+        long failures;
+        long busyNanos;
+        long maxDeliverNanos;
+        long maxLatencyNanos;
+
+        Meter(NotificationSink sink) {
+            this.sink = sink;
+        }
+    }
+
+    private final BlockingQueue<Pending> queue;
+    private final int maxBatch;
+    private final List<Meter> meters = new ArrayList<>();
+    private final Thread dispatcher;
+
+    private final Object progress = new Object(); // guards submitted/completed/entering/closed, notified after each batch
+    private long submitted;
+    private long completed;
+    private int entering;          // submitters between the closed check and the end of their put/offer
+    private boolean closed;
+
+    /**
+     * @param sinks    where every batch goes
+     * @param capacity notifications that may wait before submit() blocks
+     * @param maxBatch most notifications rendered into one batch
+     */
+    public NotificationDispatcher(List<? extends NotificationSink> sinks, int capacity, int maxBatch) {
+        if (capacity < 1 || maxBatch < 1) throw new IllegalArgumentException("capacity and maxBatch must be positive");
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.maxBatch = maxBatch;
+        for (NotificationSink sink : sinks) meters.add(new Meter(sink));
+        dispatcher = new Thread(this::run, "notify-dispatch");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    /** Queue a notification, waiting while the queue is full. */
+    public void submit(Notifiable notification) {
+        try {
+            if (!enqueue(notification, -1)) throw new IllegalStateException("Dispatcher is closed");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Notification dropped: interrupted while the queue was full");
+        }
+    }
+
+    /** Queue a notification, waiting at most the timeout for room; false if it was not queued. */
+    public boolean offer(Notifiable notification, long timeout, TimeUnit unit) throws InterruptedException {
+        return enqueue(notification, unit.toNanos(timeout));
+    }
+
+    private boolean enqueue(Notifiable notification, long timeoutNanos) throws InterruptedException {
+        Pending p = new Pending(notification, System.nanoTime());
+        synchronized (progress) {
+            if (closed) return false;
+            submitted++; // counted first so flush() waits for it
+            entering++;  // the dispatcher does not stop while this put may still land in the queue
+        }
+        boolean queued = false;
+        try {
+            if (timeoutNanos < 0) {
+                queue.put(p);
+                queued = true;
+            } else {
+                queued = queue.offer(p, timeoutNanos, TimeUnit.NANOSECONDS);
+            }
+        } finally {
+            synchronized (progress) {
+                entering--;
+                if (!queued) {
+                    submitted--;
+                    progress.notifyAll();
+                }
+            }
+        }
+        return queued;
+    }
+
+    /** Wait until everything submitted so far has been handed to the sinks. */
+    public void flush() throws InterruptedException {
+        synchronized (progress) {
+            long target = submitted;
+            while (completed < target) progress.wait();
+        }
+    }
+
+    /** Current metrics of every sink, in the order the sinks were given. */
+    public List<SinkStats> stats() {
+        List<SinkStats> result = new ArrayList<>(meters.size());
+        for (Meter m : meters) {
+            synchronized (m) {
+                result.add(new SinkStats(m.sink.name(), m.notifications, m.batches, m.failures,
+                        m.busyNanos, m.maxDeliverNanos, m.maxLatencyNanos));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Stop accepting notifications, deliver what is queued (including submits already under way,
+     * even ones still waiting for room), then close the sinks.
+     */
+    @Override
+    public void close() {
+        synchronized (progress) {
+            closed = true; // submitters check it under the same lock, so none slips in after this
+        }
+        try {
+            dispatcher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Meter m : meters) {
+            try {
+                m.sink.close();
+            } catch (Exception e) {
+                System.err.println("Error closing notification sink " + m.sink.name() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>(Math.min(maxBatch, 1024));
+        StringBuilder text = new StringBuilder(INITIAL_BUFFER);
+        while (true) {
+            Pending first;
+            try {
+                first = queue.poll(50, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                first = queue.poll();
+            }
+            if (first == null) {
+                if (finished()) return;
+                continue;
+            }
+            batch.add(first);
+            queue.drainTo(batch, maxBatch - 1);
+
+            text.setLength(0);
+            long oldest = Long.MAX_VALUE;
+            for (Pending p : batch) {
+                oldest = Math.min(oldest, p.submitted);
+                int mark = text.length();
+                try {
+                    p.notification.appendNotification(text);
+                    text.append('\n');
+                } catch (RuntimeException e) {
+                    text.setLength(mark); // leave out the one that failed to render
+                    System.err.println("Error rendering notification: " + e.getMessage());
+                }
+            }
+            for (Meter m : meters) deliver(m, text, batch.size(), oldest);
+
+            synchronized (progress) {
+                completed += batch.size();
+                progress.notifyAll();
+            }
+            batch.clear();
+            if (text.capacity() > MAX_KEPT_BUFFER) text = new StringBuilder(INITIAL_BUFFER); // after a storm
+        }
+    }
+
+    /** Closed, no submitter can still put anything, and the queue is empty. */
+    private boolean finished() {
+        synchronized (progress) {
+            return closed && entering == 0 && queue.isEmpty();
+        }
+    }
+
+    private static void deliver(Meter m, CharSequence text, int count, long oldestSubmit) {
+        long start = System.nanoTime();
+        boolean ok = true;
+        try {
+            m.sink.deliver(text, count);
+        } catch (Exception e) {
+            ok = false;
+            System.err.println("Error delivering notifications to " + m.sink.name() + ": " + e.getMessage());
+        }
+        long end = System.nanoTime();
+        synchronized (m) {
+            m.busyNanos += end - start;
+            m.maxDeliverNanos = Math.max(m.maxDeliverNanos, end - start);
+            if (ok) {
+                m.notifications += count;
+                m.batches++;
+                m.maxLatencyNanos = Math.max(m.maxLatencyNanos, end - oldestSubmit);
+            } else {
+                m.failures++;
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package easytask;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Destination for rendered notification batches (see NotificationDispatcher).
+ * A batch is one or more notifications, one per line, each line ending in '\n'.
+ * deliver() is only ever called from the dispatcher thread, one batch at a time, and the text
+ * is only valid during the call (its buffer is reused for the next batch).
+ */
+public interface NotificationSink extends AutoCloseable {
+
+    /**
+     * Deliver one batch.
+     * @param batch rendered lines
+     * @param count number of notifications in the batch
+     */
+    void deliver(CharSequence batch, int count) throws IOException;
+
+    /** Name used in metrics. */
+    default String name() {
+        return getClass().getSimpleName();
+    }
+
+    @Override
+    default void close() throws IOException {
+    }
+
+    /** Prints batches to a stream (e.g. System.out). */
+    static NotificationSink console(PrintStream out) {
+        return new NotificationSink() {
+            @Override
+            public void deliver(CharSequence batch, int count) {
+                out.append(batch);
+                out.flush();
+            }
+
+            @Override
+            public String name() {
+                return "console";
+            }
+        };
+    }
+
+    /** Appends batches to a log file, one write per batch. */
+    static NotificationSink file(Path logFile) throws IOException {
+        FileChannel channel = FileChannel.open(logFile,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        return new EncodingSink("file:" + logFile.getFileName()) {
+            @Override
+            void write(ByteBuffer bytes) throws IOException {
+                while (bytes.hasRemaining()) channel.write(bytes);
+            }
+
+            @Override
+            public void close() throws IOException {
+                channel.close();
+            }
+        };
+    }
+
+    /** Writes batches to a TCP socket (e.g. a local notification daemon), connecting on first use. */
+    static NotificationSink socket(String host, int port) {
+        return new EncodingSink("socket:" + host + ":" + port) {
+            private Socket socket;
+            private OutputStream out;
+
+            @Override
+            void write(ByteBuffer bytes) throws IOException {
+                if (socket == null) {
+                    socket = new Socket();
+                    socket.connect(new InetSocketAddress(host, port), 2000);
+                    out = socket.getOutputStream();
+                }
+                try {
+                    out.write(bytes.array(), bytes.position(), bytes.remaining());
+                    out.flush();
+                } catch (IOException e) {
+                    close(); // reconnect on the next batch
+                    throw e;
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                if (socket != null) {
+                    Socket s = socket;
+                    socket = null;
+                    out = null;
+                    s.close();
+                }
+            }
+        };
+    }
+
+    /** Base for byte-oriented sinks: encodes each batch as UTF-8 into one reused buffer. */
+    abstract class EncodingSink implements NotificationSink {
+        private final String name;
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        private ByteBuffer buffer = ByteBuffer.allocate(8192);
+
+        EncodingSink(String name) {
+            this.name = name;
+        }
+
+        /** Write all remaining bytes (a heap buffer). */
+        abstract void write(ByteBuffer bytes) throws IOException;
+
+        @Override
+        public void deliver(CharSequence batch, int count) throws IOException {
+            CharBuffer chars = CharBuffer.wrap(batch);
+            encoder.reset();
+            buffer.clear();
+            while (encoder.encode(chars, buffer, true).isOverflow()) grow();
+            while (encoder.flush(buffer).isOverflow()) grow();
+            buffer.flip();
+            write(buffer);
+        }
+
+        /** Double the buffer, keeping what is encoded so far; it stays at the larger size. */
+        private void grow() {
+            ByteBuffer bigger = ByteBuffer.allocate(buffer.capacity() * 2);
+            buffer.flip();
+            bigger.put(buffer);
+            buffer = bigger;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package easytask;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Immutable, persistent list of tasks: every "change" returns a new vector and leaves the old one
+ * untouched. It is an AVL tree keyed by position (each node knows its subtree size), so get, set,
+ * insert and remove are O(log n) and a new version copies only the O(log n) nodes on the path to
+ * the change; everything else is shared with the previous version.
+ * Holding on to many versions (undo history, point-in-time snapshots) therefore costs O(log n)
+ * memory per change instead of a full copy of the list each time.
+ */
+public final class PersistentTaskVector {
+
+    public static final PersistentTaskVector EMPTY = new PersistentTaskVector(null);
+
+    private static final class Node {
+        final Task task;
+        final Node left;
+        final Node right;
+        final int size;
+        final int height;
+
+        Node(Task task, Node left, Node right) {
+            this.task = task;
+            this.left = left;
+            this.right = right;
+            this.size = size(left) + size(right) + 1;
+            this.height = Math.max(height(left), height(right)) + 1;
+        }
+    }
+
+    private final Node root;
+
+    private PersistentTaskVector(Node root) {
+        this.root = root;
+    }
+
+    /** A vector holding the given tasks in order, built balanced in O(n). */
+    public static PersistentTaskVector of(List<? extends Task> tasks) {
+        return new PersistentTaskVector(build(tasks, 0, tasks.size()));
+    }
+
+    public int size() {
+        return size(root);
+    }
+
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    public Task get(int index) {
+        checkIndex(index, size());
+        Node n = root;
+        while (true) {
+            int leftSize = size(n.left);
+            if (index < leftSize) {
+                n = n.left;
+            } else if (index > leftSize) {
+                index -= leftSize + 1;
+                n = n.right;
+            } else {
+                return n.task;
+            }
+        }
+    }
+
+    /** This vector with the element at index replaced. */
+    public PersistentTaskVector set(int index, Task task) {
+        checkIndex(index, size());
+        return new PersistentTaskVector(set(root, index, task));
+    }
+
+    /** This vector with task inserted at index (0..size). */
+    public PersistentTaskVector insert(int index, Task task) {
+        checkIndex(index, size() + 1);
+        return new PersistentTaskVector(insert(root, index, task));
+    }
+
+    public PersistentTaskVector append(Task task) {
+        return insert(size(), task);
+    }
+
+    /** This vector without the element at index. */
+    public PersistentTaskVector remove(int index) {
+        checkIndex(index, size());
+        return new PersistentTaskVector(remove(root, index));
+    }
+
+    /** Read-only List view of this version (get is O(log n), iteration O(n)). */
+    public List<Task> asList() {
+        return new View();
+    }
+
+    /** The tasks of this version in a new ArrayList. */
+    public List<Task> toList() {
+        List<Task> out = new ArrayList<>(size());
+        addAll(root, out);
+        return out;
+    }
+
+    private final class View extends AbstractList<Task> implements RandomAccess {
+        @Override
+        public Task get(int index) {
+            return PersistentTaskVector.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return PersistentTaskVector.this.size();
+        }
+    }
+
+    // ===== Tree operations (each returns a new subtree; inputs are never modified) =====
+
+    private static Node build(List<? extends Task> tasks, int from, int to) {
+        if (from >= to) return null;
+        int mid = (from + to) >>> 1;
+        return new Node(tasks.get(mid), build(tasks, from, mid), build(tasks, mid + 1, to));
+    }
+
+    private static Node set(Node n, int index, Task task) {
+        int leftSize = size(n.left);
+        if (index < leftSize) return new Node(n.task, set(n.left, index, task), n.right);
+        if (index > leftSize) return new Node(n.task, n.left, set(n.right, index - leftSize - 1, task));
+        return new Node(task, n.left, n.right);
+    }
+
+    private static Node insert(Node n, int index, Task task) {
+        if (n == null) return new Node(task, null, null);
+        int leftSize = size(n.left);
+        if (index <= leftSize) return balance(n.task, insert(n.left, index, task), n.right);
+        return balance(n.task, n.left, insert(n.right, index - leftSize - 1, task));
+    }
+
+    private static Node remove(Node n, int index) {
+        int leftSize = size(n.left);
+        if (index < leftSize) return balance(n.task, remove(n.left, index), n.right);
+        if (index > leftSize) return balance(n.task, n.left, remove(n.right, index - leftSize - 1));
+        if (n.left == null) return n.right;
+        if (n.right == null) return n.left;
+        Node first = n.right; // replace by the next element in order
+        while (first.left != null) first = first.left;
+        return balance(first.task, n.left, remove(n.right, 0));
+    }
+
+    /** A node over left and right, rotated back into AVL shape if their heights differ by two. */
+    private static Node balance(Task task, Node left, Node right) {
+        int diff = height(left) - height(right);
+        if (diff > 1) {
+            if (height(left.left) < height(left.right)) { // left-right case
+                Node lr = left.right;
+                return new Node(lr.task, new Node(left.task, left.left, lr.left), new Node(task, lr.right, right));
+            }
+            return new Node(left.task, left.left, new Node(task, left.right, right));
+        }
+        if (diff < -1) {
+            if (height(right.right) < height(right.left)) { // right-left case
+                Node rl = right.left;
+                return new Node(rl.task, new Node(task, left, rl.left), new Node(right.task, rl.right, right.right));
+            }
+            return new Node(right.task, new Node(task, left, right.left), right.right);
+        }
+        return new Node(task, left, right);
+    }
+
+    private static void addAll(Node n, List<Task> out) {
+        while (n != null) { // recurse left, loop right
+            addAll(n.left, out);
+            out.add(n.task);
+            n = n.right;
+        }
+    }
+
+    private static int size(Node n) {
+        return (n == null) ? 0 : n.size;
+    }
+
+    private static int height(Node n) {
+        return (n == null) ? 0 : n.height;
+    }
+
+    /** index must be below bound (size, or size + 1 for insert). */
+    private void checkIndex(int index, int bound) {
+        if (index < 0 || index >= bound) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+    }
+}
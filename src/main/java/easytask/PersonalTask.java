@@ -1,6 +1,8 @@
 package easytask;
 
 import java.time.LocalDate;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 
 /**
@@ -8,15 +10,22 @@ import java.io.Serializable;
  * Represents a personal life task.
  */
 public class PersonalTask extends Task implements Serializable {
+    private static final long serialVersionUID = 6137466805510013565L;
+
     private String moodTag;
 
     public PersonalTask(String title, String description, LocalDate dueDate, String priority, String moodTag) {
         super(title, description, dueDate, priority);
-        this.moodTag = moodTag;
+        this.moodTag = StringPool.SHARED.intern(moodTag);
     }
 
     public String getMoodTag() { return moodTag; }
-    public void setMoodTag(String moodTag) { this.moodTag = moodTag; }
+    public void setMoodTag(String moodTag) { this.moodTag = StringPool.SHARED.intern(moodTag); }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        moodTag = StringPool.SHARED.intern(moodTag);
+    }
 
     @Override
     public String getDetails() {
@@ -0,0 +1,54 @@
+package easytask;
+
+/**
+ * Normalized task priority. Task keeps the priority text the user typed;
+ * this enum is what comparisons use, so they never re-parse strings.
+ */
+public enum Priority {
+    HIGH("High", 3),
+    MEDIUM("Medium", 2),
+    LOW("Low", 1),
+    NONE(null, 0); // missing or unrecognized priority -> lowest
+
+    private static final Priority[] VALUES = {HIGH, MEDIUM, LOW};
+
+    private final String label;
+    private final int value;
+
+    Priority(String label, int value) {
+        this.label = label;
+        this.value = value;
+    }
+
+    /** Display text ("High", "Medium", "Low"), or null for NONE. */
+    public String getLabel() {
+        return label;
+    }
+
+    /** Higher number = higher priority. */
+    public int getValue() {
+        return value;
+    }
+
+    /**
+     * One shared instance for a priority text: the label constant when it is exactly "High",
+     * "Medium" or "Low", otherwise the text from StringPool.SHARED (the text itself is kept as typed).
+     */
+    public static String canonical(String text) {
+        if (text == null) return null;
+        for (Priority p : VALUES) {
+            if (text.equals(p.label)) return p.label;
+        }
+        return StringPool.SHARED.intern(text);
+    }
+
+    /** Case-insensitive parse of a priority string; unknown or null text maps to NONE. No allocation for the usual values. */
+    public static Priority parse(String text) {
+        if (text == null) return NONE;
+        String s = text.trim(); // returns the same instance when there is nothing to trim
+        if (s.equalsIgnoreCase("high")) return HIGH;
+        if (s.equalsIgnoreCase("medium")) return MEDIUM;
+        if (s.equalsIgnoreCase("low")) return LOW;
+        return NONE;
+    }
+}
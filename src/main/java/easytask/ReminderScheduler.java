@@ -0,0 +1,258 @@
+package easytask;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Schedules a TaskReminder for every open task with a due date and hands it to a sink when
+ * it is time (by default at midnight one day before the due date).
+ * Pending reminders live in a hierarchical timing wheel with one-minute ticks: LEVELS wheels of
+ * 64 slots, each slot of level L spanning 64^L minutes. Scheduling and cancelling are O(1)
+ * (hash lookup plus a linked-list splice), and a reminder is moved down to a finer wheel at
+ * most LEVELS - 1 times before it fires, so millions of pending reminders cost nothing per tick
+ * beyond the ones actually due.
+ * It follows the TaskList as a TaskListListener: added, updated (e.g. a new due date) and
+ * deleted tasks are rescheduled or cancelled automatically. Reminders whose time has passed
+ * fire right away while the task is not yet overdue; older ones are dropped.
+ * Delivery runs on the given Executor, never on the ticker thread or under the list's lock.
+ */
+public class ReminderScheduler implements TaskListListener, AutoCloseable {
+
+    private static final long TICK_MILLIS = 60_000; // wheel resolution: one minute
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int LEVELS = 6;            // 64^6 minutes: far beyond any due date
+
+    private static final Duration DEFAULT_LEAD = Duration.ofDays(1);
+
+    /** One pending reminder, linked into a wheel slot. */
+    private static final class Entry {
+        final Task task;
+        final TaskReminder reminder;
+        final long deadline; // tick at which it fires
+        Entry prev;
+        Entry next;
+        int level;
+        int slot;
+
+        Entry(Task task, TaskReminder reminder, long deadline) {
+            this.task = task;
+            this.reminder = reminder;
+            this.deadline = deadline;
+        }
+    }
+
+    private final TaskList taskList;
+    private final Consumer<? super Notifiable> sink;
+    private final Executor executor;
+    private final Clock clock;
+    private final Duration lead;
+    private final ExecutorService ownedExecutor; // the default executor, shut down by close()
+
+    // Guarded by this
+    private final Entry[][] wheels = new Entry[LEVELS][SLOTS]; // slot heads
+    private final Map<Task, Entry> pending = new IdentityHashMap<>();
+    private long now; // last tick processed
+
+    private ScheduledExecutorService ticker;
+
+    /** Deliver reminders to sink on virtual threads, using the system clock. */
+    public ReminderScheduler(TaskList taskList, Consumer<? super Notifiable> sink) {
+        this(taskList, sink, null, Clock.systemDefaultZone(), DEFAULT_LEAD);
+    }
+
+    /**
+     * @param executor runs sink calls (null = one virtual thread per reminder); it is called from
+     *                 list change events under the list's write lock, so a direct executor
+     *                 (Runnable::run) stalls the list on a slow sink and is only fit for tests
+     * @param clock    time source and zone in which due dates start
+     * @param lead     how long before the start of the due date to remind
+     */
+    public ReminderScheduler(TaskList taskList, Consumer<? super Notifiable> sink, Executor executor,
+                             Clock clock, Duration lead) {
+        this.taskList = taskList;
+        this.sink = sink;
+        this.clock = clock;
+        this.lead = lead;
+        if (executor == null) {
+            ownedExecutor = Executors.newVirtualThreadPerTaskExecutor(); // a sink that blocks parks, no pool to size
+            this.executor = ownedExecutor;
+        } else {
+            ownedExecutor = null;
+            this.executor = executor;
+        }
+        this.now = tickOf(clock.millis());
+    }
+
+    /** Schedule every task in the list, follow its changes, and start the one-minute ticker. */
+    public void start() {
+        taskList.addListener(this);
+        scheduleAll();
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "reminder-ticker");
+            t.setDaemon(true);
+            return t;
+        });
+        long untilNextTick = TICK_MILLIS - Math.floorMod(clock.millis(), TICK_MILLIS);
+        ticker.scheduleAtFixedRate(this::advance, untilNextTick, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /** Stop ticking and stop following the list; pending reminders are discarded. */
+    @Override
+    public void close() {
+        taskList.removeListener(this);
+        if (ticker != null) ticker.shutdownNow();
+        if (ownedExecutor != null) ownedExecutor.shutdown();
+        synchronized (this) {
+            for (Entry[] wheel : wheels) Arrays.fill(wheel, null);
+            pending.clear();
+        }
+    }
+
+    /** Number of reminders waiting to fire. */
+    public synchronized int pendingCount() {
+        return pending.size();
+    }
+
+    /** Fire everything due up to the clock's current time (the ticker calls this every minute). */
+    public void advance() {
+        List<Entry> due = new ArrayList<>();
+        synchronized (this) {
+            long target = tickOf(clock.millis());
+            while (now < target) { // catches up tick by tick after a pause; a clock moved back waits
+                now++;
+                cascade();
+                int slot = (int) (now & (SLOTS - 1));
+                for (Entry e = wheels[0][slot]; e != null; e = e.next) {
+                    due.add(e);
+                    pending.remove(e.task);
+                }
+                wheels[0][slot] = null;
+            }
+        }
+        for (Entry e : due) deliver(e);
+    }
+
+    /** (Re)schedule the reminder for one task; cancels it if the task has no due date or is done. */
+    public void schedule(Task task) {
+        Entry fireNow = null;
+        synchronized (this) {
+            cancelLocked(task);
+            LocalDate due = (task == null) ? null : task.getDueDate();
+            if (due == null || task.isCompleted()) return;
+            long at = due.atStartOfDay(clock.getZone()).toInstant().minus(lead).toEpochMilli();
+            Entry e = new Entry(task, new TaskReminder(task.getTitle(), due), tickOf(at));
+            if (e.deadline > now) {
+                insert(e);
+                pending.put(task, e);
+            } else if (!due.isBefore(LocalDate.now(clock))) {
+                fireNow = e; // reminder time already passed but the task is not overdue yet
+            }
+        }
+        if (fireNow != null) deliver(fireNow);
+    }
+
+    /** Drop the pending reminder for a task, if any. */
+    public synchronized void cancel(Task task) {
+        cancelLocked(task);
+    }
+
+    private void cancelLocked(Task task) {
+        Entry e = pending.remove(task);
+        if (e == null) return;
+        if (e.prev != null) {
+            e.prev.next = e.next;
+        } else {
+            wheels[e.level][e.slot] = e.next;
+        }
+        if (e.next != null) e.next.prev = e.prev;
+        e.prev = e.next = null;
+    }
+
+    /** Link an entry (deadline > now) into the coarsest wheel it fits. */
+    private void insert(Entry e) {
+        long delta = e.deadline - now;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= (1L << (SLOT_BITS * (level + 1)))) level++;
+        e.level = level;
+        e.slot = (int) ((e.deadline >>> (SLOT_BITS * level)) & (SLOTS - 1));
+        e.prev = null;
+        e.next = wheels[level][e.slot];
+        if (e.next != null) e.next.prev = e;
+        wheels[level][e.slot] = e;
+    }
+
+    /** When a wheel wraps, spread the next slot of the wheel above over the finer wheels. */
+    private void cascade() {
+        int top = 0; // highest level whose slot comes due at this tick
+        while (top < LEVELS - 1 && ((now >>> (SLOT_BITS * (top + 1))) << (SLOT_BITS * (top + 1))) == now) top++;
+        for (int level = top; level >= 1; level--) {
+            int slot = (int) ((now >>> (SLOT_BITS * level)) & (SLOTS - 1));
+            Entry e = wheels[level][slot];
+            wheels[level][slot] = null;
+            while (e != null) {
+                Entry next = e.next;
+                insert(e); // lands on a lower level (or this tick's level-0 slot)
+                e = next;
+            }
+        }
+    }
+
+    private void deliver(Entry e) {
+        // The list may have dropped or finished the task without us hearing about it yet
+        if (e.task.isCompleted() || taskList.indexOf(e.task) < 0) return;
+        try {
+            executor.execute(() -> sink.accept(e.reminder));
+        } catch (RuntimeException ex) { // e.g. executor shut down
+            System.err.println("Reminder not delivered: " + ex.getMessage());
+        }
+    }
+
+    /** Reminders are keyed by task identity, so this needs the list's own instances (not peekTasks copies). */
+    private void scheduleAll() {
+        for (Task t : taskList.getAllTasks()) schedule(t);
+    }
+
+    private static long tickOf(long epochMillis) {
+        return Math.floorDiv(epochMillis, TICK_MILLIS);
+    }
+
+    // ===== TaskListListener =====
+
+    @Override
+    public void taskInserted(int index, Task task) {
+        schedule(task);
+    }
+
+    @Override
+    public void taskUpdated(int index, Task oldTask, Task newTask) {
+        cancel(oldTask);
+        schedule(newTask); // new due date, or completed -> cancelled
+    }
+
+    @Override
+    public void taskDeleted(int index, Task task) {
+        cancel(task);
+    }
+
+    @Override
+    public void tasksReloaded() {
+        synchronized (this) {
+            for (Entry[] wheel : wheels) Arrays.fill(wheel, null);
+            pending.clear();
+        }
+        executor.execute(this::scheduleAll); // not under the list's write lock
+    }
+}
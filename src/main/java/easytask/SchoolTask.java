@@ -1,6 +1,8 @@
 package easytask;
 
 import java.time.LocalDate;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 
 /**
@@ -8,6 +10,8 @@ import java.io.Serializable;
  * @author Houde Yu
  */
 public class SchoolTask extends Task implements Serializable {
+    private static final long serialVersionUID = -5923480437769942685L;
+
     private String courseCode;
 
     /**
@@ -15,7 +19,7 @@ public class SchoolTask extends Task implements Serializable {
      */
     public SchoolTask(String title, String description, LocalDate dueDate, String priority, String courseCode) {
         super(title, description, dueDate, priority);
-        this.courseCode = courseCode;
+        this.courseCode = StringPool.SHARED.intern(courseCode);
     }
 
     // Getter for courseCode
@@ -25,7 +29,12 @@ public class SchoolTask extends Task implements Serializable {
 
     // Setter if needed (optional)
     public void setCourseCode(String courseCode) {
-        this.courseCode = courseCode;
+        this.courseCode = StringPool.SHARED.intern(courseCode);
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        courseCode = StringPool.SHARED.intern(courseCode);
     }
 
     /**
@@ -0,0 +1,40 @@
+package easytask;
+
+import java.io.*;
+
+/**
+ * TaskCodec based on Java object serialization (the original tasks.ser encoding).
+ * Each record is a length-prefixed ObjectOutputStream blob. Kept for comparison
+ * and for task types the binary codec does not know.
+ */
+public class SerializationTaskCodec implements TaskCodec {
+
+    public static final byte ID = 1;
+    public static final SerializationTaskCodec INSTANCE = new SerializationTaskCodec();
+
+    @Override
+    public byte id() {
+        return ID;
+    }
+
+    @Override
+    public void write(Task task, DataOutput out) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+            oos.writeObject(task);
+        }
+        out.writeInt(bytes.size());
+        out.write(bytes.toByteArray());
+    }
+
+    @Override
+    public Task read(DataInput in) throws IOException {
+        byte[] blob = new byte[in.readInt()];
+        in.readFully(blob);
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(blob))) {
+            return (Task) ois.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Unknown task class: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package easytask;
+
+/**
+ * Bounded intern pool for short, highly repetitive strings (course codes, mood tags, custom
+ * priority text). A million tasks usually carry a few dozen distinct tags; canonicalizing them
+ * on construction and on load keeps one instance of each instead of one per task.
+ * Unlike String.intern() the pool has a fixed size and never grows: it is a 4-way set-associative
+ * cache keyed by the string hash, and a miss evicts one entry of its set. Evicting only costs
+ * sharing, never correctness, since the caller always gets an equal string back.
+ * Thread safe without locking: slots hold immutable Strings, so a racy read sees either the old
+ * or the new entry, and both are valid answers.
+ */
+public class StringPool {
+
+    /** Pool shared by all tasks. */
+    public static final StringPool SHARED = new StringPool(4096);
+
+    private static final int WAYS = 4;
+    private static final int MAX_LENGTH = 64; // longer strings are unlikely to repeat; not pooled
+
+    private final String[] slots;
+    private final int setMask;
+
+    /** @param capacity number of strings kept (rounded up to a power of two, at least WAYS) */
+    public StringPool(int capacity) {
+        int size = Integer.highestOneBit(Math.max(WAYS, capacity - 1) << 1);
+        slots = new String[size];
+        setMask = size / WAYS - 1;
+    }
+
+    /** The pooled instance equal to s (s itself becomes pooled on a miss); null for null. */
+    public String intern(String s) {
+        if (s == null || s.length() > MAX_LENGTH) return s;
+        int h = s.hashCode();
+        int base = ((h ^ (h >>> 16)) & setMask) * WAYS;
+        String[] table = slots;
+        for (int i = 0; i < WAYS; i++) {
+            String cur = table[base + i];
+            if (cur == null) {
+                table[base + i] = s;
+                return s;
+            }
+            if (cur == s || (cur.hashCode() == h && cur.equals(s))) return cur;
+        }
+        table[base + ((h >>> 24) & (WAYS - 1))] = s; // set full: evict one, picked by other hash bits
+        return s;
+    }
+}
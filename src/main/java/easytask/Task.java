@@ -1,6 +1,8 @@
 package easytask;
 
 import java.time.LocalDate;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 
 /**
@@ -8,18 +10,26 @@ import java.io.Serializable;
  * Abstract parent class for all tasks.
  */
 public abstract class Task implements Serializable {
+    // pinned to the value of the original class so existing tasks.ser files still deserialize
+    private static final long serialVersionUID = 8881474314147360715L;
+
     protected String title;
     protected String description;
     protected LocalDate dueDate;
     protected String priority;
     protected boolean completed;
 
+    // Derived from priority + dueDate whenever either changes; not serialized
+    private transient Priority priorityLevel;
+    private transient long urgencyKey;
+
     public Task(String title, String description, LocalDate dueDate, String priority) {
         this.title = title;
         this.description = description;
         this.dueDate = dueDate;
-        this.priority = priority;
+        this.priority = Priority.canonical(priority);
         this.completed = false;
+        refreshUrgency();
     }
 
     // Getters and Setters...
@@ -31,14 +41,37 @@ public abstract class Task implements Serializable {
     public void setDescription(String description) { this.description = description; }
 
     public LocalDate getDueDate() { return dueDate; }
-    public void setDueDate(LocalDate dueDate) { this.dueDate = dueDate; }
+    public void setDueDate(LocalDate dueDate) { this.dueDate = dueDate; refreshUrgency(); }
 
     public String getPriority() { return priority; }
-    public void setPriority(String priority) { this.priority = priority; }
+    public void setPriority(String priority) { this.priority = Priority.canonical(priority); refreshUrgency(); }
+
+    /** Normalized priority parsed once from the priority text. */
+    public Priority getPriorityLevel() { return priorityLevel; }
+
+    /**
+     * Packed sort key: smaller = more urgent.
+     * High 32 bits = priority rank (High first, unknown last), low 32 bits = due date
+     * as an unsigned epoch day (no due date sorts last). Lets queues compare two longs.
+     */
+    public long getUrgencyKey() { return urgencyKey; }
 
     public boolean isCompleted() { return completed; }
     public void setCompleted(boolean completed) { this.completed = completed; }
 
+    private void refreshUrgency() {
+        priorityLevel = Priority.parse(priority);
+        long rank = Priority.HIGH.getValue() - priorityLevel.getValue();
+        long day = (dueDate == null) ? 0xFFFFFFFFL : (dueDate.toEpochDay() - Integer.MIN_VALUE) & 0xFFFFFFFFL;
+        urgencyKey = (rank << 32) | day;
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        priority = Priority.canonical(priority); // one shared instance instead of a copy per task
+        refreshUrgency();
+    }
+
     /**
      * Abstract method to be overridden by sub-classes.
      * @return Detailed string for the task
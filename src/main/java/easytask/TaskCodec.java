@@ -0,0 +1,29 @@
+package easytask;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Encodes single Task records for snapshots and journal segments.
+ * Files store the codec id in their header, so a store written with one codec
+ * can still be read after the default codec changes.
+ */
+public interface TaskCodec {
+
+    /** Id written into file headers. */
+    byte id();
+
+    /** Write one task. */
+    void write(Task task, DataOutput out) throws IOException;
+
+    /** Read one task written by {@link #write}. */
+    Task read(DataInput in) throws IOException;
+
+    /** Look up a codec by the id found in a file header. */
+    static TaskCodec forId(byte id) throws IOException {
+        if (id == BinaryTaskCodec.ID) return BinaryTaskCodec.INSTANCE;
+        if (id == SerializationTaskCodec.ID) return SerializationTaskCodec.INSTANCE;
+        throw new IOException("Unknown task codec id: " + id);
+    }
+}
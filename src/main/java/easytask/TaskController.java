@@ -1,7 +1,17 @@
 package easytask;
 
+import javax.swing.JOptionPane;
+import javax.swing.JScrollPane;
+import javax.swing.JTextArea;
+import javax.swing.SwingUtilities;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Controller class in the MVC architecture.
@@ -12,6 +22,9 @@ public class TaskController {
 
     private TaskList taskList;
     private TaskListUI listUI;
+    private ReminderScheduler reminders;
+    private NotificationDispatcher notifications;
+    private TaskHistory history;
 
     /** Constructor: initializes data and opens the task list UI. */
     public TaskController() {
@@ -19,8 +32,22 @@ public class TaskController {
         if (taskList.getAllTasks().isEmpty()) {
             preloadSampleTasks(); // only seed when no data yet
         }
+        history = new TaskHistory(taskList, 100);
         listUI = new TaskListUI(this);
         listUI.setVisible(true);
+
+        // Deadline reminders, batched: printed, and shown as one message per batch
+        NotificationSink dialogs = (batch, count) -> {
+            String text = batch.toString(); // the batch buffer is reused once deliver returns
+            SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(listUI,
+                    new JScrollPane(new JTextArea(text, Math.min(count, 10), 50)),
+                    count == 1 ? "Reminder" : count + " Reminders", JOptionPane.INFORMATION_MESSAGE));
+        };
+        notifications = new NotificationDispatcher(
+                List.of(NotificationSink.console(System.out), dialogs), 1024, 256);
+        reminders = new ReminderScheduler(taskList, notifications::submit, null,
+                Clock.systemDefaultZone(), Duration.ofDays(1)); // a full dispatcher queue blocks a delivery thread, never the list
+        reminders.start();
     }
 
     /** Returns all tasks in the list. */
@@ -28,6 +55,11 @@ public class TaskController {
         return taskList.getAllTasks();
     }
 
+    /** The underlying task list (e.g. for table models that listen to its change events). */
+    public TaskList getTaskList() {
+        return taskList;
+    }
+
     /** Show detail view for a selected or new task. */
     public void showTaskDetails(Task task, int rowIndex) {
         new TaskDetailUI(this, task, rowIndex);
@@ -35,25 +67,35 @@ public class TaskController {
 
     /** Add a new task (no uniqueness check). */
     public void addNewTask(Task task) {
-        taskList.addTask(task);
+        history.execute(TaskHistory.add(task));
     }
 
     /** Add new task only if title is unique; return true if added. */
     public boolean addNewTaskUnique(Task task) {
         if (task == null || task.getTitle() == null) return false;
         if (taskList.containsTitle(task.getTitle())) return false;
-        taskList.addTask(task);
+        history.execute(TaskHistory.add(task));
         return true;
     }
 
+    /** Bulk import: add all tasks with a single write. */
+    public void addAllTasks(List<? extends Task> tasks) {
+        taskList.addAll(tasks);
+    }
+
+    /** Bulk delete: remove all given tasks with a single write; returns how many were removed. */
+    public int removeAllTasks(List<? extends Task> tasks) {
+        return taskList.removeAll(tasks);
+    }
+
     /** Update a task by index. */
     public void updateTask(int index, Task updatedTask) {
-        taskList.updateTask(index, updatedTask);
+        history.execute(TaskHistory.update(index, updatedTask));
     }
 
     /** Delete a task by index. */
     public void deleteTask(int index) {
-        taskList.removeTask(index);
+        history.execute(TaskHistory.delete(index));
     }
 
     /** Get a task by index. */
@@ -68,7 +110,8 @@ public class TaskController {
 
     /** Activity 04: pop (remove) the most-urgent task from storage. */
     public Task popMostUrgentTask() {
-        return taskList.popMostUrgent();
+        TaskHistory.Removal pop = TaskHistory.popMostUrgent();
+        return history.execute(pop) ? pop.getRemoved() : null;
     }
 
 
@@ -77,22 +120,109 @@ public class TaskController {
         return taskList.getByTitle(title);
     }
 
+    /** Keyword search (title, description, course, mood; words match as prefixes), best match first. */
+    public List<Task> searchTasks(String query, int limit) {
+        return taskList.search(query, limit);
+    }
+
+    /** Tasks due from 'from' to 'to' (inclusive), earliest first. */
+    public List<Task> getTasksDueBetween(LocalDate from, LocalDate to) {
+        return taskList.getTasksDueBetween(from, to);
+    }
+
+    /** Tasks due today through the next six days. */
+    public List<Task> getTasksDueThisWeek() {
+        LocalDate today = LocalDate.now();
+        return taskList.getTasksDueBetween(today, today.plusDays(6));
+    }
+
+    /** Incomplete tasks whose due date has passed. */
+    public List<Task> getOverdueTasks() {
+        return taskList.getOverdueTasks(LocalDate.now());
+    }
+
+    /** Number of incomplete tasks whose due date has passed. */
+    public int countOverdueTasks() {
+        return taskList.countOverdue(LocalDate.now());
+    }
+
+    /**
+     * Tasks matching every non-null filter (e.g. High, incomplete, MATH101),
+     * answered by the attribute index without testing each task.
+     */
+    public List<Task> filterTasks(Priority priority, Boolean completed, String courseCode, String moodTag) {
+        Map<String, Object> criteria = new HashMap<>();
+        if (priority != null) criteria.put(AttributeIndex.PRIORITY, priority);
+        if (completed != null) criteria.put(AttributeIndex.COMPLETED, completed);
+        if (courseCode != null) criteria.put(AttributeIndex.COURSE, courseCode);
+        if (moodTag != null) criteria.put(AttributeIndex.MOOD, moodTag);
+        return taskList.findWhere(criteria);
+    }
+
+    /** Row of a listed task in O(log n), or -1. */
+    public int indexOfTask(Task task) {
+        return taskList.indexOf(task);
+    }
+
     /** Delete a task by title; return true if deleted. */
     public boolean deleteTaskByTitle(String title) {
-        return taskList.removeByTitle(title);
+        return history.execute(TaskHistory.deleteByTitle(title));
+    }
+
+    /** Stream tasks from a CSV or JSON Lines file (by extension) into the list, in batches; not undoable. */
+    public TaskImporter.Result importTasks(Path file) throws IOException {
+        return TaskImporter.importInto(taskList, file);
+    }
+
+    /** Stream every task to a CSV or JSON Lines file (by extension); returns the number written. */
+    public long exportTasks(Path file) throws IOException {
+        return TaskExporter.export(taskList, file, TaskFileFormat.forPath(file));
+    }
+
+    /** Undo the last add, edit, delete or pop; false if there is nothing (left) to undo. */
+    public boolean undo() {
+        return history.undo();
+    }
+
+    /** Redo the last undone change; false if there is nothing to redo. */
+    public boolean redo() {
+        return history.redo();
+    }
+
+    /** The change undo() would reverse, e.g. "Delete \"Essay\"", or null. */
+    public String peekUndo() {
+        return history.peekUndo();
+    }
+
+    /** The change redo() would repeat, or null. */
+    public String peekRedo() {
+        return history.peekRedo();
+    }
+
+    /** Immutable point-in-time view of the task list; cheap to keep (shares structure with later ones). */
+    public PersistentTaskVector snapshotTasks() {
+        return history.snapshot();
+    }
+
+    /** Quit: wait for pending background writes to reach disk, then exit. */
+    public void quit() {
+        reminders.close();
+        notifications.close();
+        taskList.close();
+        System.exit(0);
     }
 
-    /** Re-display the list UI and refresh table. */
+    /** Re-display the list UI (the table already follows TaskList change events). */
     public void showListUI() {
-        listUI.refreshTable();
         listUI.setVisible(true);
     }
 
     /** Seed sample tasks if storage is empty. */
     private void preloadSampleTasks() {
-        taskList.addTask(new SchoolTask("Math HW", "Chapter 5 exercises",
-                LocalDate.of(2025, 8, 1), "High", "MATH101"));
-        taskList.addTask(new PersonalTask("Meditation", "10 mins in the morning",
-                LocalDate.of(2025, 8, 2), "Low", "Wellness"));
+        taskList.addAll(List.of(
+                new SchoolTask("Math HW", "Chapter 5 exercises",
+                        LocalDate.of(2025, 8, 1), "High", "MATH101"),
+                new PersonalTask("Meditation", "10 mins in the morning",
+                        LocalDate.of(2025, 8, 2), "Low", "Wellness")));
     }
 }
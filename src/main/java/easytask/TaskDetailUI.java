@@ -4,6 +4,7 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.time.LocalDate;
 
 /**
  * TaskDetailUI displays and edits a single task in the List-Detail UI pattern.
@@ -85,7 +86,7 @@ public class TaskDetailUI extends JFrame {
         if (task != null) {
             titleField.setText(task.getTitle());
             descriptionField.setText(task.getDescription());
-            dueDateField.setText(task.getDueDate().toString());
+            dueDateField.setText(dueDateText(task));
             priorityField.setText(task.getPriority());
 
             if (task instanceof SchoolTask) {
@@ -112,12 +113,24 @@ public class TaskDetailUI extends JFrame {
         String tag = tagField.getText();
 
         if (title.toLowerCase().contains("course") || tag.matches("[A-Z]{2,}[0-9]{2,}")) {
-            return new SchoolTask(title, description, java.time.LocalDate.parse(dueDate), priority, tag);
+            return new SchoolTask(title, description, parseDueDate(dueDate), priority, tag);
         } else {
-            return new PersonalTask(title, description, java.time.LocalDate.parse(dueDate), priority, tag);
+            return new PersonalTask(title, description, parseDueDate(dueDate), priority, tag);
         }
     }
 
+    /** Text for the due date field; empty for a task without a due date (e.g. an imported one). */
+    static String dueDateText(Task task) {
+        LocalDate due = task.getDueDate();
+        return (due == null) ? "" : due.toString();
+    }
+
+    /** Due date from the field: blank means no due date, as in imported files; otherwise YYYY-MM-DD. */
+    static LocalDate parseDueDate(String text) {
+        String trimmed = text.trim();
+        return trimmed.isEmpty() ? null : LocalDate.parse(trimmed);
+    }
+
     private class SaveButtonListener implements ActionListener {
         public void actionPerformed(ActionEvent e) {
             try {
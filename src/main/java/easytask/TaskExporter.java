@@ -0,0 +1,196 @@
+package easytask;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+
+/**
+ * Streams tasks to a CSV or JSON Lines file (see TaskFileFormat) in constant memory.
+ * Rows are rendered into one reused StringBuilder, encoded to UTF-8 into one reused buffer and
+ * written to a FileChannel in large chunks; nothing per task outlives its row.
+ * A TaskList is read page by page with peekTasks(), so exporting a memory-mapped list does not
+ * decode it into the heap. Pages are read one at a time: edits made during the export may or
+ * may not be included.
+ */
+public class TaskExporter implements AutoCloseable {
+
+    private static final int PAGE = 1024;           // tasks per peekTasks() call
+    private static final int FLUSH_CHARS = 32 * 1024; // rendered text buffered before encoding
+
+    private final FileChannel channel;
+    private final TaskFileFormat format;
+    private final StringBuilder text = new StringBuilder(FLUSH_CHARS + 1024);
+    private final ByteBuffer bytes = ByteBuffer.allocate(64 * 1024);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private long rows;
+
+    /** Create (or truncate) file and write the CSV header if needed. */
+    public TaskExporter(Path file, TaskFileFormat format) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        this.format = format;
+        if (format == TaskFileFormat.CSV) {
+            text.append(String.join(",", TaskFileFormat.COLUMNS)).append('\n');
+        }
+    }
+
+    /** Write every task of list to file; returns the number of rows written. */
+    public static long export(TaskList list, Path file, TaskFileFormat format) throws IOException {
+        try (TaskExporter out = new TaskExporter(file, format)) {
+            for (int from = 0; ; from += PAGE) {
+                Task[] page = list.peekTasks(from, PAGE);
+                if (page.length == 0) break;
+                for (Task t : page) out.write(t);
+            }
+            return out.rows();
+        }
+    }
+
+    /** Write the given tasks to file; returns the number of rows written. */
+    public static long export(Iterable<? extends Task> tasks, Path file, TaskFileFormat format) throws IOException {
+        try (TaskExporter out = new TaskExporter(file, format)) {
+            for (Task t : tasks) out.write(t);
+            return out.rows();
+        }
+    }
+
+    /** Append one task (null tasks are skipped). */
+    public void write(Task task) throws IOException {
+        if (task == null) return;
+        if (format == TaskFileFormat.CSV) {
+            appendCsv(task);
+        } else {
+            appendJson(task);
+        }
+        rows++;
+        if (text.length() >= FLUSH_CHARS) drain(false);
+    }
+
+    /** Rows written so far. */
+    public long rows() {
+        return rows;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            drain(true);
+            channel.force(false);
+        } finally {
+            channel.close();
+        }
+    }
+
+    // ===== Rendering =====
+
+    private void appendCsv(Task t) {
+        text.append(typeOf(t)).append(',');
+        csvField(t.getTitle()).append(',');
+        csvField(t.getDescription()).append(',');
+        LocalDate due = t.getDueDate();
+        if (due != null) text.append(due);
+        text.append(',');
+        csvField(t.getPriority()).append(',');
+        text.append(t.isCompleted()).append(',');
+        csvField((t instanceof SchoolTask s) ? s.getCourseCode() : null).append(',');
+        csvField((t instanceof PersonalTask p) ? p.getMoodTag() : null).append('\n');
+    }
+
+    private StringBuilder csvField(String s) {
+        if (s == null) return text;
+        boolean quote = false;
+        for (int i = 0; i < s.length() && !quote; i++) {
+            char c = s.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) return text.append(s);
+        text.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"') text.append('"');
+            text.append(c);
+        }
+        return text.append('"');
+    }
+
+    private void appendJson(Task t) {
+        text.append("{\"type\":\"").append(typeOf(t)).append('"');
+        jsonField(TaskFileFormat.TITLE, t.getTitle());
+        jsonField(TaskFileFormat.DESCRIPTION, t.getDescription());
+        LocalDate due = t.getDueDate();
+        jsonField(TaskFileFormat.DUE_DATE, (due == null) ? null : due.toString());
+        jsonField(TaskFileFormat.PRIORITY, t.getPriority());
+        text.append(",\"completed\":").append(t.isCompleted());
+        if (t instanceof SchoolTask s) jsonField(TaskFileFormat.COURSE_CODE, s.getCourseCode());
+        if (t instanceof PersonalTask p) jsonField(TaskFileFormat.MOOD_TAG, p.getMoodTag());
+        text.append("}\n");
+    }
+
+    private void jsonField(int column, String value) {
+        text.append(",\"").append(TaskFileFormat.COLUMNS[column]).append("\":");
+        if (value == null) {
+            text.append("null");
+            return;
+        }
+        text.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> text.append("\\\"");
+                case '\\' -> text.append("\\\\");
+                case '\n' -> text.append("\\n");
+                case '\r' -> text.append("\\r");
+                case '\t' -> text.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        text.append("\\u00").append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 15, 16));
+                    } else {
+                        text.append(c);
+                    }
+                }
+            }
+        }
+        text.append('"');
+    }
+
+    private static String typeOf(Task t) {
+        return (t instanceof PersonalTask) ? "Personal" : "School";
+    }
+
+    // ===== Encoding =====
+
+    /** Encode the buffered text into the byte buffer, writing it out whenever it fills. */
+    private void drain(boolean endOfInput) throws IOException {
+        CharBuffer chars = CharBuffer.wrap(text);
+        while (true) {
+            CoderResult result = encoder.encode(chars, bytes, endOfInput);
+            if (result.isOverflow()) {
+                writeBytes();
+            } else {
+                break;
+            }
+        }
+        if (endOfInput) {
+            while (encoder.flush(bytes).isOverflow()) writeBytes();
+            writeBytes();
+        }
+        // a lone high surrogate at the very end stays unencoded until the next row completes it
+        text.delete(0, chars.position());
+    }
+
+    private void writeBytes() throws IOException {
+        bytes.flip();
+        while (bytes.hasRemaining()) channel.write(bytes);
+        bytes.clear();
+    }
+}
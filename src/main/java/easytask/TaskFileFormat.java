@@ -0,0 +1,29 @@
+package easytask;
+
+import java.nio.file.Path;
+
+/**
+ * Text formats for importing and exporting tasks (TaskImporter / TaskExporter).
+ * Both carry the same fields, named by COLUMNS:
+ *  - CSV: RFC 4180 (comma separated, fields with commas, quotes or line breaks in double quotes,
+ *    quotes doubled), with a header row naming the columns
+ *  - JSON_LINES: one flat JSON object per line, e.g.
+ *    {"type":"School","title":"Essay","dueDate":"2025-08-01","priority":"High","completed":false,"courseCode":"IST261"}
+ * type is "School" or "Personal"; dueDate is yyyy-MM-dd or empty/null.
+ */
+public enum TaskFileFormat {
+    CSV,
+    JSON_LINES;
+
+    static final String[] COLUMNS = {
+            "type", "title", "description", "dueDate", "priority", "completed", "courseCode", "moodTag"};
+    static final int TYPE = 0, TITLE = 1, DESCRIPTION = 2, DUE_DATE = 3, PRIORITY = 4, COMPLETED = 5,
+            COURSE_CODE = 6, MOOD_TAG = 7;
+
+    /** Format implied by the file name: .jsonl / .ndjson / .json are JSON_LINES, anything else CSV. */
+    public static TaskFileFormat forPath(Path file) {
+        String name = file.getFileName().toString().toLowerCase();
+        if (name.endsWith(".jsonl") || name.endsWith(".ndjson") || name.endsWith(".json")) return JSON_LINES;
+        return CSV;
+    }
+}
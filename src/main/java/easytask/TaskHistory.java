@@ -0,0 +1,252 @@
+package easytask;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.Function;
+
+/**
+ * Undo/redo log of TaskList mutations (command pattern).
+ * Each Command remembers just what it needs to reverse itself (the task it removed or replaced
+ * and where), so the log costs O(1) per entry instead of a copy of the list. Commands run inside
+ * a TaskList batch, so finding a task and changing it happen under one write lock.
+ * A command whose task has meanwhile disappeared (e.g. deleted elsewhere) reports false and is
+ * dropped instead of touching some other task.
+ *
+ * snapshot() returns the list as a PersistentTaskVector. The vector is built on the first call
+ * and then follows every change through TaskListListener events at O(log n) memory per change, so
+ * any number of point-in-time snapshots can be kept around while sharing almost all of their nodes.
+ */
+public class TaskHistory implements TaskListListener {
+
+    /** A reversible change to a TaskList. */
+    public interface Command {
+        /** Perform (or redo) the change; false if it could not be applied and nothing changed. */
+        boolean apply(TaskList list);
+
+        /** Reverse the last apply; false if the list no longer allows it. */
+        boolean undo(TaskList list);
+
+        /** Short text for menus and messages, e.g. "Delete \"Essay\"". */
+        String describe();
+    }
+
+    private final TaskList list;
+    private final int limit;
+    private final Deque<Command> undoStack = new ArrayDeque<>();
+    private final Deque<Command> redoStack = new ArrayDeque<>();
+
+    // Persistent copy of the list; null until the first snapshot(). Written only under the list's write lock.
+    private volatile PersistentTaskVector mirror;
+
+    /** @param limit most commands kept for undo (older ones are forgotten) */
+    public TaskHistory(TaskList list, int limit) {
+        this.list = list;
+        this.limit = limit;
+        list.addListener(this);
+    }
+
+    /** Apply a command and make it undoable; clears the redo stack. */
+    public synchronized boolean execute(Command command) {
+        boolean[] ok = new boolean[1];
+        list.batch(() -> ok[0] = command.apply(list));
+        if (!ok[0]) return false;
+        undoStack.push(command);
+        if (undoStack.size() > limit) undoStack.removeLast();
+        redoStack.clear();
+        return true;
+    }
+
+    /** Undo the most recent command; false if there is none or it no longer applies. */
+    public synchronized boolean undo() {
+        Command command = undoStack.poll();
+        if (command == null) return false;
+        boolean[] ok = new boolean[1];
+        list.batch(() -> ok[0] = command.undo(list));
+        if (ok[0]) redoStack.push(command);
+        return ok[0];
+    }
+
+    /** Redo the most recently undone command; false if there is none or it no longer applies. */
+    public synchronized boolean redo() {
+        Command command = redoStack.poll();
+        if (command == null) return false;
+        boolean[] ok = new boolean[1];
+        list.batch(() -> ok[0] = command.apply(list));
+        if (ok[0]) undoStack.push(command);
+        return ok[0];
+    }
+
+    public synchronized boolean canUndo() {
+        return !undoStack.isEmpty();
+    }
+
+    public synchronized boolean canRedo() {
+        return !redoStack.isEmpty();
+    }
+
+    /** Description of the command undo() would reverse, or null. */
+    public synchronized String peekUndo() {
+        Command c = undoStack.peek();
+        return (c == null) ? null : c.describe();
+    }
+
+    /** Description of the command redo() would repeat, or null. */
+    public synchronized String peekRedo() {
+        Command c = redoStack.peek();
+        return (c == null) ? null : c.describe();
+    }
+
+    /** The list as it is now, as an immutable vector that later changes do not affect. */
+    public PersistentTaskVector snapshot() {
+        PersistentTaskVector v = mirror;
+        if (v != null) return v;
+        list.batch(() -> { // write lock: no change can slip in between the copy and the first event
+            if (mirror == null) mirror = PersistentTaskVector.of(list.getAllTasks());
+        });
+        return mirror;
+    }
+
+    // ===== Commands =====
+
+    /** Add a task at the end of the list. */
+    public static Command add(Task task) {
+        return new Command() {
+            private int index = -1; // where it was added, so redo puts it back there
+
+            @Override
+            public boolean apply(TaskList l) {
+                if (index < 0 || index > l.size()) {
+                    l.addTask(task);
+                    index = l.size() - 1;
+                } else {
+                    l.insertTask(index, task);
+                }
+                return true;
+            }
+
+            @Override
+            public boolean undo(TaskList l) {
+                int i = l.indexOf(task);
+                if (i < 0) return false;
+                index = i;
+                l.removeTask(i);
+                return true;
+            }
+
+            @Override
+            public String describe() {
+                return "Add \"" + task.getTitle() + "\"";
+            }
+        };
+    }
+
+    /** Replace the task at index. */
+    public static Command update(int index, Task updated) {
+        return new Command() {
+            private Task old; // null until the first apply
+
+            @Override
+            public boolean apply(TaskList l) {
+                int i = (old == null) ? index : l.indexOf(old);
+                Task current = l.getTask(i);
+                if (current == null) return false;
+                old = current;
+                l.updateTask(i, updated);
+                return true;
+            }
+
+            @Override
+            public boolean undo(TaskList l) {
+                int i = l.indexOf(updated);
+                if (i < 0) return false;
+                l.updateTask(i, old);
+                return true;
+            }
+
+            @Override
+            public String describe() {
+                return "Edit \"" + updated.getTitle() + "\"";
+            }
+        };
+    }
+
+    /** Delete the task at index. */
+    public static Removal delete(int index) {
+        return new Removal("Delete", l -> l.getTask(index));
+    }
+
+    /** Delete the task with the given title. */
+    public static Removal deleteByTitle(String title) {
+        return new Removal("Delete", l -> l.getByTitle(title));
+    }
+
+    /** Remove the most urgent task (Activity 04 "pop"). */
+    public static Removal popMostUrgent() {
+        return new Removal("Pop", TaskList::peekMostUrgent);
+    }
+
+    /** Removes one task, chosen on the first apply; undo puts it back at its old position. */
+    public static final class Removal implements Command {
+        private final String verb;
+        private final Function<TaskList, Task> target;
+        private Task removed;
+        private int index;
+
+        private Removal(String verb, Function<TaskList, Task> target) {
+            this.verb = verb;
+            this.target = target;
+        }
+
+        /** The task removed by the last apply, or null if none was. */
+        public Task getRemoved() {
+            return removed;
+        }
+
+        @Override
+        public boolean apply(TaskList l) {
+            Task t = (removed == null) ? target.apply(l) : removed; // redo removes the same task again
+            int i = (t == null) ? -1 : l.indexOf(t);
+            if (i < 0) return false;
+            l.removeTask(i);
+            removed = t;
+            index = i;
+            return true;
+        }
+
+        @Override
+        public boolean undo(TaskList l) {
+            l.insertTask(Math.min(index, l.size()), removed);
+            return true;
+        }
+
+        @Override
+        public String describe() {
+            return verb + " \"" + ((removed == null) ? "?" : removed.getTitle()) + "\"";
+        }
+    }
+
+    // ===== TaskListListener: keep the persistent copy in step (called under the list's write lock) =====
+
+    @Override
+    public void taskInserted(int index, Task task) {
+        PersistentTaskVector v = mirror;
+        if (v != null) mirror = v.insert(index, task);
+    }
+
+    @Override
+    public void taskUpdated(int index, Task oldTask, Task newTask) {
+        PersistentTaskVector v = mirror;
+        if (v != null) mirror = v.set(index, newTask);
+    }
+
+    @Override
+    public void taskDeleted(int index, Task task) {
+        PersistentTaskVector v = mirror;
+        if (v != null) mirror = v.remove(index);
+    }
+
+    @Override
+    public void tasksReloaded() {
+        mirror = null; // rebuilt by the next snapshot()
+    }
+}
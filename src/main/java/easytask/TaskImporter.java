@@ -0,0 +1,432 @@
+package easytask;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Streams tasks from a CSV or JSON Lines file (see TaskFileFormat) in constant memory.
+ * The file is read through a FileChannel into one reused byte buffer, decoded into one reused
+ * char buffer and split by a hand-rolled tokenizer (no per-line String, no regex); only the field
+ * values that end up in a Task are allocated. Tasks are handed on in batches, to TaskList.addAll()
+ * (one write lock and one journal commit per batch) or to any other consumer.
+ * Malformed rows are skipped, counted and reported on System.err (the first few).
+ */
+public class TaskImporter implements AutoCloseable {
+
+    public static final int DEFAULT_BATCH = 4096;
+
+    private static final int MAX_REPORTED_ERRORS = 10;
+
+    /** Outcome (or progress so far) of an import. */
+    public static final class Result {
+        private final long rows;
+        private final long skipped;
+        private final long elapsedNanos;
+
+        Result(long rows, long skipped, long elapsedNanos) {
+            this.rows = rows;
+            this.skipped = skipped;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /** Tasks imported. */
+        public long getRows() { return rows; }
+
+        /** Malformed rows that were skipped. */
+        public long getSkipped() { return skipped; }
+
+        public long getElapsedNanos() { return elapsedNanos; }
+
+        public double getRowsPerSecond() {
+            return (elapsedNanos == 0) ? 0 : rows * 1e9 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d rows imported, %d skipped, %.1f s, %.0f rows/s",
+                    rows, skipped, elapsedNanos / 1e9, getRowsPerSecond());
+        }
+    }
+
+    /** A row that could not be turned into a task; thrown without a stack trace. */
+    private static final class MalformedRowException extends Exception {
+        MalformedRowException(String message) {
+            super(message, null, false, false);
+        }
+    }
+
+    private final FileChannel channel;
+    private final TaskFileFormat format;
+    private final ByteBuffer bytes = ByteBuffer.allocate(64 * 1024);
+    private final CharBuffer chars = CharBuffer.allocate(64 * 1024);
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private boolean endOfFile;   // channel exhausted
+    private boolean decoded;     // decoder flushed; chars holds the last of the input
+
+    // Tokenizer state, reused for every row
+    private final StringBuilder token = new StringBuilder(256);
+    private final String[] fields = new String[TaskFileFormat.COLUMNS.length];
+    private int[] csvColumns;    // CSV column position -> field slot (-1 = ignored); null until the first row
+    private long line = 1;       // current line, for error messages
+    private long rowLine;        // line the current row started on
+
+    public TaskImporter(Path file, TaskFileFormat format) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.format = format;
+        bytes.flip();  // empty, ready for reading
+        chars.flip();
+        if (peek() == '\uFEFF') read(); // byte order mark
+    }
+
+    /** Import file into list (format from the file name), in batches of DEFAULT_BATCH. */
+    public static Result importInto(TaskList list, Path file) throws IOException {
+        return importInto(list, file, TaskFileFormat.forPath(file), DEFAULT_BATCH, null);
+    }
+
+    /** Import file into list with one addAll() per batch; progress (may be null) sees the totals after each batch. */
+    public static Result importInto(TaskList list, Path file, TaskFileFormat format, int batchSize,
+                                    Consumer<? super Result> progress) throws IOException {
+        try (TaskImporter in = new TaskImporter(file, format)) {
+            return in.readBatches(batchSize, list::addAll, progress);
+        }
+    }
+
+    /**
+     * Read every row, handing tasks to sink in batches of up to batchSize.
+     * The batch list is reused, so sink must copy what it wants to keep.
+     */
+    public Result readBatches(int batchSize, Consumer<? super List<Task>> sink,
+                              Consumer<? super Result> progress) throws IOException {
+        long start = System.nanoTime();
+        long rows = 0;
+        long skipped = 0;
+        List<Task> batch = new ArrayList<>(batchSize);
+        while (true) {
+            Task task;
+            try {
+                task = next();
+            } catch (MalformedRowException e) {
+                if (++skipped <= MAX_REPORTED_ERRORS) {
+                    System.err.println("Skipping malformed row at line " + rowLine + ": " + e.getMessage());
+                }
+                continue;
+            }
+            if (task != null) batch.add(task);
+            if (batch.size() >= batchSize || (task == null && !batch.isEmpty())) {
+                sink.accept(batch);
+                rows += batch.size();
+                batch.clear();
+                if (progress != null) progress.accept(new Result(rows, skipped, System.nanoTime() - start));
+            }
+            if (task == null) break;
+        }
+        return new Result(rows, skipped, System.nanoTime() - start);
+    }
+
+    /** The next task, or null at the end of the file. */
+    private Task next() throws IOException, MalformedRowException {
+        return (format == TaskFileFormat.CSV) ? nextCsv() : nextJson();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // ===== CSV =====
+
+    private Task nextCsv() throws IOException, MalformedRowException {
+        while (true) {
+            int c = skipLineBreaks();
+            if (c < 0) return null;
+            rowLine = line;
+            Arrays.fill(fields, null);
+            boolean header = csvColumns == null;
+            int column = 0;
+            boolean firstIsHeader = false;
+            List<String> headerNames = header ? new ArrayList<>() : null;
+            while (true) {
+                String value = readCsvField();
+                if (header) {
+                    headerNames.add(value);
+                } else if (column < csvColumns.length && csvColumns[column] >= 0) {
+                    fields[csvColumns[column]] = value;
+                }
+                column++;
+                int end = read();
+                if (end == ',') continue;
+                if (end == '\r' && peek() == '\n') read();
+                if (end == '\r' || end == '\n') line++;
+                if (end < 0 || end == '\r' || end == '\n') break;
+                skipLine(); // text after a closing quote: resync at the end of the line
+                throw new MalformedRowException("unexpected text after quoted field");
+            }
+            if (!header) return toTask();
+            // First row: a header names the columns; otherwise it is data in the default order
+            int[] map = new int[headerNames.size()];
+            for (int i = 0; i < map.length; i++) {
+                map[i] = slotOf(headerNames.get(i));
+                firstIsHeader |= map[i] == TaskFileFormat.TITLE;
+            }
+            if (firstIsHeader) {
+                csvColumns = map;
+                continue;
+            }
+            csvColumns = new int[TaskFileFormat.COLUMNS.length];
+            for (int i = 0; i < csvColumns.length; i++) csvColumns[i] = i;
+            for (int i = 0; i < headerNames.size() && i < fields.length; i++) fields[i] = headerNames.get(i);
+            return toTask();
+        }
+    }
+
+    /** One field up to (not including) the next comma, line break or end of file. */
+    private String readCsvField() throws IOException, MalformedRowException {
+        token.setLength(0);
+        if (peek() != '"') {
+            while (true) {
+                int c = peek();
+                if (c < 0 || c == ',' || c == '\n' || c == '\r') break;
+                token.append((char) read());
+            }
+            return token.toString();
+        }
+        read(); // opening quote
+        while (true) {
+            int c = read();
+            if (c < 0) throw new MalformedRowException("unterminated quoted field");
+            if (c == '"') {
+                if (peek() != '"') return token.toString(); // closing quote
+                read();                                    // "" = one quote
+            } else if (c == '\n') {
+                line++;
+            }
+            token.append((char) c);
+        }
+    }
+
+    // ===== JSON Lines =====
+
+    private Task nextJson() throws IOException, MalformedRowException {
+        int c = skipLineBreaks();
+        while (c == ' ' || c == '\t') { // blank lines may hold whitespace
+            read();
+            c = peek();
+            if (c == '\r' || c == '\n') c = skipLineBreaks();
+        }
+        if (c < 0) return null;
+        rowLine = line;
+        Arrays.fill(fields, null);
+        try {
+            expect('{');
+            skipSpaces();
+            if (peek() == '}') {
+                read();
+            } else {
+                while (true) {
+                    skipSpaces();
+                    expect('"');
+                    int slot = slotOf(readJsonString());
+                    skipSpaces();
+                    expect(':');
+                    skipSpaces();
+                    String value = readJsonValue();
+                    if (slot >= 0) fields[slot] = value;
+                    skipSpaces();
+                    int sep = readInLine();
+                    if (sep == '}') break;
+                    if (sep != ',') throw new MalformedRowException("expected ',' or '}'");
+                }
+            }
+            skipSpaces();
+            int end = peek();
+            if (end >= 0 && end != '\n' && end != '\r') throw new MalformedRowException("text after the object");
+        } catch (MalformedRowException e) {
+            skipLine();
+            throw e;
+        }
+        return toTask();
+    }
+
+    /** A string, true/false, or null (returned as null); numbers are kept as their text. */
+    private String readJsonValue() throws IOException, MalformedRowException {
+        int c = peek();
+        if (c == '"') {
+            read();
+            return readJsonString();
+        }
+        token.setLength(0);
+        while (true) {
+            c = peek();
+            if (c < 0 || c == ',' || c == '}' || c == ' ' || c == '\t' || c == '\n' || c == '\r') break;
+            token.append((char) read());
+        }
+        if (token.length() == 0) throw new MalformedRowException("missing value");
+        if (token.length() == 4 && "null".contentEquals(token)) return null;
+        return token.toString();
+    }
+
+    /** The rest of a string whose opening quote was already read, with escapes resolved. */
+    private String readJsonString() throws IOException, MalformedRowException {
+        token.setLength(0);
+        while (true) {
+            int c = readInLine();
+            if (c < 0) throw new MalformedRowException("unterminated string");
+            if (c == '"') return token.toString();
+            if (c != '\\') {
+                token.append((char) c);
+                continue;
+            }
+            int e = readInLine();
+            switch (e) {
+                case '"', '\\', '/' -> token.append((char) e);
+                case 'b' -> token.append('\b');
+                case 'f' -> token.append('\f');
+                case 'n' -> token.append('\n');
+                case 'r' -> token.append('\r');
+                case 't' -> token.append('\t');
+                case 'u' -> {
+                    int code = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int digit = Character.digit(readInLine(), 16);
+                        if (digit < 0) throw new MalformedRowException("bad \\u escape");
+                        code = (code << 4) | digit;
+                    }
+                    token.append((char) code);
+                }
+                default -> throw new MalformedRowException("bad escape");
+            }
+        }
+    }
+
+    private void expect(char expected) throws IOException, MalformedRowException {
+        if (readInLine() != expected) throw new MalformedRowException("expected '" + expected + "'");
+    }
+
+    private void skipSpaces() throws IOException {
+        int c;
+        while ((c = peek()) == ' ' || c == '\t') read();
+    }
+
+    // ===== Rows to tasks =====
+
+    private static int slotOf(CharSequence name) {
+        String[] columns = TaskFileFormat.COLUMNS;
+        for (int i = 0; i < columns.length; i++) {
+            if (columns[i].length() == name.length() && columns[i].contentEquals(name)) return i;
+        }
+        return -1;
+    }
+
+    private Task toTask() throws MalformedRowException {
+        String type = fields[TaskFileFormat.TYPE];
+        String title = fields[TaskFileFormat.TITLE];
+        if (title == null || title.isEmpty()) throw new MalformedRowException("missing title");
+        LocalDate due = parseDate(fields[TaskFileFormat.DUE_DATE]);
+        String description = fields[TaskFileFormat.DESCRIPTION];
+        String priority = fields[TaskFileFormat.PRIORITY];
+        Task task;
+        if (type == null || type.equalsIgnoreCase("School") || type.equalsIgnoreCase("SchoolTask")) {
+            task = new SchoolTask(title, description, due, priority, fields[TaskFileFormat.COURSE_CODE]);
+        } else if (type.equalsIgnoreCase("Personal") || type.equalsIgnoreCase("PersonalTask")) {
+            task = new PersonalTask(title, description, due, priority, fields[TaskFileFormat.MOOD_TAG]);
+        } else {
+            throw new MalformedRowException("unknown type " + type);
+        }
+        String completed = fields[TaskFileFormat.COMPLETED];
+        task.setCompleted(completed != null && (completed.equalsIgnoreCase("true") || completed.equals("1")));
+        return task;
+    }
+
+    /** yyyy-MM-dd without going through a DateTimeFormatter; empty means no due date. */
+    private static LocalDate parseDate(String s) throws MalformedRowException {
+        if (s == null || s.isEmpty()) return null;
+        if (s.length() != 10 || s.charAt(4) != '-' || s.charAt(7) != '-') {
+            throw new MalformedRowException("bad date " + s);
+        }
+        try {
+            return LocalDate.of(digits(s, 0, 4), digits(s, 5, 7), digits(s, 8, 10));
+        } catch (DateTimeException e) {
+            throw new MalformedRowException("bad date " + s);
+        }
+    }
+
+    private static int digits(String s, int from, int to) throws MalformedRowException {
+        int n = 0;
+        for (int i = from; i < to; i++) {
+            int d = s.charAt(i) - '0';
+            if (d < 0 || d > 9) throw new MalformedRowException("bad date " + s);
+            n = n * 10 + d;
+        }
+        return n;
+    }
+
+    // ===== Character source =====
+
+    /** Skip blank lines; returns the next character (not consumed) or -1. */
+    private int skipLineBreaks() throws IOException {
+        int c;
+        while ((c = peek()) == '\n' || c == '\r') {
+            read();
+            if (c == '\n' || peek() != '\n') line++;
+        }
+        return c;
+    }
+
+    private void skipLine() throws IOException {
+        int c;
+        while ((c = peek()) >= 0 && c != '\n' && c != '\r') read();
+    }
+
+    private int peek() throws IOException {
+        if (!chars.hasRemaining() && !fill()) return -1;
+        return chars.get(chars.position());
+    }
+
+    /** Like read(), but a line break is left unread and reported as -1 (JSON rows never span lines). */
+    private int readInLine() throws IOException {
+        int c = peek();
+        return (c == '\n' || c == '\r') ? -1 : read();
+    }
+
+    private int read() throws IOException {
+        if (!chars.hasRemaining() && !fill()) return -1;
+        return chars.get();
+    }
+
+    /** Decode the next chunk of the file into chars; false at the end of the input. */
+    private boolean fill() throws IOException {
+        chars.clear();
+        while (!decoded) {
+            CoderResult result = decoder.decode(bytes, chars, endOfFile);
+            if (result.isOverflow()) break; // chars is full
+            if (endOfFile) {
+                if (decoder.flush(chars).isOverflow()) break;
+                decoded = true;
+                break;
+            }
+            if (chars.position() > 0) break; // hand out what we have before blocking on more input
+            bytes.compact();
+            int n = channel.read(bytes);
+            bytes.flip();
+            if (n < 0) endOfFile = true;
+        }
+        chars.flip();
+        return chars.hasRemaining();
+    }
+}
@@ -0,0 +1,17 @@
+package easytask;
+
+/**
+ * A secondary index over a TaskList's tasks.
+ * TaskList calls add() for every task already in the list when the index is registered
+ * (or built), then add()/remove() under its write lock on every mutation; an in-place
+ * edit through editTask/updateTask arrives as add() of a task that is already indexed,
+ * which must re-index it under its current fields. Queries run under the read lock.
+ */
+public interface TaskIndex {
+
+    /** Index a task, or re-index it if it is already present. */
+    void add(Task task);
+
+    /** Forget a task (it may have been edited in place since it was added). */
+    void remove(Task task);
+}
@@ -0,0 +1,364 @@
+package easytask;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Append-only write-ahead journal for TaskList mutations.
+ * Each mutation is written as one compact record instead of rewriting the whole snapshot:
+ *   [byte op][int index][int payloadLength][payload bytes]
+ * The payload is the task encoded with the segment's TaskCodec; every segment starts with
+ * [byte SEGMENT_MAGIC][byte codecId] so old segments stay readable after the codec changes.
+ * Records live in numbered segment files (e.g. tasks.journal.0, tasks.journal.1, ...).
+ * A snapshot remembers the first segment it does NOT cover, so loading = snapshot + replay of newer segments.
+ *
+ * Appends are buffered in a buffer borrowed from a BufferPool and handed back at every commit,
+ * so many idle journals hold no buffer memory.
+ *
+ * Durability uses group commit: append() only buffers, commit() flushes and fsyncs.
+ * Concurrent committers that arrive while an fsync is in flight are covered by it,
+ * and an optional commit window lets more records pile up before each fsync.
+ * All methods are thread-safe. The fsync lock is a ReentrantLock rather than a monitor,
+ * so a virtual thread blocked in fsync does not pin its carrier thread.
+ */
+public class TaskJournal {
+
+    public static final byte ADD = 1;
+    public static final byte UPDATE = 2;
+    public static final byte REMOVE = 3;
+
+    private static final byte SEGMENT_MAGIC = 'J';
+
+    private final File baseFile;   // e.g. tasks.journal -> segments tasks.journal.<gen>
+    private long generation;       // segment currently receiving appends
+    private FileOutputStream file; // current segment, opened lazily on first append
+    private DataOutputStream out;  // buffered (pooled) view of file
+    private long segmentBytes;     // bytes written to the current segment
+    private long appendedBytes;    // bytes appended since this journal was created (all segments)
+
+    // One fsync at a time. Lock order: syncLock before the journal monitor.
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private long syncedBytes;                     // appendedBytes covered by the last fsync (guarded by syncLock)
+    private long syncs;                           // fsyncs issued by commit() (guarded by syncLock)
+    private volatile long commitWindowMillis;     // 0 = fsync immediately
+    private TaskCodec codec = BinaryTaskCodec.INSTANCE;
+    private final BufferPool buffers;
+
+    public TaskJournal(String baseName) {
+        this(baseName, BufferPool.SHARED);
+    }
+
+    public TaskJournal(String baseName, BufferPool buffers) {
+        this.baseFile = new File(baseName).getAbsoluteFile();
+        this.buffers = buffers;
+    }
+
+    /** Segment number that new records are appended to. */
+    public synchronized long generation() {
+        return generation;
+    }
+
+    /** Bytes written to the current segment so far. */
+    public synchronized long size() {
+        return segmentBytes;
+    }
+
+    /** Start appending at a fresh segment after every segment that already exists on disk (and at least at minGen). */
+    public void open(long minGen) {
+        syncLock.lock();
+        try {
+            synchronized (this) {
+                closeQuietly();
+                long next = minGen;
+                for (long gen : existingGenerations()) {
+                    next = Math.max(next, gen + 1);
+                }
+                generation = next;
+                segmentBytes = 0;
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /** Codec for new records; the open segment is rolled so each segment uses a single codec. */
+    public void setCodec(TaskCodec codec) {
+        syncLock.lock();
+        try {
+            synchronized (this) {
+                if (out != null) roll();
+                this.codec = codec;
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /** How long a commit waits for other records to join its fsync (group-commit window). */
+    public void setCommitWindow(long millis) {
+        this.commitWindowMillis = Math.max(0, millis);
+    }
+
+    /** Buffer one mutation record; it becomes durable at the next commit(). For REMOVE the task may be null. */
+    public void append(byte op, int index, Task task) throws IOException {
+        synchronized (this) {
+            byte[] payload = (op == REMOVE) ? new byte[0] : encode(task); // encode first so a failure never leaves half a record
+            if (out == null) {
+                file = new FileOutputStream(segmentFile(generation), true);
+                out = new DataOutputStream(buffers.output(file));
+                out.writeByte(SEGMENT_MAGIC);
+                out.writeByte(codec.id());
+                segmentBytes += 2;
+                appendedBytes += 2;
+            }
+            out.writeByte(op);
+            out.writeInt(index);
+            out.writeInt(payload.length);
+            out.write(payload);
+            segmentBytes += 9 + payload.length;
+            appendedBytes += 9 + payload.length;
+        }
+    }
+
+    /**
+     * Make every record appended so far durable.
+     * If another thread's fsync already covered them this returns without touching the disk,
+     * so N concurrent commits cost one fsync instead of N.
+     */
+    public void commit() throws IOException {
+        long target;
+        synchronized (this) {
+            target = appendedBytes;
+        }
+        syncLock.lock();
+        try {
+            if (syncedBytes >= target) return; // covered by an earlier group
+            long window = commitWindowMillis;
+            if (window > 0) {
+                try {
+                    Thread.sleep(window); // let concurrent writers join this group
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            long covered;
+            FileOutputStream toSync;
+            synchronized (this) {
+                if (out != null) out.flush();
+                covered = appendedBytes;
+                toSync = file;
+            }
+            if (toSync != null) {
+                toSync.getFD().sync(); // earlier segments were synced when they rolled
+                syncs++;
+            }
+            syncedBytes = covered;
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /** Number of fsyncs commit() has issued so far; less than the number of commits when groups formed. */
+    public long syncCount() {
+        syncLock.lock();
+        try {
+            return syncs;
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /** Close the current segment and switch appends to the next one; returns the new generation. */
+    public long roll() {
+        syncLock.lock(); // never close a segment while commit() is syncing it
+        try {
+            synchronized (this) {
+                closeQuietly();
+                generation++;
+                segmentBytes = 0;
+                return generation;
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * Apply every record from segments >= fromGen, in order, on top of the given list.
+     * Replay stops at the first record that is torn or corrupt: positional records only make sense
+     * on top of all the ones before them. The damaged segment is cut back to its last good record
+     * and every later segment is renamed to *.orphaned-*, so the next load does not replay
+     * past the gap either; the damaged segment's original bytes are kept under that name too.
+     */
+    public synchronized void replay(long fromGen, List<Task> tasks) {
+        List<Long> gens = existingGenerations();
+        for (int g = 0; g < gens.size(); g++) {
+            long gen = gens.get(g);
+            if (gen < fromGen) continue;
+            File segment = segmentFile(gen);
+            long length = segment.length();
+            long good = 0; // bytes of the segment up to the end of the last applied record
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(segment)))) {
+                if (in.readByte() != SEGMENT_MAGIC) {
+                    throw new IOException("unrecognized segment header");
+                }
+                TaskCodec segmentCodec = TaskCodec.forId(in.readByte());
+                good = 2;
+                while (good < length) {
+                    byte op = in.readByte();
+                    int index = in.readInt();
+                    int payloadLength = in.readInt();
+                    if (op != ADD && op != UPDATE && op != REMOVE) {
+                        throw new IOException("unknown record type " + op);
+                    }
+                    if (payloadLength < 0 || payloadLength > length - good - 9) { // never allocate what the file cannot hold
+                        throw new IOException("record length " + payloadLength + " at offset " + good);
+                    }
+                    byte[] payload = new byte[payloadLength];
+                    in.readFully(payload);
+                    Task task = (op == REMOVE) ? null
+                            : segmentCodec.read(new DataInputStream(new ByteArrayInputStream(payload)));
+                    apply(op, index, task, tasks);
+                    good += 9 + payloadLength;
+                }
+            } catch (IOException | RuntimeException e) {
+                // a crash mid-append leaves a torn last record (EOF); anything else is corruption
+                String why = (e instanceof EOFException) ? "an incomplete record" : "a bad record (" + e.getMessage() + ")";
+                System.err.println("Journal segment " + gen + " has " + why + " after " + good + " bytes; replay stops there.");
+                cutBack(gen, good, gens.subList(g + 1, gens.size()));
+                return;
+            }
+        }
+    }
+
+    /** Truncate segment gen to its first good bytes and move it (original bytes) and the later segments aside. */
+    private void cutBack(long gen, long good, List<Long> later) {
+        String suffix = ".orphaned-" + System.currentTimeMillis();
+        File segment = segmentFile(gen);
+        try {
+            Files.copy(segment.toPath(), new File(segment.getPath() + suffix).toPath());
+            if (good <= 2) {
+                Files.delete(segment.toPath()); // no record survived (or not even the header)
+            } else {
+                try (RandomAccessFile raf = new RandomAccessFile(segment, "rw")) {
+                    raf.setLength(good);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Could not cut journal segment " + gen + " back: " + e.getMessage());
+        }
+        int moved = 0;
+        for (long g : later) {
+            if (moveAside(g, suffix)) moved++;
+        }
+        if (moved > 0) {
+            System.err.println(moved + " later journal segment(s) were renamed to *" + suffix + " and not replayed.");
+        }
+    }
+
+    /** Delete segments older than gen (they are covered by a snapshot). */
+    public void deleteBefore(long gen) {
+        for (long g : existingGenerations()) {
+            if (g < gen && !segmentFile(g).delete()) {
+                System.err.println("Could not delete journal segment " + g);
+            }
+        }
+    }
+
+    /**
+     * Rename every segment to its name + suffix, e.g. after the snapshot they build on was lost;
+     * renamed segments are kept for recovery but never replayed. Returns how many were moved.
+     */
+    public int moveAside(String suffix) {
+        int moved = 0;
+        for (long g : existingGenerations()) {
+            if (moveAside(g, suffix)) moved++;
+        }
+        return moved;
+    }
+
+    private boolean moveAside(long gen, String suffix) {
+        File segment = segmentFile(gen);
+        if (segment.renameTo(new File(segment.getPath() + suffix))) return true;
+        System.err.println("Could not move journal segment " + gen + " aside");
+        return false;
+    }
+
+    /** Flush, sync and close the open segment. */
+    public void close() {
+        syncLock.lock();
+        try {
+            synchronized (this) {
+                closeQuietly();
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private static void apply(byte op, int index, Task task, List<Task> tasks) {
+        switch (op) {
+            case ADD -> { // records from addTask carry index == size, so they append
+                if (index >= 0 && index < tasks.size()) {
+                    tasks.add(index, task);
+                } else {
+                    tasks.add(task);
+                }
+            }
+            case UPDATE -> {
+                if (index >= 0 && index < tasks.size()) tasks.set(index, task);
+            }
+            case REMOVE -> {
+                if (index >= 0 && index < tasks.size()) tasks.remove(index);
+            }
+            default -> System.err.println("Unknown journal record type: " + op);
+        }
+    }
+
+    private void closeQuietly() {
+        if (out != null) {
+            try {
+                out.flush();
+                file.getFD().sync(); // a closed segment must be durable before a newer one is relied on
+                out.close();
+            } catch (IOException e) {
+                System.err.println("Error closing journal: " + e.getMessage());
+            }
+            out = null;
+            file = null;
+        }
+    }
+
+    private File segmentFile(long gen) {
+        return new File(baseFile.getPath() + "." + gen);
+    }
+
+    /** Generations of segment files present on disk, ascending. */
+    private List<Long> existingGenerations() {
+        List<Long> gens = new ArrayList<>();
+        File dir = baseFile.getParentFile();
+        String prefix = baseFile.getName() + ".";
+        String[] names = (dir == null) ? null : dir.list();
+        if (names == null) return gens;
+        for (String name : names) {
+            if (name.startsWith(prefix)) {
+                try {
+                    gens.add(Long.parseLong(name.substring(prefix.length())));
+                } catch (NumberFormatException ignored) {
+                    // not a segment file
+                }
+            }
+        }
+        gens.sort(null);
+        return gens;
+    }
+
+    private byte[] encode(Task task) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        codec.write(task, new DataOutputStream(bytes));
+        return bytes.toByteArray();
+    }
+}
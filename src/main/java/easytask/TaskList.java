@@ -1,201 +1,852 @@
 package easytask;
 
 import java.io.*;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
 import java.util.List;
 import java.util.Map;
-import java.util.HashMap;
-import java.util.PriorityQueue;
 import java.util.Comparator;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Manages a collection of Task objects with persistence support.
  * Adds:
- *  - transient HashMap<String, Task> index for O(1) lookup by title (Activity 03)
- *  - transient PriorityQueue<Task> urgentQueue for "most-urgent" retrieval (Activity 04)
+ *  - transient ConcurrentHashMap<String, Task> index for O(1) lookup by title (Activity 03)
+ *  - transient UrgencyHeap urgentQueue for "most-urgent" retrieval (Activity 04); an indexed heap,
+ *    so removing or re-keying a task is O(log n)
+ *  - append-only TaskJournal: each mutation appends one record; the full snapshot is only
+ *    rewritten by saveToFile() or by background compaction once the journal grows too large;
+ *    if a record cannot be written, journaling stops and commits write full snapshots until one
+ *    covers every change, so the journal never replays onto the wrong positions
+ *  - batches (beginBatch/endBatch, addAll, removeAll): many mutations, one journal commit
+ *  - pluggable TaskCodec for snapshot and journal records (compact BinaryTaskCodec by default)
+ *  - transient TaskSearchIndex for ranked keyword/prefix search over title, description,
+ *    course code and mood tag (built on first search, then kept up to date by every mutation)
+ *  - transient DueDateIndex (epoch day -> tasks) for due-date range and overdue queries
+ *  - transient AttributeIndex for conjunctive filters on priority, completed, course and mood,
+ *    plus registerIndex() for any other TaskIndex that should follow the list
+ *  - IndexedTaskList storage: position <-> task in O(log n), so removing or finding a task by
+ *    title never scans or shifts the whole list
+ *  - snapshots are memory-mapped (MappedTaskStore) and tasks are decoded lazily on first access;
+ *    the title index and urgent queue are likewise built on first use
+ *  - thread safety: a read-write lock guards the list and queue, title lookups go straight to the
+ *    ConcurrentHashMap, and getAllTasks() returns an immutable snapshot that is re-copied only after a change
+ *  - asynchronous durability: mutations return right away and a single background writer commits
+ *    the journal (coalescing bursts of changes); whenDurable()/flush()/close() report or wait for it
+ *  - TaskListListener events (inserted / updated / deleted at an index) for incremental views
+ *  - preload(pool): opt-in, decode the snapshot and build the title index, urgent queue and
+ *    due-date/attribute indexes up front, in parallel (the search index stays lazy)
  * Author: Houde Yu (updated for Activity 03 & 04)
  */
 public class TaskList {
 
-    private List<Task> tasks;
+    private IndexedTaskList tasks;
     private final String TASK_FILE = "tasks.ser";
+    private final String JOURNAL_FILE = "tasks.journal";
+    private final File taskFile;      // TASK_FILE inside the store directory
+    private final String journalBase; // JOURNAL_FILE inside the store directory
 
-    // Activity 03: O(1) lookup by title; transient so it is NOT serialized
-    private transient Map<String, Task> indexByTitle = new HashMap<>();
+    // Tasks per preload() segment: decoded and title-indexed as one fork/join leaf
+    private static final int PRELOAD_SEGMENT = 8192;
 
-    // Activity 04: PriorityQueue ordered by priority then dueDate (most urgent at head)
-    private transient PriorityQueue<Task> urgentQueue;
+    // Journal segment size (bytes) after which the journal is folded into a new snapshot
+    private static final long DEFAULT_COMPACTION_THRESHOLD = 4L * 1024 * 1024;
+
+    // One background thread shared by all lists for snapshot compaction
+    private static final ExecutorService COMPACTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "tasklist-compactor");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Single background writer shared by all lists; commits the journal off the caller's (e.g. Swing) thread
+    private static final ExecutorService WRITER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "tasklist-writer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private transient TaskJournal journal;
+    private volatile Executor persistenceExecutor;
+    private final BufferPool buffers;                  // journal write buffers, shared with other lists
+    private volatile boolean asyncCommit = true;
+    private final Object commitMonitor = new Object();
+    private CompletableFuture<Void> pendingCommit;     // scheduled but not yet started (guarded by commitMonitor)
+    private volatile TaskCodec codec = BinaryTaskCodec.INSTANCE;
+    private volatile long commitWindowMillis;          // applied to every journal this list opens
+    private long compactionThreshold = DEFAULT_COMPACTION_THRESHOLD;
+    private boolean compacting;                        // guarded by the write lock
+    // A record could not be journaled (e.g. a task the codec cannot encode). Later positional records
+    // would replay against the wrong list, so the journal takes none until a full snapshot covers them.
+    private volatile boolean journalBroken;            // written under the write lock
+    private long unjournaled;                          // changes skipped while broken (guarded by the write lock)
+    private final Object snapshotLock = new Object(); // serializes snapshot writers
+    private long snapshotGen = -1;                     // newest generation written (guarded by snapshotLock)
+
+    // Writers (and whole batches) hold the write lock; readers share the read lock.
+    // A batch is simply a write-lock hold spanning several mutations.
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object buildLock = new Object();     // one lazy index/queue build at a time
+
+    // Activity 03: O(1) lookup by title; transient so it is NOT serialized (null until first use)
+    private transient volatile Map<String, Task> indexByTitle;
+
+    // Activity 04: indexed heap ordered by priority then dueDate (most urgent at head; null until first use)
+    private transient volatile UrgencyHeap urgentQueue;
+
+    // Keyword search over title/description/course/mood (null until the first search)
+    private transient volatile TaskSearchIndex searchIndex;
+
+    // Due-date range index (null until the first date query)
+    private transient volatile DueDateIndex dueIndex;
+
+    // Posting-list filters on priority/completed/course/mood (null until the first filter)
+    private transient volatile AttributeIndex attributeIndex;
+
+    // Indexes registered by callers; kept up to date by every mutation and rebuilt on load
+    private final List<TaskIndex> customIndexes = new CopyOnWriteArrayList<>();
+
+    // Change listeners (e.g. TaskTableModel); notified under the write lock, in order
+    private final List<TaskListListener> listeners = new CopyOnWriteArrayList<>();
+
+    // Immutable copy handed out by getAllTasks(); dropped on every change
+    private volatile List<Task> allTasksView;
 
     public TaskList() {
-        this.tasks = new ArrayList<>();
-        loadFromFile();     // load saved tasks if any
-        rebuildIndex();     // build the title index for fast lookup
-        rebuildUrgentQueue(); // build the urgent queue for most-urgent feature
+        this(new File("."));
+    }
+
+    /** A task list stored in the given directory (tasks.ser + tasks.journal.* segments). */
+    public TaskList(File directory) {
+        this(directory, null, BufferPool.SHARED);
+    }
+
+    /**
+     * A task list in the given directory that commits on persistenceExecutor (null = the shared
+     * background writer) and buffers journal records in buffers; lets many lists share both.
+     */
+    public TaskList(File directory, Executor persistenceExecutor, BufferPool buffers) {
+        this.persistenceExecutor = (persistenceExecutor == null) ? WRITER : persistenceExecutor;
+        this.buffers = buffers;
+        this.taskFile = new File(directory, TASK_FILE);
+        this.journalBase = new File(directory, JOURNAL_FILE).getPath();
+        this.tasks = new IndexedTaskList();
+        loadFromFile();     // load saved tasks if any; index and queue are built on first use
+    }
+
+    /** Register a listener for insert/update/delete events. */
+    public void addListener(TaskListListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(TaskListListener listener) {
+        listeners.remove(listener);
+    }
+
+    /** Number of tasks (cheaper than getAllTasks().size() right after a change). */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return tasks.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void fireInserted(int index, Task task) {
+        for (TaskListListener l : listeners) l.taskInserted(index, task);
+    }
+
+    private void fireUpdated(int index, Task oldTask, Task newTask) {
+        for (TaskListListener l : listeners) l.taskUpdated(index, oldTask, newTask);
+    }
+
+    private void fireDeleted(int index, Task task) {
+        for (TaskListListener l : listeners) l.taskDeleted(index, task);
+    }
+
+    /** Title index, built on first use so loading does not decode every task. */
+    private Map<String, Task> titleIndex() {
+        Map<String, Task> index = indexByTitle;
+        if (index != null) return index;
+        lock.readLock().lock(); // keep writers out while the index is built from the list
+        try {
+            synchronized (buildLock) {
+                if (indexByTitle == null) rebuildIndex();
+                return indexByTitle;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Urgent queue, built on first use. Callers hold the read or write lock. */
+    private UrgencyHeap urgentQueue() {
+        UrgencyHeap queue = urgentQueue;
+        if (queue != null) return queue;
+        synchronized (buildLock) {
+            if (urgentQueue == null) rebuildUrgentQueue();
+            return urgentQueue;
+        }
+    }
+
+    /** Search index, built on first use. Callers hold the read or write lock. */
+    private TaskSearchIndex searchIndex() {
+        TaskSearchIndex index = searchIndex;
+        if (index != null) return index;
+        synchronized (buildLock) {
+            if (searchIndex == null) {
+                TaskSearchIndex built = new TaskSearchIndex();
+                for (Task t : tasks) built.add(t);
+                searchIndex = built;
+            }
+            return searchIndex;
+        }
+    }
+
+    /** Due-date index, built on first use. Callers hold the read or write lock. */
+    private DueDateIndex dueIndex() {
+        DueDateIndex index = dueIndex;
+        if (index != null) return index;
+        synchronized (buildLock) {
+            if (dueIndex == null) {
+                DueDateIndex built = new DueDateIndex();
+                for (Task t : tasks) built.add(t);
+                dueIndex = built;
+            }
+            return dueIndex;
+        }
+    }
+
+    /** Attribute index, built on first use. Callers hold the read or write lock. */
+    private AttributeIndex attributeIndex() {
+        AttributeIndex index = attributeIndex;
+        if (index != null) return index;
+        synchronized (buildLock) {
+            if (attributeIndex == null) {
+                AttributeIndex built = AttributeIndex.standard();
+                for (Task t : tasks) built.add(t);
+                attributeIndex = built;
+            }
+            return attributeIndex;
+        }
+    }
+
+    /**
+     * Decode every task and build the title index, urgent queue and query indexes now, in
+     * parallel on pool, instead of one by one on first use.
+     * Every snapshot record can be decoded on its own (the offset table at the end of the file
+     * says where each one starts), so the list is cut into segments that are decoded, and their
+     * titles indexed, concurrently. The urgent queue and the due-date and attribute indexes are
+     * then built at the same time, one task each; the search index, the most expensive, is still
+     * built on the first search. Structures that already exist are kept.
+     * Readers carry on meanwhile but writers wait until it is done, so this is for batch and
+     * benchmark use, not for a list that an interactive view is already editing.
+     */
+    public void preload(ForkJoinPool pool) {
+        lock.readLock().lock();
+        try {
+            synchronized (buildLock) {
+                IndexedTaskList list = tasks;
+                Task[] all = new Task[list.size()];
+                Map<String, Task> titles = (indexByTitle == null) ? new ConcurrentHashMap<>(Math.max(16, all.length)) : null;
+                pool.invoke(new PreloadSegment(list, all, titles, 0, all.length));
+
+                List<ForkJoinTask<?>> builds = new ArrayList<>();
+                if (urgentQueue == null) {
+                    builds.add(pool.submit(() -> { urgentQueue = UrgencyHeap.of(urgencyComparator(), all); }));
+                }
+                if (dueIndex == null) {
+                    builds.add(pool.submit(() -> {
+                        DueDateIndex built = new DueDateIndex();
+                        for (Task t : all) built.add(t);
+                        dueIndex = built;
+                    }));
+                }
+                if (attributeIndex == null) {
+                    builds.add(pool.submit(() -> {
+                        AttributeIndex built = AttributeIndex.standard();
+                        for (Task t : all) built.add(t);
+                        attributeIndex = built;
+                    }));
+                }
+                for (ForkJoinTask<?> build : builds) build.join();
+                if (titles != null) indexByTitle = titles;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Decode all[from, to) and index its titles; splits down to PRELOAD_SEGMENT tasks. */
+    private static final class PreloadSegment extends RecursiveAction {
+        private final IndexedTaskList list;
+        private final Task[] all;
+        private final Map<String, Task> titles; // null = title index already built
+        private final int from;
+        private final int to;
+
+        PreloadSegment(IndexedTaskList list, Task[] all, Map<String, Task> titles, int from, int to) {
+            this.list = list;
+            this.all = all;
+            this.titles = titles;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > PRELOAD_SEGMENT) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new PreloadSegment(list, all, titles, from, mid), new PreloadSegment(list, all, titles, mid, to));
+                return;
+            }
+            Task[] segment = list.getRange(from, to - from); // decoded and cached, same instances as get()
+            System.arraycopy(segment, 0, all, from, segment.length);
+            if (titles == null) return;
+            for (int i = 0; i < segment.length; i++) {
+                Task t = segment[i];
+                if (t == null || t.getTitle() == null) continue;
+                int pos = from + i;
+                // the later task keeps the title, as in rebuildIndex(), whichever segment finishes first
+                titles.merge(t.getTitle(), t, (old, cur) -> (list.indexOf(old) > pos) ? old : cur);
+            }
+        }
+    }
+
+    /**
+     * Keep the query indexes in step with the list (caller holds the write lock).
+     * Adding a task that is already indexed re-indexes it under its current fields.
+     */
+    private void indexAdded(Task task) {
+        if (task == null) return;
+        if (searchIndex != null) searchIndex.add(task);
+        if (dueIndex != null) dueIndex.add(task);
+        if (attributeIndex != null) attributeIndex.add(task);
+        for (TaskIndex index : customIndexes) index.add(task);
+    }
+
+    private void indexRemoved(Task task) {
+        if (task == null) return;
+        if (searchIndex != null) searchIndex.remove(task);
+        if (dueIndex != null) dueIndex.remove(task);
+        if (attributeIndex != null) attributeIndex.remove(task);
+        for (TaskIndex index : customIndexes) index.remove(task);
+    }
+
+    /** Fill a TaskIndex with the current tasks and keep it up to date from now on (including reloads). */
+    public void registerIndex(TaskIndex index) {
+        lock.writeLock().lock();
+        try {
+            for (Task t : tasks) {
+                if (t != null) index.add(t);
+            }
+            customIndexes.add(index);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void unregisterIndex(TaskIndex index) {
+        customIndexes.remove(index);
     }
 
     /** Rebuild the title index from the current tasks list. */
     private void rebuildIndex() {
-        indexByTitle = new HashMap<>();
+        Map<String, Task> index = new ConcurrentHashMap<>();
         for (Task t : tasks) {
             if (t != null && t.getTitle() != null) {
-                indexByTitle.put(t.getTitle(), t);
+                index.put(t.getTitle(), t);
             }
         }
+        indexByTitle = index;
     }
 
     /** Rebuild the urgentQueue from the current tasks list. */
     private void rebuildUrgentQueue() {
-        urgentQueue = new PriorityQueue<>(urgencyComparator());
+        UrgencyHeap queue = new UrgencyHeap(urgencyComparator());
         for (Task t : tasks) {
-            if (t != null) urgentQueue.offer(t);
+            if (t != null) queue.offer(t);
         }
+        urgentQueue = queue;
     }
 
-    /** Comparator: higher priority first (High > Medium > Low), tie-breaker = earlier due date. */
-    private Comparator<Task> urgencyComparator() {
-        return (a, b) -> {
-            int pa = priorityValue(a == null ? null : a.getPriority());
-            int pb = priorityValue(b == null ? null : b.getPriority());
-            if (pa != pb) {
-                // higher priority value should come first
-                return Integer.compare(pb, pa);
-            }
-            // earlier due date first (null-safe: nulls go last)
-            if (a == null || a.getDueDate() == null) return 1;
-            if (b == null || b.getDueDate() == null) return -1;
-            return a.getDueDate().compareTo(b.getDueDate());
-        };
+    /**
+     * Comparator: higher priority first (High > Medium > Low), tie-breaker = earlier due date, no due date last.
+     * Compares the precomputed Task.getUrgencyKey() values, so no strings are parsed or allocated per compare.
+     * Package-private so the benchmarks measure the production ordering.
+     */
+    static Comparator<Task> urgencyComparator() {
+        return (a, b) -> Long.compare(a.getUrgencyKey(), b.getUrgencyKey());
     }
 
-    /** Maps String priority to an int for comparison. Higher number = higher priority. */
-    private int priorityValue(String p) {
-        if (p == null) return 0;
-        String s = p.trim().toLowerCase();
-        switch (s) {
-            case "high":   return 3;
-            case "medium": return 2;
-            case "low":    return 1;
-            default:       return 0; // unknown -> lowest
+    /** Add a task and maintain indexes/queues. */
+    public void addTask(Task task) {
+        lock.writeLock().lock();
+        try {
+            tasks.add(task);
+            if (task != null) {
+                if (indexByTitle != null && task.getTitle() != null) {
+                    indexByTitle.put(task.getTitle(), task);
+                }
+                if (urgentQueue != null) urgentQueue.offer(task); // O(log n)
+            }
+            indexAdded(task);
+            journal(TaskJournal.ADD, tasks.size() - 1, task);
+            fireInserted(tasks.size() - 1, task);
+        } finally {
+            lock.writeLock().unlock();
         }
+        afterWrite();
     }
 
-    /** Add a task and maintain indexes/queues. */
-    public void addTask(Task task) {
-        tasks.add(task);
-        if (task != null) {
-            if (task.getTitle() != null) {
-                indexByTitle.put(task.getTitle(), task);
+    /**
+     * Insert a task at index (0..size), shifting later tasks down; used to put a deleted task back
+     * where it was (undo). Appending stays O(log n); inserting in the middle is O(n).
+     */
+    public void insertTask(int index, Task task) {
+        lock.writeLock().lock();
+        try {
+            if (index < 0 || index > tasks.size()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + tasks.size());
             }
-            if (urgentQueue == null) rebuildUrgentQueue();
-            urgentQueue.offer(task); // O(log n)
+            tasks.add(index, task);
+            if (task != null) {
+                if (indexByTitle != null && task.getTitle() != null) {
+                    indexByTitle.put(task.getTitle(), task);
+                }
+                if (urgentQueue != null) urgentQueue.offer(task);
+            }
+            indexAdded(task);
+            journal(TaskJournal.ADD, index, task);
+            fireInserted(index, task);
+        } finally {
+            lock.writeLock().unlock();
         }
-        saveToFile();
+        afterWrite();
     }
 
     /** Remove a specific task object and maintain indexes/queues. */
     public void removeTask(Task task) {
-        if (task != null) {
-            if (task.getTitle() != null) {
-                indexByTitle.remove(task.getTitle());
+        lock.writeLock().lock();
+        try {
+            if (task != null) {
+                if (indexByTitle != null && task.getTitle() != null) {
+                    indexByTitle.remove(task.getTitle(), task); // not another task with the same title
+                }
+                if (urgentQueue != null) urgentQueue.remove(task); // O(log n)
+            }
+            int index = tasks.indexOf(task);
+            if (index >= 0) {
+                tasks.remove(index);
+                indexRemoved(task);
+                journal(TaskJournal.REMOVE, index, null);
+                fireDeleted(index, task);
             }
-            if (urgentQueue != null) urgentQueue.remove(task); // O(n) acceptable for demo
+        } finally {
+            lock.writeLock().unlock();
         }
-        tasks.remove(task);
-        saveToFile();
+        afterWrite();
     }
 
+    /** Add many tasks with a single journal commit. */
+    public void addAll(Collection<? extends Task> newTasks) {
+        beginBatch();
+        try {
+            for (Task t : newTasks) addTask(t);
+        } finally {
+            endBatch();
+        }
+    }
+
+    /**
+     * Remove every listed task with a single journal commit, O(k log n) for k tasks.
+     * Returns the number of tasks removed.
+     */
+    public int removeAll(Collection<? extends Task> toRemove) {
+        Set<Task> doomed = Collections.newSetFromMap(new IdentityHashMap<>());
+        doomed.addAll(toRemove);
+        beginBatch(); // takes the write lock
+        try {
+            int[] removedAt = new int[doomed.size()];
+            int removed = 0;
+            for (Task t : doomed) {
+                int index = tasks.indexOf(t); // O(log n), no scan of the whole list
+                if (index >= 0) removedAt[removed++] = index;
+            }
+            Arrays.sort(removedAt, 0, removed);
+            // highest index first, so replaying the REMOVE records one by one gives the same list
+            // and each event's index is valid after the previous ones
+            for (int k = removed - 1; k >= 0; k--) {
+                int index = removedAt[k];
+                Task t = tasks.remove(index);
+                if (t != null) {
+                    if (indexByTitle != null && t.getTitle() != null) indexByTitle.remove(t.getTitle(), t);
+                    if (urgentQueue != null) urgentQueue.remove(t);
+                }
+                indexRemoved(t);
+                journal(TaskJournal.REMOVE, index, null);
+                fireDeleted(index, t);
+            }
+            return removed;
+        } finally {
+            endBatch();
+        }
+    }
+
+    /**
+     * Start a batch: mutations still apply in memory immediately, but their journal
+     * records are only committed (flushed + fsynced) once, by the outermost endBatch().
+     * The calling thread holds the write lock until then, so a batch is applied atomically.
+     */
+    public void beginBatch() {
+        lock.writeLock().lock();
+    }
+
+    /** End a batch; the outermost call commits all journaled records with a single write. */
+    public void endBatch() {
+        if (!lock.isWriteLockedByCurrentThread()) return;
+        lock.writeLock().unlock();
+        afterWrite();
+    }
+
+    /** Run the given mutations as one batch. */
+    public void batch(Runnable mutations) {
+        beginBatch();
+        try {
+            mutations.run();
+        } finally {
+            endBatch();
+        }
+    }
+
+    /** Group-commit window in milliseconds: concurrent commits inside the window share one fsync. */
+    public void setCommitWindow(long millis) {
+        lock.writeLock().lock();
+        try {
+            this.commitWindowMillis = millis;
+            journal.setCommitWindow(millis);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Journal fsyncs so far (see TaskJournal.syncCount()); lets tests check that a batch commits once. */
+    long journalSyncCount() {
+        return journal.syncCount();
+    }
+
+    /**
+     * Immutable point-in-time copy of all tasks, safe to read from any thread.
+     * The copy is cached and only rebuilt after the list changes.
+     */
     public List<Task> getAllTasks() {
-        return tasks;
+        List<Task> view = allTasksView;
+        if (view != null) return view;
+        lock.readLock().lock();
+        try {
+            view = allTasksView;
+            if (view == null) {
+                view = Collections.unmodifiableList(tasks.copy());
+                allTasksView = view;
+            }
+            return view;
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     public Task getTask(int index) {
-        if (index >= 0 && index < tasks.size()) {
-            return tasks.get(index);
+        lock.readLock().lock();
+        try {
+            if (index >= 0 && index < tasks.size()) {
+                return tasks.get(index);
+            }
+            return null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Up to count tasks starting at index from (fewer at the end of the list), read in one pass.
+     * Tasks still sitting undecoded in the snapshot are decoded for this call only, so paging
+     * through the whole list does not grow the heap.
+     */
+    public Task[] peekTasks(int from, int count) {
+        lock.readLock().lock();
+        try {
+            if (from >= tasks.size()) return new Task[0];
+            int n = Math.max(0, Math.min(count, tasks.size() - from));
+            return tasks.peekRange(from, n);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Like peekTasks(from, count), but for the list indices rows[from..from+count) (a sorted or
+     * filtered table view). Indices past the end of the list give null.
+     */
+    public Task[] peekTasks(int[] rows, int from, int count) {
+        lock.readLock().lock();
+        try {
+            int n = Math.max(0, Math.min(count, rows.length - from));
+            Task[] out = new Task[n];
+            for (int i = 0; i < n; i++) {
+                int index = rows[from + i];
+                if (index < tasks.size()) out[i] = tasks.peek(index);
+            }
+            return out;
+        } finally {
+            lock.readLock().unlock();
         }
-        return null;
     }
 
     /** Update a task at index and maintain the title index & urgent queue (handles title/priority/due changes). */
     public void updateTask(int index, Task updatedTask) {
+        lock.writeLock().lock();
+        try {
+            updateTaskLocked(index, updatedTask);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        afterWrite();
+    }
+
+    private void updateTaskLocked(int index, Task updatedTask) {
         if (index >= 0 && index < tasks.size()) {
             Task old = tasks.get(index);
             String oldTitle = (old == null) ? null : old.getTitle();
 
-            // remove old from structures
-            if (oldTitle != null) indexByTitle.remove(oldTitle);
-            if (urgentQueue != null && old != null) urgentQueue.remove(old);
+            // remove old from title index
+            if (indexByTitle != null && oldTitle != null) indexByTitle.remove(oldTitle, old);
 
             // set new
             tasks.set(index, updatedTask);
 
-            // add new to structures
-            if (updatedTask != null) {
-                if (updatedTask.getTitle() != null) {
-                    indexByTitle.put(updatedTask.getTitle(), updatedTask);
-                }
-                if (urgentQueue == null) rebuildUrgentQueue();
-                urgentQueue.offer(updatedTask);
+            // add new to title index; the heap swaps old for new in place and re-sifts, O(log n)
+            if (updatedTask != null && indexByTitle != null && updatedTask.getTitle() != null) {
+                indexByTitle.put(updatedTask.getTitle(), updatedTask);
             }
-            saveToFile();
+            if (urgentQueue != null) urgentQueue.replace(old, updatedTask);
+            indexRemoved(old);
+            indexAdded(updatedTask);
+            journal(TaskJournal.UPDATE, index, updatedTask);
+            fireUpdated(index, old, updatedTask);
         }
     }
 
     /** Remove by index and maintain the title index & urgent queue. */
     public void removeTask(int index) {
-        if (index >= 0 && index < tasks.size()) {
-            Task old = tasks.get(index);
-            if (old != null) {
-                if (old.getTitle() != null) {
-                    indexByTitle.remove(old.getTitle());
+        lock.writeLock().lock();
+        try {
+            if (index >= 0 && index < tasks.size()) {
+                Task old = tasks.get(index);
+                if (old != null) {
+                    if (indexByTitle != null && old.getTitle() != null) {
+                        indexByTitle.remove(old.getTitle(), old);
+                    }
+                    if (urgentQueue != null) urgentQueue.remove(old);
                 }
-                if (urgentQueue != null) urgentQueue.remove(old);
+                tasks.remove(index);
+                indexRemoved(old);
+                journal(TaskJournal.REMOVE, index, null);
+                fireDeleted(index, old);
             }
-            tasks.remove(index);
-            saveToFile();
+        } finally {
+            lock.writeLock().unlock();
         }
+        afterWrite();
     }
 
     public void showAllTasks() {
-        if (tasks.isEmpty()) {
+        List<Task> all = getAllTasks();
+        if (all.isEmpty()) {
             System.out.println("No tasks yet.");
             return;
         }
-        for (int i = 0; i < tasks.size(); i++) {
-            System.out.println((i + 1) + ". " + tasks.get(i));
+        for (int i = 0; i < all.size(); i++) {
+            System.out.println((i + 1) + ". " + all.get(i));
         }
     }
 
-    /** O(1) average-time get by title; returns null if not found. */
+    /** O(1) average-time get by title, lock-free once the index exists; returns null if not found. */
     public Task getByTitle(String title) {
         if (title == null) return null;
-        return indexByTitle.get(title.trim());
+        return titleIndex().get(title.trim());
     }
 
     /** Remove by title; returns true if a task was removed. */
     public boolean removeByTitle(String title) {
         if (title == null) return false;
-        Task t = indexByTitle.remove(title.trim());
-        if (t != null) {
-            if (urgentQueue != null) urgentQueue.remove(t);
-            tasks.remove(t);
-            saveToFile();
-            return true;
+        Task t;
+        lock.writeLock().lock();
+        try {
+            t = titleIndex().remove(title.trim());
+            if (t != null) {
+                if (urgentQueue != null) urgentQueue.remove(t);
+                int index = tasks.indexOf(t);
+                if (index >= 0) {
+                    tasks.remove(index);
+                    indexRemoved(t);
+                    journal(TaskJournal.REMOVE, index, null);
+                    fireDeleted(index, t);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        afterWrite();
+        return t != null;
+    }
+
+    /** Current position of a listed task, or -1; O(log n) instead of a scan. */
+    public int indexOf(Task task) {
+        lock.readLock().lock();
+        try {
+            return tasks.indexOf(task);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ranked keyword search over title, description, course code and mood tag; each word of
+     * the query also matches as a prefix. Returns at most limit tasks, best match first.
+     */
+    public List<Task> search(String query, int limit) {
+        lock.readLock().lock();
+        try {
+            return searchIndex().search(query, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Tasks due from 'from' to 'to' (both inclusive), earliest first; O(log n + k). */
+    public List<Task> getTasksDueBetween(LocalDate from, LocalDate to) {
+        lock.readLock().lock();
+        try {
+            return dueIndex().dueBetween(from, to);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Incomplete tasks due before today, earliest first. */
+    public List<Task> getOverdueTasks(LocalDate today) {
+        lock.readLock().lock();
+        try {
+            return dueIndex().overdue(today);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Number of incomplete tasks due before today, without visiting the tasks themselves. */
+    public int countOverdue(LocalDate today) {
+        lock.readLock().lock();
+        try {
+            return dueIndex().overdueCount(today);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Tasks whose attributes equal every given value, e.g.
+     * findWhere(Map.of(AttributeIndex.PRIORITY, Priority.HIGH, AttributeIndex.COMPLETED, false)).
+     * Answered by intersecting posting lists; no task is tested one by one.
+     */
+    public List<Task> findWhere(Map<String, ?> criteria) {
+        lock.readLock().lock();
+        try {
+            return attributeIndex().select(criteria);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Number of tasks matching every given attribute value. */
+    public int countWhere(Map<String, ?> criteria) {
+        lock.readLock().lock();
+        try {
+            return attributeIndex().count(criteria);
+        } finally {
+            lock.readLock().unlock();
         }
-        return false;
     }
 
     /** Returns true if a task with the given title exists. */
     public boolean containsTitle(String title) {
         if (title == null) return false;
-        return indexByTitle.containsKey(title.trim());
+        return titleIndex().containsKey(title.trim());
     }
 
     // ===== Activity 04 API: most-urgent operations =====
 
+    /**
+     * Re-position a task in the urgent queue after its priority or due date was changed
+     * in place through its setters, O(log n), and journal the new version.
+     * With several threads, prefer editTask so the change and the re-keying happen atomically.
+     */
+    public void reprioritize(Task task) {
+        editTask(task, t -> { });
+    }
+
+    /**
+     * Apply an in-place edit to a listed task under the write lock, then fix up the title
+     * index and urgent queue (O(log n)), journal the new version and fire an update event.
+     * A task that is not in the list is left untouched.
+     */
+    public void editTask(Task task, Consumer<? super Task> edit) {
+        if (task == null) return;
+        lock.writeLock().lock();
+        try {
+            int index = tasks.indexOf(task);
+            if (index < 0) return;
+            String oldTitle = task.getTitle();
+            edit.accept(task);
+            if (indexByTitle != null && !Objects.equals(oldTitle, task.getTitle())) {
+                if (oldTitle != null) indexByTitle.remove(oldTitle, task);
+                if (task.getTitle() != null) indexByTitle.put(task.getTitle(), task);
+            }
+            if (urgentQueue != null) urgentQueue.update(task);
+            tasks.set(index, task); // marks the slot as changed for lazily loaded records
+            indexAdded(task);        // re-indexes under the edited text and due date
+            journal(TaskJournal.UPDATE, index, task);
+            fireUpdated(index, task, task);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        afterWrite();
+    }
+
     /** See (but not remove) the most urgent task; returns null if none. */
     public Task peekMostUrgent() {
-        if (urgentQueue == null) rebuildUrgentQueue();
-        return urgentQueue.peek(); // O(1)
+        lock.readLock().lock();
+        try {
+            return urgentQueue().peek(); // O(1)
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     /**
@@ -203,42 +854,309 @@ public class TaskList {
      * Returns the removed task, or null if empty.
      */
     public Task popMostUrgent() {
-        if (urgentQueue == null) rebuildUrgentQueue();
-        Task t = urgentQueue.poll(); // O(log n)
-        if (t != null) {
-            // keep ArrayList and title-index consistent
-            tasks.remove(t);
-            if (t.getTitle() != null) indexByTitle.remove(t.getTitle());
-            saveToFile();
+        Task t;
+        lock.writeLock().lock();
+        try {
+            t = urgentQueue().poll(); // O(log n)
+            if (t != null) {
+                // keep the list and title index consistent
+                int index = tasks.indexOf(t);
+                if (index >= 0) {
+                    tasks.remove(index);
+                    indexRemoved(t);
+                    journal(TaskJournal.REMOVE, index, null);
+                    fireDeleted(index, t);
+                }
+                if (indexByTitle != null && t.getTitle() != null) indexByTitle.remove(t.getTitle(), t);
+            }
+        } finally {
+            lock.writeLock().unlock();
         }
+        afterWrite();
         return t;
     }
 
-    /** Save current task list to file using Java object serialization. */
-    public void saveToFile() {
-        try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(TASK_FILE))) {
-            out.writeObject(tasks);
+    /** Journal threshold (bytes) that triggers background compaction into a new snapshot. */
+    public void setCompactionThreshold(long bytes) {
+        this.compactionThreshold = bytes;
+    }
+
+    /** Append one mutation record to the journal (caller holds the write lock); committed by afterWrite(). */
+    private void journal(byte op, int index, Task task) {
+        allTasksView = null;
+        if (journalBroken) {
+            unjournaled++;
+            return;
+        }
+        try {
+            journal.append(op, index, task);
         } catch (IOException e) {
-            System.err.println("Error saving tasks: " + e.getMessage());
+            journalBroken = true;
+            unjournaled++;
+            System.err.println("Error journaling task change: " + e.getMessage()
+                    + "; changes are kept in memory and saved as a full snapshot instead.");
         }
     }
 
-    /** Load task list from file if it exists, then rebuild indices/queues. */
-    @SuppressWarnings("unchecked")
+    /**
+     * Called after a mutation released the write lock. Outside a batch, commit the journal
+     * without holding the lock, so concurrent writers can share one fsync (group commit).
+     * In async mode the commit only gets scheduled on the background writer.
+     */
+    private void afterWrite() {
+        if (lock.isWriteLockedByCurrentThread()) return; // inside a batch; endBatch() commits
+        if (asyncCommit) {
+            scheduleCommit();
+        } else {
+            try {
+                commitJournal();
+            } catch (IOException e) {
+                System.err.println("Error committing task journal: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Ask the background writer to commit everything journaled so far.
+     * Calls made before the writer starts share one commit (and one future).
+     */
+    private CompletableFuture<Void> scheduleCommit() {
+        synchronized (commitMonitor) {
+            if (pendingCommit == null) {
+                CompletableFuture<Void> commit = new CompletableFuture<>();
+                pendingCommit = commit;
+                persistenceExecutor.execute(() -> runCommit(commit));
+            }
+            return pendingCommit;
+        }
+    }
+
+    private void runCommit(CompletableFuture<Void> commit) {
+        synchronized (commitMonitor) {
+            pendingCommit = null; // changes from now on need another commit
+        }
+        try {
+            commitJournal();
+            commit.complete(null);
+        } catch (Throwable e) {
+            System.err.println("Error committing task journal: " + e.getMessage());
+            commit.completeExceptionally(e);
+        }
+    }
+
+    /** Make journaled records durable; schedule compaction when the journal gets large. */
+    private void commitJournal() throws IOException {
+        journal.commit();
+        if (journalBroken) {
+            if (!snapshotNow()) throw new IOException("changes missing from the journal could not be saved in a snapshot");
+        } else if (journal.size() >= compactionThreshold) {
+            compactInBackground();
+        }
+    }
+
+    /** Future that completes once every change made so far is durable on disk. */
+    public CompletableFuture<Void> whenDurable() {
+        return scheduleCommit();
+    }
+
+    /** Block until every change made so far is durable (e.g. before the application exits). */
+    public void flush() {
+        try {
+            whenDurable().join();
+        } catch (RuntimeException e) {
+            System.err.println("Error flushing tasks: " + e.getMessage());
+        }
+    }
+
+    /** Flush pending changes and close the journal. */
+    public void close() {
+        flush();
+        lock.writeLock().lock();
+        try {
+            journal.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * true (default): mutations return immediately and the background writer makes them durable.
+     * false: every mutation commits the journal on the calling thread before returning.
+     */
+    public void setAsyncCommit(boolean async) {
+        this.asyncCommit = async;
+    }
+
+    /** Executor that runs journal commits (commits are thread-safe, so e.g. a virtual-thread-per-task executor works). */
+    public void setPersistenceExecutor(Executor executor) {
+        this.persistenceExecutor = executor;
+    }
+
+    /**
+     * Fold the journal into a new snapshot without blocking the caller.
+     * The journal rolls to a new segment right away, so the copied list is exactly
+     * "snapshot + all older segments"; the background task writes it and drops those segments.
+     */
+    private void compactInBackground() {
+        long gen;
+        List<Task> copy;
+        lock.writeLock().lock();
+        try {
+            if (compacting || journal.size() < compactionThreshold) return;
+            compacting = true;
+            gen = journal.roll();
+            copy = copyTasks();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        COMPACTOR.execute(() -> {
+            try {
+                writeSnapshot(copy, gen);
+            } finally {
+                lock.writeLock().lock();
+                compacting = false;
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /** Cheap copy of the task list for snapshot writers (caller holds a lock). */
+    private List<Task> copyTasks() {
+        return tasks.copy();
+    }
+
+    /** Codec used for future snapshots and journal records; existing files keep the codec they were written with. */
+    public void setCodec(TaskCodec codec) {
+        lock.writeLock().lock();
+        try {
+            this.codec = codec;
+            journal.setCodec(codec);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Save current task list as a full snapshot and discard the journal it covers. */
+    public void saveToFile() {
+        snapshotNow();
+    }
+
+    /** saveToFile(); a broken journal takes records again once a snapshot covers every change. */
+    private boolean snapshotNow() {
+        long gen;
+        long skipped;
+        List<Task> copy;
+        lock.writeLock().lock();
+        try {
+            gen = journal.roll();
+            copy = copyTasks();
+            skipped = unjournaled;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (!writeSnapshot(copy, gen)) return false; // readers and writers proceed while the file is written
+        lock.writeLock().lock();
+        try {
+            if (unjournaled == skipped) journalBroken = false; // else the commit of the newer changes snapshots again
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return true;
+    }
+
+    /** Write the snapshot with the current codec, then drop the journal segments it covers; false if it failed. */
+    private boolean writeSnapshot(List<Task> snapshot, long nextGen) {
+        synchronized (snapshotLock) {
+            if (nextGen <= snapshotGen) return true; // a newer snapshot already superseded this one
+            try {
+                TaskSnapshot.write(taskFile, snapshot, codec, nextGen);
+            } catch (IOException e) {
+                System.err.println("Error saving tasks: " + e.getMessage());
+                return false; // keep the journal; it is still needed to rebuild the state
+            }
+            snapshotGen = nextGen;
+            journal.deleteBefore(nextGen);
+            return true;
+        }
+    }
+
+    /**
+     * Load the snapshot if it exists, replay newer journal records, and reset indices/queues.
+     * Mappable snapshots are opened lazily (no task decoded yet); older formats are read eagerly.
+     */
     public void loadFromFile() {
-        File file = new File(TASK_FILE);
+        lock.writeLock().lock();
+        try {
+            loadLocked();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void loadLocked() {
+        for (TaskIndex index : customIndexes) {
+            for (Task t : tasks) {
+                if (t != null) index.remove(t); // re-filled from the loaded tasks below
+            }
+        }
+        long coveredGen = 0;
+        File lostSnapshot = null; // set when a snapshot existed but could not be read
+        File file = TaskSnapshot.settle(taskFile); // a save that could not replace a mapped tasks.ser left a newer one
         if (file.exists()) {
-            try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(file))) {
-                tasks = (List<Task>) in.readObject();
-            } catch (IOException | ClassNotFoundException e) {
-                System.err.println("Error loading tasks: " + e.getMessage());
-                tasks = new ArrayList<>();
+            try {
+                MappedTaskStore store;
+                try {
+                    store = MappedTaskStore.open(file);
+                } catch (TaskSnapshot.CorruptSnapshotException corrupt) {
+                    throw corrupt;
+                } catch (IOException notMappable) {
+                    store = null;
+                }
+                if (store != null) {
+                    tasks = new IndexedTaskList(store);
+                    coveredGen = store.nextGen();
+                } else {
+                    TaskSnapshot snapshot = TaskSnapshot.read(file);
+                    tasks = new IndexedTaskList(snapshot.getTasks());
+                    coveredGen = snapshot.getNextGen();
+                }
+            } catch (IOException e) {
+                // never start over silently on top of a bad snapshot: keep it for recovery
+                lostSnapshot = TaskSnapshot.quarantine(file);
+                System.err.println("Error loading tasks: " + e.getMessage()
+                        + "; the snapshot was moved to " + lostSnapshot);
+                tasks = new IndexedTaskList();
             }
         } else {
-            tasks = new ArrayList<>();
+            tasks = new IndexedTaskList();
+        }
+        if (journal != null) journal.close();
+        journal = new TaskJournal(journalBase, buffers);
+        journal.setCodec(codec);
+        journal.setCommitWindow(commitWindowMillis);
+        if (lostSnapshot == null) {
+            journal.replay(coveredGen, tasks);
+        } else {
+            // the surviving segments hold positional records relative to the lost snapshot:
+            // replayed onto an empty list they would rebuild a silently wrong list
+            int moved = journal.moveAside(".orphaned-" + System.currentTimeMillis());
+            System.err.println("The list starts empty" + ((moved == 0) ? "." : "; " + moved
+                    + " journal segment(s) recorded after the snapshot were renamed to *.orphaned-* for recovery."));
+        }
+        journal.open(coveredGen); // new records go to a fresh segment
+        journalBroken = false;
+        // auxiliary structures are rebuilt from the loaded tasks on first use
+        indexByTitle = null;
+        urgentQueue = null;
+        searchIndex = null;
+        dueIndex = null;
+        attributeIndex = null;
+        for (TaskIndex index : customIndexes) {
+            for (Task t : tasks) {
+                if (t != null) index.add(t);
+            }
         }
-        // keep auxiliary structures consistent with current tasks
-        rebuildIndex();
-        rebuildUrgentQueue();
+        allTasksView = null;
+        for (TaskListListener l : listeners) l.tasksReloaded();
     }
 }
@@ -0,0 +1,23 @@
+package easytask;
+
+/**
+ * Receives fine-grained change events from a TaskList.
+ * Events are delivered synchronously, in order, on the thread that made the change,
+ * while the list is still locked, so indices always match the list at that moment.
+ * Implementations must be quick and must not call back into the TaskList's mutators.
+ */
+public interface TaskListListener {
+
+    /** A task was inserted at index. */
+    void taskInserted(int index, Task task);
+
+    /** The task at index was replaced (oldTask == newTask when it was edited in place). */
+    void taskUpdated(int index, Task oldTask, Task newTask);
+
+    /** The task at index was removed. */
+    void taskDeleted(int index, Task task);
+
+    /** The whole list was replaced (e.g. reloaded from disk); re-read everything. */
+    default void tasksReloaded() {
+    }
+}
@@ -2,6 +2,17 @@ package easytask;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.File;
+import java.nio.file.Path;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 
 /**
  * TaskListUI displays a table of tasks and buttons for interaction.
@@ -14,15 +25,24 @@ public class TaskListUI extends JFrame {
     private final JTable taskTable;
     private final TaskTableModel tableModel;
 
+    private static final int MAX_SEARCH_RESULTS = 50;
+
     /** Constructor: initializes UI with task list table and control buttons */
     public TaskListUI(TaskController controller) {
         this.controller = controller;
-        this.tableModel = new TaskTableModel(controller.getAllTasks());
+        this.tableModel = new TaskTableModel(controller.getTaskList());
         this.taskTable = new JTable(tableModel);
+        tableModel.keepSelection(taskTable.getSelectionModel()); // re-sorts after edits keep the selected tasks
 
         setTitle("EasyTask - Task List");
         setSize(800, 460);
-        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        setDefaultCloseOperation(JFrame.DO_NOTHING_ON_CLOSE);
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                controller.quit(); // flush background writes before exiting
+            }
+        });
         setLocationRelativeTo(null); // center the window
 
         initComponents();
@@ -38,6 +58,18 @@ public class TaskListUI extends JFrame {
         taskTable.setFillsViewportHeight(true);
         mainPanel.add(scrollPane, BorderLayout.CENTER);
 
+        // North: filter (applied in the background by the table model)
+        JPanel filterPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 5));
+        JTextField filterField = new JTextField(20);
+        JComboBox<String> priorityFilter = new JComboBox<>(new String[] {"All", "High", "Medium", "Low"});
+        JButton clearFilterButton = new JButton("Clear");
+        filterPanel.add(new JLabel("Filter:"));
+        filterPanel.add(filterField);
+        filterPanel.add(new JLabel("Priority:"));
+        filterPanel.add(priorityFilter);
+        filterPanel.add(clearFilterButton);
+        mainPanel.add(filterPanel, BorderLayout.NORTH);
+
         // South: buttons
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 10));
         JButton detailsButton        = new JButton("Show Details");
@@ -45,8 +77,13 @@ public class TaskListUI extends JFrame {
         JButton deleteButton         = new JButton("Delete Task");
         JButton findByTitleButton    = new JButton("Find by Title");       // Activity 03
         JButton deleteByTitleButton  = new JButton("Delete by Title");     // Activity 03
+        JButton searchButton         = new JButton("Search");
         JButton showUrgentButton     = new JButton("Show Most Urgent");    // Activity 04
         JButton popUrgentButton      = new JButton("Pop Most Urgent");     // Activity 04
+        JButton undoButton           = new JButton("Undo");
+        JButton redoButton           = new JButton("Redo");
+        JButton importButton         = new JButton("Import...");
+        JButton exportButton         = new JButton("Export...");
         JButton quitButton           = new JButton("Quit");
 
         buttonPanel.add(detailsButton);
@@ -54,8 +91,13 @@ public class TaskListUI extends JFrame {
         buttonPanel.add(deleteButton);
         buttonPanel.add(findByTitleButton);
         buttonPanel.add(deleteByTitleButton);
+        buttonPanel.add(searchButton);
         buttonPanel.add(showUrgentButton);
         buttonPanel.add(popUrgentButton);
+        buttonPanel.add(undoButton);
+        buttonPanel.add(redoButton);
+        buttonPanel.add(importButton);
+        buttonPanel.add(exportButton);
         buttonPanel.add(quitButton);
 
         mainPanel.add(buttonPanel, BorderLayout.SOUTH);
@@ -63,13 +105,50 @@ public class TaskListUI extends JFrame {
 
         // ===== Listeners =====
 
+        // Click a column header to sort by it; click again to reverse (sorted in the background)
+        taskTable.getTableHeader().addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int col = taskTable.convertColumnIndexToModel(taskTable.columnAtPoint(e.getPoint()));
+                if (col < 0) return;
+                boolean ascending = col != tableModel.getSortColumn() || !tableModel.isSortAscending();
+                tableModel.setSort(col, ascending);
+                for (int i = 0; i < taskTable.getColumnCount(); i++) {
+                    int m = taskTable.convertColumnIndexToModel(i);
+                    String arrow = (m == col) ? (ascending ? " \u25B2" : " \u25BC") : "";
+                    taskTable.getColumnModel().getColumn(i).setHeaderValue(tableModel.getColumnName(m) + arrow);
+                }
+                taskTable.getTableHeader().repaint();
+            }
+        });
+
+        // Filter on title/description text and priority (compared as Priority, not as text)
+        Runnable applyFilter = () -> {
+            String text = filterField.getText().trim().toLowerCase();
+            Priority priority = Priority.parse((String) priorityFilter.getSelectedItem()); // "All" -> NONE
+            if (text.isEmpty() && priority == Priority.NONE) {
+                tableModel.setFilter(null);
+                return;
+            }
+            tableModel.setFilter(t -> (priority == Priority.NONE || t.getPriorityLevel() == priority)
+                    && (text.isEmpty() || contains(t.getTitle(), text) || contains(t.getDescription(), text)));
+        };
+        filterField.addActionListener(e -> applyFilter.run());
+        priorityFilter.addActionListener(e -> applyFilter.run());
+        clearFilterButton.addActionListener(e -> {
+            filterField.setText("");
+            priorityFilter.setSelectedIndex(0); // fires applyFilter
+        });
+
         // Open detail window for selected row
         detailsButton.addActionListener(e -> {
             int selectedRow = taskTable.getSelectedRow();
-            if (selectedRow >= 0) {
-                Task task = tableModel.getTaskAt(selectedRow);
-                controller.showTaskDetails(task, selectedRow);
+            int modelRow = (selectedRow >= 0) ? tableModel.toModelRow(selectedRow) : -1;
+            if (modelRow >= 0) {
+                controller.showTaskDetails(tableModel.getTaskAt(selectedRow), modelRow);
                 setVisible(false);
+            } else if (selectedRow >= 0) { // sorted view is being rebuilt after a change
+                showResorting();
             } else {
                 JOptionPane.showMessageDialog(this, "Please select a task first.",
                         "No Task Selected", JOptionPane.WARNING_MESSAGE);
@@ -85,9 +164,11 @@ public class TaskListUI extends JFrame {
         // Delete selected row
         deleteButton.addActionListener(e -> {
             int selectedRow = taskTable.getSelectedRow();
-            if (selectedRow >= 0) {
-                controller.deleteTask(selectedRow);
-                refreshTable();
+            int modelRow = (selectedRow >= 0) ? tableModel.toModelRow(selectedRow) : -1;
+            if (modelRow >= 0) {
+                controller.deleteTask(modelRow); // table updates through TaskList events
+            } else if (selectedRow >= 0) {
+                showResorting();
             } else {
                 JOptionPane.showMessageDialog(this, "Please select a task to delete.",
                         "No Task Selected", JOptionPane.WARNING_MESSAGE);
@@ -103,7 +184,7 @@ public class TaskListUI extends JFrame {
                     JOptionPane.showMessageDialog(this, "Not found.",
                             "Search", JOptionPane.INFORMATION_MESSAGE);
                 } else {
-                    int idx = controller.getAllTasks().indexOf(t);
+                    int idx = controller.indexOfTask(t); // O(log n), no list copy or scan
                     controller.showTaskDetails(t, idx);
                     setVisible(false);
                 }
@@ -119,7 +200,33 @@ public class TaskListUI extends JFrame {
                         ok ? "Deleted." : "Not found.",
                         "Delete by Title",
                         ok ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.WARNING_MESSAGE);
-                refreshTable();
+            }
+        });
+
+        // Keyword search (inverted index): pick a result to open its details
+        searchButton.addActionListener(e -> {
+            String query = JOptionPane.showInputDialog(this, "Search titles, descriptions, courses and moods:");
+            if (query == null || query.isBlank()) return;
+            java.util.List<Task> results = controller.searchTasks(query, MAX_SEARCH_RESULTS);
+            if (results.isEmpty()) {
+                JOptionPane.showMessageDialog(this, "No matching tasks.",
+                        "Search", JOptionPane.INFORMATION_MESSAGE);
+                return;
+            }
+            String[] labels = new String[results.size()];
+            for (int i = 0; i < labels.length; i++) {
+                Task t = results.get(i);
+                labels[i] = t.getTitle() + (t.getDueDate() == null ? "" : "  (due " + t.getDueDate() + ")");
+            }
+            JList<String> list = new JList<>(labels);
+            list.setSelectedIndex(0);
+            int choice = JOptionPane.showConfirmDialog(this, new JScrollPane(list),
+                    results.size() + " result(s) for \"" + query.trim() + "\"",
+                    JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+            if (choice == JOptionPane.OK_OPTION && list.getSelectedIndex() >= 0) {
+                Task t = results.get(list.getSelectedIndex());
+                controller.showTaskDetails(t, controller.indexOfTask(t));
+                setVisible(false);
             }
         });
 
@@ -157,16 +264,105 @@ public class TaskListUI extends JFrame {
                 );
                 JOptionPane.showMessageDialog(this, msg,
                         "Pop Most Urgent", JOptionPane.INFORMATION_MESSAGE);
-                refreshTable(); // reflect removal in table
             }
         });
 
-        // Exit
-        quitButton.addActionListener(e -> System.exit(0));
+        // Undo / redo of add, edit, delete and pop (buttons, Ctrl+Z and Ctrl+Y)
+        Action undoAction = new AbstractAction("Undo") {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                String what = controller.peekUndo();
+                if (what == null) {
+                    JOptionPane.showMessageDialog(TaskListUI.this, "Nothing to undo.",
+                            "Undo", JOptionPane.INFORMATION_MESSAGE);
+                } else if (!controller.undo()) {
+                    JOptionPane.showMessageDialog(TaskListUI.this, "Cannot undo " + what + " any more.",
+                            "Undo", JOptionPane.WARNING_MESSAGE);
+                }
+            }
+        };
+        Action redoAction = new AbstractAction("Redo") {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                String what = controller.peekRedo();
+                if (what == null) {
+                    JOptionPane.showMessageDialog(TaskListUI.this, "Nothing to redo.",
+                            "Redo", JOptionPane.INFORMATION_MESSAGE);
+                } else if (!controller.redo()) {
+                    JOptionPane.showMessageDialog(TaskListUI.this, "Cannot redo " + what + " any more.",
+                            "Redo", JOptionPane.WARNING_MESSAGE);
+                }
+            }
+        };
+        undoButton.setAction(undoAction);
+        redoButton.setAction(redoAction);
+        JRootPane root = getRootPane();
+        root.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW)
+                .put(KeyStroke.getKeyStroke(KeyEvent.VK_Z, InputEvent.CTRL_DOWN_MASK), "undo");
+        root.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW)
+                .put(KeyStroke.getKeyStroke(KeyEvent.VK_Y, InputEvent.CTRL_DOWN_MASK), "redo");
+        root.getActionMap().put("undo", undoAction);
+        root.getActionMap().put("redo", redoAction);
+
+        // Import / export CSV or JSON Lines (format from the file extension), off the EDT
+        importButton.addActionListener(e -> {
+            JFileChooser chooser = new JFileChooser();
+            if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+            Path file = chooser.getSelectedFile().toPath();
+            runInBackground(importButton, "Import", () -> controller.importTasks(file).toString());
+        });
+        exportButton.addActionListener(e -> {
+            JFileChooser chooser = new JFileChooser();
+            chooser.setSelectedFile(new File("tasks.csv"));
+            if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+            Path file = chooser.getSelectedFile().toPath();
+            runInBackground(exportButton, "Export", () -> controller.exportTasks(file) + " tasks exported to " + file);
+        });
+
+        // Exit (after pending background writes are flushed)
+        quitButton.addActionListener(e -> controller.quit());
+    }
+
+    /** Run a file job on a worker thread with its button disabled, then report the outcome. */
+    private void runInBackground(JButton button, String title, Callable<String> job) {
+        button.setEnabled(false);
+        new SwingWorker<String, Void>() {
+            @Override
+            protected String doInBackground() throws Exception {
+                return job.call();
+            }
+
+            @Override
+            protected void done() {
+                button.setEnabled(true);
+                try {
+                    JOptionPane.showMessageDialog(TaskListUI.this, get(), title, JOptionPane.INFORMATION_MESSAGE);
+                } catch (InterruptedException | ExecutionException ex) {
+                    Throwable cause = (ex.getCause() != null) ? ex.getCause() : ex;
+                    JOptionPane.showMessageDialog(TaskListUI.this, title + " failed: " + cause.getMessage(),
+                            title, JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
+    }
+
+    /** The selected row cannot be resolved until the background re-sort lands */
+    private void showResorting() {
+        JOptionPane.showMessageDialog(this, "The list is being re-sorted, please try again in a moment.",
+                "Updating", JOptionPane.INFORMATION_MESSAGE);
+    }
+
+    /** Case-insensitive substring test; lowerNeedle is already lower case */
+    private static boolean contains(String haystack, String lowerNeedle) {
+        if (haystack == null) return false;
+        for (int i = 0; i + lowerNeedle.length() <= haystack.length(); i++) {
+            if (haystack.regionMatches(true, i, lowerNeedle, 0, lowerNeedle.length())) return true;
+        }
+        return false;
     }
 
-    /** Refreshes the table data */
+    /** Repaints the whole table; normal edits arrive as row events instead */
     public void refreshTable() {
-        tableModel.setTasks(controller.getAllTasks());
+        tableModel.refresh();
     }
 }
\ No newline at end of file
@@ -17,8 +17,23 @@ public class TaskReminder implements Notifiable {
         this.dueDate = dueDate;
     }
 
+    public String getTaskName() {
+        return taskName;
+    }
+
+    public LocalDate getDueDate() {
+        return dueDate;
+    }
+
     @Override
     public String sendNotification() {
-        return "⏰ Reminder: Task \"" + taskName + "\" is due on " + dueDate + "!";
+        StringBuilder sb = new StringBuilder(48 + (taskName == null ? 4 : taskName.length()));
+        appendNotification(sb);
+        return sb.toString();
+    }
+
+    @Override
+    public void appendNotification(StringBuilder out) {
+        out.append("⏰ Reminder: Task \"").append(taskName).append("\" is due on ").append(dueDate).append('!');
     }
 }
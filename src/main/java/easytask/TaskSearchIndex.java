@@ -0,0 +1,342 @@
+package easytask;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * In-memory inverted index for keyword search over title, description,
+ * SchoolTask course code and PersonalTask mood tag.
+ * Text is split on anything that is not a letter or digit and lower-cased; the term
+ * dictionary is sorted, so every query word also matches as a prefix ("calc" finds "calculus").
+ * A task matches when every query word matches one of its terms. Ranking: title hits weigh
+ * most, then course/mood, then description; a whole-word hit counts double a prefix hit;
+ * ties go to the more urgent task.
+ *
+ * Each indexed task gets an int document id; a term's postings are parallel arrays of
+ * ascending doc ids and field masks, so queries work on primitive arrays (sorted merges,
+ * binary search, an array-based top-k heap) instead of per-hit objects.
+ * Removing a task only blanks its doc id; postings and the id space are compacted once
+ * the dead entries outnumber the live ones.
+ * Not synchronized: TaskList updates it under its write lock and searches under the read lock.
+ */
+public class TaskSearchIndex implements TaskIndex {
+
+    static final byte TITLE = 1;
+    static final byte DESCRIPTION = 2;
+    static final byte TAG = 4;  // course code or mood tag
+
+    private final TreeMap<String, Posting> dictionary = new TreeMap<>(); // sorted, for prefix ranges
+    private final Map<String, Posting> byTerm = new HashMap<>();          // same postings, O(1) while indexing
+    private final IdentityHashMap<Task, Integer> docOf = new IdentityHashMap<>();
+    private Task[] docs = new Task[16];             // doc id -> task, null once removed
+    private String[][] docTerms = new String[16][]; // doc id -> terms it was indexed under
+    private long[] urgency = new long[16];          // doc id -> urgency key when indexed (tie-breaker)
+    private int nextDoc;
+
+    /** Doc ids (ascending, since ids are handed out in increasing order) and field masks of one term. */
+    private static final class Posting {
+        final String term;
+        int[] docs = new int[2];
+        byte[] fields = new byte[2];
+        int size;
+        int dead;   // entries whose doc was removed
+
+        Posting(String term) {
+            this.term = term;
+        }
+
+        void append(int doc, byte field) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                fields = Arrays.copyOf(fields, size * 2);
+            }
+            docs[size] = doc;
+            fields[size] = field;
+            size++;
+        }
+
+        /** Drop entries of removed docs. */
+        void compact(Task[] live) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (live[docs[i]] == null) continue;
+                docs[kept] = docs[i];
+                fields[kept] = fields[i];
+                kept++;
+            }
+            size = kept;
+            dead = 0;
+        }
+    }
+
+    /** Index a task (re-indexes it if it is already present). */
+    public void add(Task task) {
+        if (task == null) return;
+        remove(task);
+        Map<String, Byte> fields = new HashMap<>();
+        collect(task.getTitle(), TITLE, fields);
+        collect(task.getDescription(), DESCRIPTION, fields);
+        if (task instanceof SchoolTask school) collect(school.getCourseCode(), TAG, fields);
+        if (task instanceof PersonalTask personal) collect(personal.getMoodTag(), TAG, fields);
+
+        if (nextDoc == docs.length) makeRoom();
+        int doc = nextDoc++;
+        String[] terms = new String[fields.size()];
+        int t = 0;
+        for (Map.Entry<String, Byte> e : fields.entrySet()) {
+            Posting posting = byTerm.get(e.getKey());
+            if (posting == null) {
+                posting = new Posting(e.getKey());
+                byTerm.put(posting.term, posting);
+                dictionary.put(posting.term, posting);
+            }
+            posting.append(doc, e.getValue());
+            terms[t++] = posting.term; // share the dictionary's copy of the string
+        }
+        docs[doc] = task;
+        docTerms[doc] = terms;
+        urgency[doc] = task.getUrgencyKey();
+        docOf.put(task, doc);
+    }
+
+    /** Drop a task from every posting it was added to (even if its text changed since). */
+    public void remove(Task task) {
+        Integer doc = docOf.remove(task);
+        if (doc == null) return;
+        docs[doc] = null;
+        for (String term : docTerms[doc]) {
+            Posting posting = byTerm.get(term);
+            if (++posting.dead == posting.size) {
+                byTerm.remove(term);
+                dictionary.remove(term);
+            } else if (posting.dead * 2 > posting.size) {
+                posting.compact(docs);
+            }
+        }
+        docTerms[doc] = null;
+    }
+
+    /** Number of indexed tasks. */
+    public int size() {
+        return docOf.size();
+    }
+
+    /** Best matches for the query, highest score first, at most limit of them. */
+    public List<Task> search(String query, int limit) {
+        Set<String> words = tokenize(query);
+        if (words.isEmpty() || limit <= 0) return Collections.emptyList();
+
+        // rarest word first, so later words only have to confirm a small candidate set
+        int n = words.size();
+        String[] word = words.toArray(new String[0]);
+        List<Collection<Posting>> ranges = new ArrayList<>(n);
+        long[] order = new long[n]; // hits << 32 | word index
+        for (int w = 0; w < n; w++) {
+            // every term starting with the word; the range ends just past the last such term
+            Collection<Posting> range = dictionary.subMap(word[w], word[w] + Character.MAX_VALUE).values();
+            long hits = 0;
+            for (Posting p : range) hits += p.size - p.dead;
+            if (hits == 0) return Collections.emptyList();
+            ranges.add(range);
+            order[w] = (hits << 32) | w;
+        }
+        Arrays.sort(order);
+
+        // candidates: doc << 32 | score, sorted by doc
+        long[] candidates = null;
+        for (long o : order) {
+            int w = (int) o;
+            long hits = o >>> 32;
+            if (candidates == null) {
+                candidates = hits(ranges.get(w), word[w]);
+            } else if (candidates.length * 8L < hits) {
+                candidates = confirm(candidates, word[w]);
+            } else {
+                candidates = intersect(candidates, hits(ranges.get(w), word[w]));
+            }
+            if (candidates.length == 0) return Collections.emptyList();
+        }
+        return top(candidates, limit);
+    }
+
+    /** Lower-cased letter/digit runs of the text, in order, without duplicates. */
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) return tokens;
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /** Every live doc in the range with its best score for the word, sorted by doc. */
+    private long[] hits(Collection<Posting> range, String word) {
+        int total = 0;
+        for (Posting p : range) total += p.size;
+        long[] hits = new long[total];
+        int count = 0;
+        for (Posting p : range) {
+            int exact = (p.term.length() == word.length()) ? 2 : 1;
+            for (int i = 0; i < p.size; i++) {
+                if (docs[p.docs[i]] == null) continue;
+                hits[count++] = ((long) p.docs[i] << 32) | (weight(p.fields[i]) * exact);
+            }
+        }
+        if (range.size() == 1) return Arrays.copyOf(hits, count); // one posting is already in doc order
+        Arrays.sort(hits, 0, count);
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            // same doc from several terms: sorting put its best score last
+            if (i + 1 < count && (hits[i] >>> 32) == (hits[i + 1] >>> 32)) continue;
+            hits[kept++] = hits[i];
+        }
+        return Arrays.copyOf(hits, kept);
+    }
+
+    /** Keep the candidates that also match the word, checking each one's own terms. */
+    private long[] confirm(long[] candidates, String word) {
+        int kept = 0;
+        for (long c : candidates) {
+            int doc = (int) (c >>> 32);
+            int best = 0;
+            for (String term : docTerms[doc]) {
+                if (!term.startsWith(word)) continue;
+                Posting p = byTerm.get(term);
+                int i = Arrays.binarySearch(p.docs, 0, p.size, doc);
+                best = Math.max(best, weight(p.fields[i]) * (term.length() == word.length() ? 2 : 1));
+            }
+            if (best > 0) candidates[kept++] = c + best;
+        }
+        return Arrays.copyOf(candidates, kept);
+    }
+
+    /** Docs present in both sorted lists, scores added. */
+    private static long[] intersect(long[] a, long[] b) {
+        long[] both = new long[Math.min(a.length, b.length)];
+        int count = 0;
+        for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+            long da = a[i] >>> 32;
+            long db = b[j] >>> 32;
+            if (da < db) {
+                i++;
+            } else if (da > db) {
+                j++;
+            } else {
+                both[count++] = a[i++] + (int) b[j++];
+            }
+        }
+        return Arrays.copyOf(both, count);
+    }
+
+    /** The limit best candidates, best first, via a bounded array min-heap: O(m log limit). */
+    private List<Task> top(long[] candidates, int limit) {
+        int k = Math.min(limit, candidates.length);
+        int[] heap = new int[k];     // candidate positions; heap[0] is the worst kept
+        int size = 0;
+        for (int c = 0; c < candidates.length; c++) {
+            if (size < k) {
+                heap[size] = c;
+                siftUp(heap, size++, candidates);
+            } else if (better(candidates, c, heap[0])) {
+                heap[0] = c;
+                siftDown(heap, size, candidates);
+            }
+        }
+        Task[] result = new Task[size];
+        while (size > 0) {
+            result[size - 1] = docs[(int) (candidates[heap[0]] >>> 32)];
+            heap[0] = heap[--size];
+            siftDown(heap, size, candidates);
+        }
+        return Arrays.asList(result);
+    }
+
+    /** Higher score first, then the more urgent task. */
+    private boolean better(long[] candidates, int a, int b) {
+        int sa = (int) candidates[a];
+        int sb = (int) candidates[b];
+        if (sa != sb) return sa > sb;
+        return urgency[(int) (candidates[a] >>> 32)] < urgency[(int) (candidates[b] >>> 32)];
+    }
+
+    private void siftUp(int[] heap, int i, long[] candidates) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!better(candidates, heap[parent], heap[i])) break;
+            int tmp = heap[parent];
+            heap[parent] = heap[i];
+            heap[i] = tmp;
+            i = parent;
+        }
+    }
+
+    private void siftDown(int[] heap, int size, long[] candidates) {
+        int i = 0;
+        while (true) {
+            int worst = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < size && better(candidates, heap[worst], heap[left])) worst = left;
+            if (right < size && better(candidates, heap[worst], heap[right])) worst = right;
+            if (worst == i) return;
+            int tmp = heap[worst];
+            heap[worst] = heap[i];
+            heap[i] = tmp;
+            i = worst;
+        }
+    }
+
+    /** Out of doc ids: renumber the live docs if most ids are dead, otherwise grow. */
+    private void makeRoom() {
+        if (docOf.size() * 2 < nextDoc) {
+            List<Task> live = new ArrayList<>(docOf.size());
+            for (int d = 0; d < nextDoc; d++) {
+                if (docs[d] != null) live.add(docs[d]);
+            }
+            dictionary.clear();
+            byTerm.clear();
+            docOf.clear();
+            Arrays.fill(docs, null);
+            Arrays.fill(docTerms, null);
+            nextDoc = 0;
+            for (Task t : live) add(t); // ids restart at 0, so there is room again
+        } else {
+            int capacity = docs.length * 2;
+            docs = Arrays.copyOf(docs, capacity);
+            docTerms = Arrays.copyOf(docTerms, capacity);
+            urgency = Arrays.copyOf(urgency, capacity);
+        }
+    }
+
+    private static void collect(String text, byte field, Map<String, Byte> fields) {
+        for (String token : tokenize(text)) {
+            fields.merge(token, field, (a, b) -> (byte) (a | b));
+        }
+    }
+
+    private static int weight(byte fields) {
+        int w = 0;
+        if ((fields & TITLE) != 0) w += 4;
+        if ((fields & TAG) != 0) w += 3;
+        if ((fields & DESCRIPTION) != 0) w += 1;
+        return w;
+    }
+}
@@ -0,0 +1,404 @@
+package easytask;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+
+/**
+ * Reads and writes TaskList snapshot files (tasks.ser).
+ * Layout (version 3):
+ *   header:  [int MAGIC][byte version][byte codecId][long nextJournalGen][int count][long length][int crc]
+ *   records: count tasks encoded with the codec, back to back
+ *   table:   count longs, the file offset of every record
+ *   trailer: [long tableOffset][int MAGIC]
+ * The offset table lets MappedTaskStore jump straight to any record; sequential readers ignore it.
+ * length is the whole file size and crc the CRC32C of every byte after the header followed by the
+ * header up to (not including) the crc, so a torn or bit-rotted file is detected on load.
+ *
+ * Writes are crash safe: the snapshot is streamed to tasks.ser.tmp, the header is patched with
+ * length and crc, the file is fsynced and then atomically renamed over tasks.ser (and the
+ * directory fsynced). A crash leaves either the old or the new snapshot, never a mix.
+ * A list may still map the old tasks.ser (MappedTaskStore). POSIX systems let the rename replace
+ * it and the mapping keeps reading the unlinked file; Windows refuses to replace a mapped file,
+ * so the snapshot is then kept as tasks.ser.<nextGen> instead, and settle() promotes the newest
+ * such file to tasks.ser at the next load, once nothing maps the old one.
+ * A verified snapshot is recorded in tasks.ser.verified (length, crc, modification time), so a
+ * warm restart on an unchanged file skips the checksum pass.
+ * Version 2 files (no length/crc), version 1 files (no table/trailer) and legacy
+ * ObjectOutputStream files are still readable.
+ */
+public class TaskSnapshot {
+
+    static final int MAGIC = 0x4554534B; // "ETSK"
+    static final byte VERSION = 3;
+    static final int V2_HEADER_BYTES = 4 + 1 + 1 + 8 + 4;
+    static final int HEADER_BYTES = V2_HEADER_BYTES + 8 + 4; // + length + crc
+    static final int TRAILER_BYTES = 8 + 4;
+    private static final int CHECKED_HEADER_BYTES = HEADER_BYTES - 4; // header bytes covered by the crc
+
+    /** A snapshot whose length or checksum does not match its contents (torn write, disk corruption). */
+    public static class CorruptSnapshotException extends IOException {
+        public CorruptSnapshotException(String message) {
+            super(message);
+        }
+    }
+
+    private final List<Task> tasks;
+    private final long nextGen;
+
+    private TaskSnapshot(List<Task> tasks, long nextGen) {
+        this.tasks = tasks;
+        this.nextGen = nextGen;
+    }
+
+    /** Tasks stored in the snapshot. */
+    public List<Task> getTasks() {
+        return tasks;
+    }
+
+    /** First journal generation NOT covered by the snapshot. */
+    public long getNextGen() {
+        return nextGen;
+    }
+
+    /**
+     * Atomically replace file with a snapshot of the given tasks (streamed, never built in memory).
+     * Records still sitting unread in an IndexedTaskList are copied byte-for-byte when the codec matches.
+     */
+    public static void write(File file, List<Task> tasks, TaskCodec codec, long nextGen) throws IOException {
+        Path target = file.toPath();
+        Path tmp = target.resolveSibling(file.getName() + ".tmp");
+        try {
+            int crc;
+            long length;
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                CountingOutputStream counter = new CountingOutputStream(
+                        new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024));
+                DataOutputStream out = new DataOutputStream(counter);
+                out.writeInt(MAGIC);
+                out.writeByte(VERSION);
+                out.writeByte(codec.id());
+                out.writeLong(nextGen);
+                out.writeInt(tasks.size());
+                out.writeLong(0); // length and crc are patched in below
+                out.writeInt(0);
+                counter.startChecksum();
+                writeBody(out, counter, tasks, codec);
+                out.flush(); // not close(): that would close the channel
+                length = counter.count;
+
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+                header.putInt(MAGIC).put(VERSION).put(codec.id()).putLong(nextGen).putInt(tasks.size()).putLong(length);
+                counter.crc.update(header.array(), 0, CHECKED_HEADER_BYTES);
+                crc = (int) counter.crc.getValue();
+                header.putInt(crc).flip();
+                while (header.hasRemaining()) channel.write(header, header.position());
+                channel.force(true);
+            }
+            Path written = replace(tmp, target, nextGen);
+            syncDirectory(target.toAbsolutePath().getParent());
+            markVerified(written.toFile(), length, crc);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+    }
+
+    private static void writeBody(DataOutputStream out, CountingOutputStream counter,
+                                  List<Task> tasks, TaskCodec codec) throws IOException {
+        int count = tasks.size();
+        long[] offsets = new long[count];
+        IndexedTaskList lazy = (tasks instanceof IndexedTaskList l) ? l : null;
+        for (int i = 0; i < count; i++) {
+            offsets[i] = counter.count; // exact: DataOutputStream is unbuffered and the counter sits above the buffer
+            if (lazy != null) {
+                lazy.writeRecord(i, codec, out);
+            } else {
+                codec.write(tasks.get(i), out);
+            }
+        }
+        long tableOffset = counter.count;
+        for (long offset : offsets) out.writeLong(offset);
+        out.writeLong(tableOffset);
+        out.writeInt(MAGIC);
+    }
+
+    /**
+     * Move tmp over target, or, if target cannot be replaced (Windows while it is mapped), to the
+     * pending name target.<nextGen>. Returns where the snapshot ended up.
+     */
+    private static Path replace(Path tmp, Path target, long nextGen) throws IOException {
+        try {
+            moveAtomically(tmp, target);
+        } catch (FileSystemException inUse) {
+            Path pending = target.resolveSibling(target.getFileName() + "." + nextGen);
+            moveAtomically(tmp, pending);
+            deletePendingBefore(target, nextGen);
+            return pending;
+        }
+        deletePendingBefore(target, Long.MAX_VALUE); // all older than the snapshot just written
+        return target;
+    }
+
+    /**
+     * The snapshot file to load: file itself, or a newer pending file.<gen> that replace() left
+     * behind. A pending file is moved over file when possible; older ones are deleted (best effort,
+     * a file another list still maps is retried next time).
+     */
+    public static File settle(File file) {
+        Path target = file.toPath();
+        long newestGen = file.exists() ? nextGenOf(file) : -1;
+        Path newest = null;
+        for (Path pending : pendingFiles(target)) {
+            long gen = pendingGen(target, pending);
+            if (gen > newestGen) {
+                newestGen = gen;
+                newest = pending;
+            }
+        }
+        if (newest == null) {
+            deletePendingBefore(target, Long.MAX_VALUE);
+            return file;
+        }
+        try {
+            moveAtomically(newest, target);
+            new File(newest + ".verified").delete(); // keyed by path: checked again once under the new name
+            syncDirectory(target.toAbsolutePath().getParent());
+            deletePendingBefore(target, Long.MAX_VALUE);
+            return file;
+        } catch (IOException stillMapped) {
+            deletePendingBefore(target, newestGen);
+            return newest.toFile();
+        }
+    }
+
+    /** nextGen from a version 1+ header, or -1 if the file has none (legacy or unreadable). */
+    private static long nextGenOf(File file) {
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            if (in.readInt() != MAGIC) return -1;
+            in.readShort(); // version, codec
+            return in.readLong();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static void deletePendingBefore(Path target, long gen) {
+        for (Path pending : pendingFiles(target)) {
+            if (pendingGen(target, pending) >= gen) continue;
+            try {
+                Files.delete(pending);
+                Files.deleteIfExists(pending.resolveSibling(pending.getFileName() + ".verified"));
+            } catch (IOException ignored) {
+                // still mapped by some list; deleted by a later save or load
+            }
+        }
+    }
+
+    /** Siblings named target.<digits>. */
+    private static List<Path> pendingFiles(Path target) {
+        List<Path> found = new ArrayList<>();
+        File dir = target.toAbsolutePath().getParent().toFile();
+        String[] names = dir.list();
+        if (names == null) return found;
+        for (String name : names) {
+            Path candidate = dir.toPath().resolve(name);
+            if (pendingGen(target, candidate) >= 0) found.add(candidate);
+        }
+        return found;
+    }
+
+    private static long pendingGen(Path target, Path candidate) {
+        String prefix = target.getFileName() + ".";
+        String name = candidate.getFileName().toString();
+        if (!name.startsWith(prefix) || name.length() == prefix.length()) return -1;
+        for (int i = prefix.length(); i < name.length(); i++) {
+            if (!Character.isDigit(name.charAt(i))) return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static void moveAtomically(Path from, Path to) throws IOException {
+        try {
+            Files.move(from, to, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(from, to, StandardCopyOption.REPLACE_EXISTING); // best effort on such file systems
+        }
+    }
+
+    /** Make the rename itself durable; not possible on every platform, so failures are ignored. */
+    private static void syncDirectory(Path dir) {
+        if (dir == null) return;
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException ignored) {
+            // e.g. Windows cannot open a directory as a channel
+        }
+    }
+
+    // ===== Verification =====
+
+    /**
+     * Check a version 3 snapshot mapped in buf against its recorded length and crc.
+     * Skipped when tasks.ser.verified says this exact file was already verified.
+     */
+    static void verify(File file, ByteBuffer buf) throws IOException {
+        long length = buf.getLong(V2_HEADER_BYTES);
+        int crc = buf.getInt(V2_HEADER_BYTES + 8);
+        if (length != buf.capacity()) {
+            throw new CorruptSnapshotException("Snapshot " + file + " is " + buf.capacity() + " bytes, header says " + length);
+        }
+        if (isVerified(file, length, crc)) return;
+        CRC32C actual = new CRC32C();
+        actual.update(buf.duplicate().position(HEADER_BYTES));
+        actual.update(buf.duplicate().position(0).limit(CHECKED_HEADER_BYTES));
+        if ((int) actual.getValue() != crc) {
+            throw new CorruptSnapshotException("Snapshot " + file + " fails its checksum");
+        }
+        markVerified(file, length, crc);
+    }
+
+    /** Move a snapshot that failed to load out of the way, so the next save cannot overwrite it; returns its new name. */
+    public static File quarantine(File file) {
+        File aside = new File(file.getPath() + ".corrupt-" + System.currentTimeMillis());
+        if (!file.renameTo(aside)) return file;
+        new File(file.getPath() + ".verified").delete();
+        return aside;
+    }
+
+    private static boolean isVerified(File file, long length, int crc) {
+        File marker = new File(file.getPath() + ".verified");
+        if (!marker.exists()) return false;
+        try (DataInputStream in = new DataInputStream(new FileInputStream(marker))) {
+            return in.readLong() == length && in.readInt() == crc && in.readLong() == file.lastModified();
+        } catch (IOException e) {
+            return false; // unreadable marker: verify again
+        }
+    }
+
+    /** Best effort: a missing or torn marker only costs one more checksum pass. */
+    private static void markVerified(File file, long length, int crc) {
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file.getPath() + ".verified"))) {
+            out.writeLong(length);
+            out.writeInt(crc);
+            out.writeLong(file.lastModified());
+        } catch (IOException e) {
+            System.err.println("Could not record snapshot verification: " + e.getMessage());
+        }
+    }
+
+    /** Read a whole snapshot eagerly (any supported version). */
+    public static TaskSnapshot read(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 64 * 1024))) {
+            in.mark(4);
+            int magic = in.readInt();
+            in.reset();
+            return (magic == MAGIC) ? readRecords(in) : readLegacy(in);
+        }
+    }
+
+    private static TaskSnapshot readRecords(DataInputStream in) throws IOException {
+        in.readInt(); // magic
+        byte version = in.readByte();
+        if (version < 1 || version > VERSION) throw new IOException("Unsupported snapshot version: " + version);
+        byte codecId = in.readByte();
+        TaskCodec codec = TaskCodec.forId(codecId);
+        long nextGen = in.readLong();
+        int count = in.readInt();
+        if (version < 3) {
+            List<Task> loaded = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                loaded.add(codec.read(in));
+            }
+            return new TaskSnapshot(loaded, nextGen);
+        }
+        long length = in.readLong();
+        int crc = in.readInt();
+        // checksum everything after the header while decoding it, then the header itself
+        CheckedInputStream checked = new CheckedInputStream(in, new CRC32C());
+        DataInputStream body = new DataInputStream(checked);
+        List<Task> loaded = new ArrayList<>(count);
+        try {
+            for (int i = 0; i < count; i++) {
+                loaded.add(codec.read(body));
+            }
+        } catch (EOFException e) {
+            throw new CorruptSnapshotException("Snapshot ends after " + loaded.size() + " of " + count + " tasks");
+        }
+        long bodyBytes = 0;
+        byte[] skip = new byte[8192];
+        for (int n; (n = checked.read(skip)) > 0; ) bodyBytes += n; // offset table + trailer
+        ByteBuffer header = ByteBuffer.allocate(CHECKED_HEADER_BYTES);
+        header.putInt(MAGIC).put(version).put(codecId).putLong(nextGen).putInt(count).putLong(length);
+        checked.getChecksum().update(header.array(), 0, CHECKED_HEADER_BYTES);
+        if ((int) checked.getChecksum().getValue() != crc || bodyBytes < TRAILER_BYTES) {
+            throw new CorruptSnapshotException("Snapshot fails its checksum");
+        }
+        return new TaskSnapshot(loaded, nextGen);
+    }
+
+    /** A tasks.ser written with plain Java serialization (optionally followed by the journal generation). */
+    @SuppressWarnings("unchecked")
+    private static TaskSnapshot readLegacy(InputStream in) throws IOException {
+        try (ObjectInputStream ois = new ObjectInputStream(in)) {
+            List<Task> loaded = (List<Task>) ois.readObject();
+            long nextGen;
+            try {
+                nextGen = ois.readLong();
+            } catch (EOFException legacy) {
+                nextGen = 0; // snapshot written before journaling existed
+            }
+            return new TaskSnapshot(loaded, nextGen);
+        } catch (ClassNotFoundException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Tracks the file position while streaming, so record offsets can go beyond 2 GB, and
+     * checksums everything written after startChecksum().
+     */
+    private static class CountingOutputStream extends FilterOutputStream {
+        long count;
+        final CRC32C crc = new CRC32C();
+        private boolean checksumming;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        void startChecksum() {
+            checksumming = true;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            if (checksumming) crc.update(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            if (checksumming) crc.update(b, off, len);
+            count += len;
+        }
+    }
+}
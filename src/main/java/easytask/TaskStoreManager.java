@@ -0,0 +1,236 @@
+package easytask;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Many independent TaskLists keyed by name (e.g. one per team), each stored in its own
+ * directory root/name (tasks.ser + tasks.journal.*).
+ *  - lazy: a list is loaded the first time it is acquired, never up front
+ *  - LRU: at most maxOpen lists stay loaded; past that the least recently used list that no one
+ *    holds is closed, which flushes its journal to disk (write-back), and is loaded again on its
+ *    next acquire
+ *  - shared resources: every list commits on one executor and buffers its journal from one
+ *    BufferPool, so a loaded list costs its tasks and indexes but no thread or I/O buffer of its
+ *    own, and opening the 500th list costs the same as opening the first
+ * Callers pin a list between acquire() and release() (or use with()); a pinned list is never
+ * evicted, so a TaskList must not be used after it has been released.
+ */
+public class TaskStoreManager implements AutoCloseable {
+
+    private static final Pattern VALID_NAME = Pattern.compile("[A-Za-z0-9][A-Za-z0-9._-]{0,63}");
+
+    private final File root;
+    private final int maxOpen;
+    private final Executor ioExecutor;   // null = TaskList's shared background writer
+    private final BufferPool buffers;
+
+    private static final class Shard {
+        final String name;
+        final CompletableFuture<TaskList> list = new CompletableFuture<>();
+        int pins; // acquires not yet released (guarded by the manager)
+
+        Shard(String name) {
+            this.name = name;
+        }
+    }
+
+    // Loaded (or loading) lists, least recently used first (guarded by this)
+    private final LinkedHashMap<String, Shard> shards = new LinkedHashMap<>(16, 0.75f, true);
+    // Evicted lists whose write-back is still running; a reload waits for it (guarded by this)
+    private final Map<String, CompletableFuture<Void>> closing = new HashMap<>();
+    private boolean closed;
+
+    /** Lists under root, at most maxOpen loaded, sharing TaskList's background writer and BufferPool.SHARED. */
+    public TaskStoreManager(File root, int maxOpen) {
+        this(root, maxOpen, null, BufferPool.SHARED);
+    }
+
+    public TaskStoreManager(File root, int maxOpen, Executor ioExecutor, BufferPool buffers) {
+        if (maxOpen < 1) throw new IllegalArgumentException("maxOpen must be at least 1");
+        this.root = root;
+        this.maxOpen = maxOpen;
+        this.ioExecutor = ioExecutor;
+        this.buffers = buffers;
+    }
+
+    /** The list called name, loading it if needed; pinned until the matching release(name). */
+    public TaskList acquire(String name) {
+        checkName(name);
+        Shard shard;
+        boolean load = false;
+        CompletableFuture<Void> pendingClose = null;
+        List<Shard> evicted;
+        synchronized (this) {
+            if (closed) throw new IllegalStateException("Task store manager is closed");
+            shard = shards.get(name);
+            if (shard == null) {
+                shard = new Shard(name);
+                shards.put(name, shard);
+                pendingClose = closing.get(name);
+                load = true;
+            }
+            shard.pins++;
+            evicted = evictExcess();
+        }
+        writeBack(evicted);
+        if (load) load(shard, pendingClose); // outside the lock: other lists stay available meanwhile
+        try {
+            return shard.list.join(); // a concurrent first acquire waits for the same load
+        } catch (CompletionException e) {
+            synchronized (this) {
+                shard.pins--;
+            }
+            throw (e.getCause() instanceof RuntimeException re) ? re : e;
+        }
+    }
+
+    /** Unpin a list obtained from acquire(name); it becomes eligible for eviction when no longer pinned. */
+    public void release(String name) {
+        List<Shard> evicted;
+        synchronized (this) {
+            Shard shard = shards.get(name);
+            if (shard == null || shard.pins == 0) {
+                throw new IllegalStateException("List not acquired: " + name);
+            }
+            shard.pins--;
+            evicted = evictExcess();
+        }
+        writeBack(evicted);
+    }
+
+    /** Run action on the list called name, pinned for the duration of the call. */
+    public <R> R with(String name, Function<? super TaskList, ? extends R> action) {
+        TaskList list = acquire(name);
+        try {
+            return action.apply(list);
+        } finally {
+            release(name);
+        }
+    }
+
+    /** Number of lists currently loaded (or loading). */
+    public synchronized int openCount() {
+        return shards.size();
+    }
+
+    public synchronized boolean isOpen(String name) {
+        return shards.containsKey(name);
+    }
+
+    /** Names of all lists stored under root, loaded or not. */
+    public List<String> listNames() {
+        List<String> names = new ArrayList<>();
+        String[] children = root.list();
+        if (children == null) return names;
+        for (String child : children) {
+            if (VALID_NAME.matcher(child).matches() && new File(root, child).isDirectory()) names.add(child);
+        }
+        names.sort(null);
+        return names;
+    }
+
+    /** Block until every change in every loaded list is durable. */
+    public void flushAll() {
+        for (TaskList list : loadedLists()) list.flush();
+    }
+
+    /** Write back and close every loaded list; acquire() fails afterwards. */
+    @Override
+    public void close() {
+        List<Shard> all;
+        synchronized (this) {
+            closed = true;
+            all = new ArrayList<>(shards.values());
+            shards.clear();
+        }
+        for (Shard shard : all) {
+            TaskList list = shard.list.getNow(null);
+            if (list != null) list.close();
+        }
+        List<CompletableFuture<Void>> pending;
+        synchronized (this) {
+            pending = new ArrayList<>(closing.values());
+        }
+        for (CompletableFuture<Void> f : pending) f.join();
+    }
+
+    private void load(Shard shard, CompletableFuture<Void> pendingClose) {
+        try {
+            if (pendingClose != null) pendingClose.join(); // never two instances on one directory
+            File dir = new File(root, shard.name);
+            if (!dir.isDirectory() && !dir.mkdirs()) {
+                throw new UncheckedIOException(new IOException("Cannot create task store directory " + dir));
+            }
+            shard.list.complete(new TaskList(dir, ioExecutor, buffers));
+        } catch (RuntimeException e) {
+            System.err.println("Error opening task list " + shard.name + ": " + e.getMessage());
+            synchronized (this) {
+                if (shards.get(shard.name) == shard) shards.remove(shard.name);
+            }
+            shard.list.completeExceptionally(e);
+        }
+    }
+
+    /** Unlink least recently used, unpinned, loaded lists until at most maxOpen remain (caller holds the lock). */
+    private List<Shard> evictExcess() {
+        List<Shard> evicted = new ArrayList<>();
+        Iterator<Shard> it = shards.values().iterator(); // eldest first
+        while (shards.size() > maxOpen && it.hasNext()) {
+            Shard shard = it.next();
+            if (shard.pins > 0 || !shard.list.isDone()) continue;
+            it.remove();
+            closing.put(shard.name, new CompletableFuture<>());
+            evicted.add(shard);
+        }
+        return evicted;
+    }
+
+    /** Flush and close evicted lists (outside the lock), then let waiting reloads proceed. */
+    private void writeBack(List<Shard> evicted) {
+        for (Shard shard : evicted) {
+            CompletableFuture<Void> done;
+            synchronized (this) {
+                done = closing.get(shard.name);
+            }
+            try {
+                TaskList list = shard.list.getNow(null);
+                if (list != null) list.close();
+            } finally {
+                synchronized (this) {
+                    closing.remove(shard.name, done);
+                }
+                done.complete(null);
+            }
+        }
+    }
+
+    private List<TaskList> loadedLists() {
+        List<TaskList> lists = new ArrayList<>();
+        synchronized (this) {
+            for (Shard shard : shards.values()) {
+                TaskList list = shard.list.getNow(null);
+                if (list != null) lists.add(list);
+            }
+        }
+        return lists;
+    }
+
+    private static void checkName(String name) {
+        if (name == null || !VALID_NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("Invalid task list name: " + name);
+        }
+    }
+}
@@ -1,30 +1,120 @@
 package easytask;
 
+import javax.swing.ListSelectionModel;
+import javax.swing.SwingUtilities;
 import javax.swing.table.AbstractTableModel;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
 
 /**
  * TaskTableModel is a table model that provides task data for display in a JTable.
+ * Rows are read straight from the TaskList (no copy), and TaskList change events are
+ * turned into fireTableRowsInserted/Updated/Deleted, so one edit repaints one row.
+ *
+ * The table is virtualized: cells are fetched a page of rows at a time (TaskList.peekTasks,
+ * which does not pin undecoded tasks in memory), formatted once, and kept in a small LRU of
+ * pages; when scrolling reaches a new page its neighbours are prefetched in the background.
+ * Heap use is bounded by the cache size no matter how many tasks the list holds.
+ *
+ * Sorting and filtering (setSort / setFilter) run on a ForkJoinPool through TaskTableSorter,
+ * never on the EDT. The result is a view-to-model row permutation that is swapped in on the EDT
+ * in one step, and only if no list change happened while it was computed. Until then the old
+ * view stays up (repainted, not patched), and the changes that arrive meanwhile trigger one
+ * more background sort per batch.
+ * A new order reaches the JTable as row events, and the selection given to keepSelection
+ * follows its tasks, so re-sorting after an edit does not lose the selection or scroll position.
+ *
+ * List changes are queued and applied on the EDT in batches: one drain per invokeLater, with
+ * neighbouring inserts, deletes or updates fired as one table event.
  * Author: Houde Yu
  */
-public class TaskTableModel extends AbstractTableModel {
+public class TaskTableModel extends AbstractTableModel implements TaskListListener {
+
+    private static final int PAGE_SIZE = 128;  // rows fetched and formatted together
+    private static final int MAX_PAGES = 32;   // formatted pages kept (about 4k rows)
+
+    // Formats neighbouring pages off the EDT; shared by all tables
+    private static final ExecutorService PREFETCHER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "table-prefetch");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Sorts and filters off the EDT; shared by all tables (worker threads are daemons)
+    private static final ForkJoinPool SORT_POOL =
+            new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
 
     private final String[] columnNames = {"Title", "Description", "Due Date", "Priority"};
-    private List<Task> taskList;
+    private final TaskList taskList;
+    private final ForkJoinPool sortPool;
+    private final TaskTableSorter sorter;
+
+    // page number -> formatted cells [row in page][column], least recently used evicted first.
+    // The map is also the lock for prefetching and generation.
+    private final LinkedHashMap<Integer, String[][]> pages = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, String[][]> eldest) {
+            return size() > MAX_PAGES;
+        }
+    };
+    private final Set<Integer> prefetching = new HashSet<>();
+    private long generation;  // bumped by every change, so a page formatted before it is not cached
+    private int lastPage = -1; // EDT only: page of the last cell asked for
+
+    // View row -> list index, or null to show the list as is. Replaced (never modified) on the EDT;
+    // pages are numbered in view rows, so every replacement drops the cache.
+    private volatile int[] view;
+    private final AtomicLong changes = new AtomicLong(); // list events fired (changing thread)
+    private long changesShown;                           // list events applied to the table (EDT)
+    private int viewLimit;      // EDT: list size the view was sorted from; appends past it leave it valid
+    private boolean viewStale;  // EDT: list indices shifted under the view since it was sorted
 
-    public TaskTableModel(List<Task> tasks) {
-        this.taskList = new ArrayList<>(tasks); // create mutable copy
+    /** One queued list change. */
+    private record Change(byte kind, int index) {
+        static final byte INSERT = 1, UPDATE = 2, DELETE = 3, RELOAD = 4;
     }
 
-    public void setTasks(List<Task> newList) {
-        this.taskList = new ArrayList<>(newList); // replace old list
-        fireTableDataChanged();
+    private final List<Change> pending = new ArrayList<>(); // changes not yet applied on the EDT (guarded by itself)
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+
+    // EDT only: requested order and filter, and the state of the background sort
+    private int sortColumn = TaskTableSorter.UNSORTED;
+    private boolean sortAscending = true;
+    private Predicate<? super Task> filter;
+    private boolean sorting;
+    private boolean sortAgain;
+    private ListSelectionModel selection; // selection carried across re-sorts, if any
+    private int[] carried;     // EDT: list indices selected when the view went stale, kept up with later changes
+    private int carriedLead = -1;
+
+    public TaskTableModel(TaskList taskList) {
+        this(taskList, SORT_POOL);
+    }
+
+    /** Use the given pool for sorting and filtering. */
+    public TaskTableModel(TaskList taskList, ForkJoinPool sortPool) {
+        this.taskList = taskList;
+        this.sortPool = sortPool;
+        this.sorter = new TaskTableSorter(sortPool);
+        taskList.addListener(this);
     }
 
     @Override
     public int getRowCount() {
-        return taskList.size();
+        int[] rows = view;
+        return (rows == null) ? taskList.size() : rows.length;
     }
 
     @Override
@@ -39,21 +129,436 @@ public class TaskTableModel extends AbstractTableModel {
 
     @Override
     public Object getValueAt(int row, int col) {
-        Task task = taskList.get(row);
-        return switch (col) {
-            case 0 -> task.getTitle();
-            case 1 -> task.getDescription();
-            case 2 -> task.getDueDate().toString();
-            case 3 -> task.getPriority();
-            default -> null;
-        };
+        int p = row / PAGE_SIZE;
+        String[][] page = page(p);
+        if (p != lastPage) { // scrolled onto another page: get its neighbours ready
+            lastPage = p;
+            prefetch(p + 1);
+            prefetch(p - 1);
+        }
+        int r = row % PAGE_SIZE;
+        if (r >= page.length || page[r] == null) return null; // row vanished between a change and its event
+        return page[r][col];
+    }
+
+    /** Formatted cells of one page, from the cache or fetched now. */
+    private String[][] page(int p) {
+        String[][] cells;
+        long gen;
+        int[] rows;
+        synchronized (pages) {
+            cells = pages.get(p);
+            gen = generation;
+            rows = view;
+        }
+        if (cells == null) {
+            cells = load(p, rows);
+            store(p, cells, gen);
+        }
+        return cells;
+    }
+
+    private void prefetch(int p) {
+        if (p < 0 || (long) p * PAGE_SIZE >= getRowCount()) return;
+        long gen;
+        int[] rows;
+        synchronized (pages) {
+            if (pages.containsKey(p) || !prefetching.add(p)) return;
+            gen = generation;
+            rows = view;
+        }
+        PREFETCHER.execute(() -> {
+            try {
+                store(p, load(p, rows), gen);
+            } finally {
+                synchronized (pages) {
+                    prefetching.remove(p);
+                }
+            }
+        });
+    }
+
+    private String[][] load(int p, int[] rows) {
+        Task[] tasks = (rows == null)
+                ? taskList.peekTasks(p * PAGE_SIZE, PAGE_SIZE)
+                : taskList.peekTasks(rows, p * PAGE_SIZE, PAGE_SIZE);
+        String[][] cells = new String[tasks.length][];
+        for (int i = 0; i < tasks.length; i++) {
+            Task task = tasks[i];
+            if (task == null) continue;
+            cells[i] = new String[] {
+                    task.getTitle(),
+                    task.getDescription(),
+                    task.getDueDate() == null ? "" : task.getDueDate().toString(),
+                    task.getPriority()
+            };
+        }
+        return cells;
     }
 
+    private void store(int p, String[][] cells, long gen) {
+        synchronized (pages) {
+            if (gen == generation) pages.put(p, cells); // otherwise the list changed while it was formatted
+        }
+    }
+
+    /** Drop cached pages from the given page on (a row was inserted or deleted there). */
+    private void invalidateFrom(int firstPage) {
+        synchronized (pages) {
+            generation++;
+            for (Iterator<Integer> it = pages.keySet().iterator(); it.hasNext(); ) {
+                if (it.next() >= firstPage) it.remove();
+            }
+        }
+    }
+
+    /** EDT: show rows in a new order (null = list order) in one step. */
+    private void setView(int[] rows) {
+        synchronized (pages) {
+            view = rows;
+            generation++;
+            pages.clear();
+        }
+    }
+
+    /** Task shown in a table row, or null while the row cannot be mapped (see toModelRow). */
     public Task getTaskAt(int row) {
-        return taskList.get(row);
+        int index = toModelRow(row);
+        return (index < 0) ? null : taskList.getTask(index);
+    }
+
+    /**
+     * List index of a table row (they differ while the table is sorted or filtered), or -1 if there is
+     * no such row or the list shifted under the sorted view and the re-sort has not landed yet.
+     */
+    public int toModelRow(int row) {
+        int[] rows = view;
+        if (rows == null) return row;
+        if (viewStale) return -1;
+        return (row >= 0 && row < rows.length) ? rows[row] : -1;
+    }
+
+    /** Keep this selection on the same tasks when the rows are re-sorted (the JTable's own selection model). */
+    public void keepSelection(ListSelectionModel selection) {
+        this.selection = selection;
     }
 
+    /** Full repaint; only needed when the list was replaced wholesale. */
     public void refresh() {
-        fireTableDataChanged();
+        invalidateFrom(0);
+        onEdt(this::fireTableDataChanged);
+    }
+
+    // ===== Sorting and filtering (call on the EDT) =====
+
+    /** Sort by a column (TaskTableSorter.TITLE..PRIORITY, or UNSORTED for list order); done in the background. */
+    public void setSort(int column, boolean ascending) {
+        sortColumn = column;
+        sortAscending = ascending;
+        resort();
+    }
+
+    public int getSortColumn() {
+        return sortColumn;
+    }
+
+    public boolean isSortAscending() {
+        return sortAscending;
+    }
+
+    /** Show only tasks passing the filter (null = all); done in the background. */
+    public void setFilter(Predicate<? super Task> filter) {
+        this.filter = filter;
+        resort();
+    }
+
+    /** True while a background sort or filter has not been applied yet. */
+    public boolean isSorting() {
+        return sorting;
+    }
+
+    /** Start a background sort, or ask the running one to go again once it is done. */
+    private void resort() {
+        if (sorting) {
+            sortAgain = true;
+            return;
+        }
+        if (sortColumn == TaskTableSorter.UNSORTED && filter == null) {
+            if (view != null) install(null, 0);
+            return;
+        }
+        sorting = true;
+        int column = sortColumn;
+        boolean ascending = sortAscending;
+        Predicate<? super Task> keep = filter;
+        sortPool.execute(() -> {
+            int[] rows = null;
+            long before = changes.get();
+            int size = taskList.size();
+            try {
+                rows = sorter.sortedRows(taskList, column, ascending, keep);
+            } catch (RuntimeException e) {
+                System.err.println("Error sorting tasks: " + e.getMessage());
+            }
+            long seen = (changes.get() == before) ? before : -1; // -1: the list changed while reading
+            int[] result = rows;
+            SwingUtilities.invokeLater(() -> sorted(result, seen, size));
+        });
+    }
+
+    /** EDT: a background sort finished; install it if it still matches what the table shows. */
+    private void sorted(int[] rows, long seen, int size) {
+        sorting = false;
+        if (sortAgain) { // order or filter changed meanwhile
+            sortAgain = false;
+            resort();
+        } else if (rows != null && seen == changesShown) {
+            install(rows, size);
+        }
+        // otherwise a list event is still on its way to the EDT, and its drain starts the next sort
+    }
+
+    /**
+     * EDT: swap in a new order (null = list order). The table gets row events, not
+     * fireTableDataChanged, so it keeps its scroll position; selected rows follow their tasks.
+     */
+    private void install(int[] rows, int size) {
+        int oldCount = getRowCount();
+        int[] selected = carried; // stale view: the selection was saved when it went stale
+        int lead = carriedLead;
+        carried = null;
+        if (selection != null && !viewStale && !selection.isSelectionEmpty()) {
+            selected = selectedModelRows();
+            lead = toModelRow(selection.getLeadSelectionIndex());
+        }
+        setView(rows);
+        viewLimit = size;
+        viewStale = false;
+        int newCount = getRowCount();
+        if (newCount < oldCount) {
+            fireTableRowsDeleted(newCount, oldCount - 1);
+        } else if (newCount > oldCount) {
+            fireTableRowsInserted(oldCount, newCount - 1);
+        }
+        repaintAll(Math.min(oldCount, newCount));
+        if (selected != null && selection != null) reselect(selected, lead);
+    }
+
+    /** List indices of the selected rows, ascending (the view must not be stale). */
+    private int[] selectedModelRows() {
+        int[] out = new int[16];
+        int n = 0;
+        for (int r = selection.getMinSelectionIndex(), max = selection.getMaxSelectionIndex(); r <= max; r++) {
+            if (!selection.isSelectedIndex(r)) continue;
+            int index = toModelRow(r);
+            if (index < 0) continue;
+            if (n == out.length) out = Arrays.copyOf(out, n * 2);
+            out[n++] = index;
+        }
+        out = Arrays.copyOf(out, n);
+        Arrays.sort(out);
+        return out;
+    }
+
+    /** Select the rows now showing the given list indices; the lead row goes last, so it stays the lead. */
+    private void reselect(int[] modelRows, int leadModelRow) {
+        int[] rows = view;
+        int leadRow = -1;
+        selection.setValueIsAdjusting(true);
+        try {
+            selection.clearSelection();
+            if (rows == null) {
+                for (int index : modelRows) {
+                    if (index < taskList.size()) selection.addSelectionInterval(index, index);
+                }
+                leadRow = (leadModelRow < taskList.size()) ? leadModelRow : -1;
+            } else {
+                for (int r = 0; r < rows.length; r++) { // one pass over the view, not one per selected row
+                    if (Arrays.binarySearch(modelRows, rows[r]) < 0) continue;
+                    selection.addSelectionInterval(r, r);
+                    if (rows[r] == leadModelRow) leadRow = r;
+                }
+            }
+            if (leadRow >= 0) selection.addSelectionInterval(leadRow, leadRow);
+        } finally {
+            selection.setValueIsAdjusting(false);
+        }
+    }
+
+    // ===== TaskListListener: list changes are queued and applied on the EDT in batches =====
+    // The cache is invalidated right away (on the changing thread); the table events follow on the EDT,
+    // where one drain applies everything queued since the last one (a 4096-task addAll is one pass).
+    // While a view is shown, its pages hold rows from anywhere in the list, so all of them go.
+
+    @Override
+    public void taskInserted(int index, Task task) {
+        invalidateFrom((view == null) ? index / PAGE_SIZE : 0);
+        enqueue(Change.INSERT, index);
+    }
+
+    @Override
+    public void taskUpdated(int index, Task oldTask, Task newTask) {
+        synchronized (pages) {
+            generation++;
+            if (view == null) {
+                pages.remove(index / PAGE_SIZE);
+            } else {
+                pages.clear();
+            }
+        }
+        enqueue(Change.UPDATE, index);
+    }
+
+    @Override
+    public void taskDeleted(int index, Task task) {
+        invalidateFrom((view == null) ? index / PAGE_SIZE : 0);
+        enqueue(Change.DELETE, index);
+    }
+
+    @Override
+    public void tasksReloaded() {
+        invalidateFrom(0);
+        enqueue(Change.RELOAD, 0);
+    }
+
+    /** Queue one change; the first change after a drain schedules the next one. */
+    private void enqueue(byte kind, int index) {
+        changes.incrementAndGet();
+        synchronized (pending) {
+            pending.add(new Change(kind, index));
+        }
+        if (drainScheduled.compareAndSet(false, true)) SwingUtilities.invokeLater(this::drain);
+    }
+
+    /** EDT: apply every queued change, then re-sort once if a sort or filter is active. */
+    private void drain() {
+        drainScheduled.set(false); // changes queued from now on schedule another drain
+        Change[] batch;
+        synchronized (pending) {
+            batch = pending.toArray(new Change[0]);
+            pending.clear();
+        }
+        if (batch.length == 0) return;
+        changesShown += batch.length;
+        if (view == null) {
+            fireRuns(batch);
+        } else {
+            applyToView(batch);
+        }
+        resort(); // no-op unless sorted or filtered; a running sort is asked to go again
+    }
+
+    /** List order shown as is: one table event per run of neighbouring changes of the same kind. */
+    private void fireRuns(Change[] batch) {
+        byte kind = 0;      // kind of the open run (0 = none)
+        int first = 0;      // rows of the open run, in table rows before the run
+        int last = -1;
+        for (Change c : batch) {
+            int i = c.index;
+            boolean merged = false;
+            if (c.kind == kind) {
+                switch (kind) {
+                    case Change.INSERT -> { // appends, or repeated inserts at the start of the run
+                        if (i == last + 1 || i == first) {
+                            last++;
+                            merged = true;
+                        }
+                    }
+                    case Change.DELETE -> { // removeAll deletes from the highest index down
+                        if (i == first - 1) {
+                            first--;
+                            merged = true;
+                        } else if (i == first) {
+                            last++;
+                            merged = true;
+                        }
+                    }
+                    case Change.UPDATE -> {
+                        if (i >= first - 1 && i <= last + 1) {
+                            first = Math.min(first, i);
+                            last = Math.max(last, i);
+                            merged = true;
+                        }
+                    }
+                    default -> { }
+                }
+            }
+            if (merged) continue;
+            fireRun(kind, first, last);
+            kind = c.kind;
+            first = i;
+            last = i;
+            if (kind == Change.RELOAD) {
+                fireTableDataChanged();
+                kind = 0;
+            }
+        }
+        fireRun(kind, first, last);
+    }
+
+    private void fireRun(byte kind, int first, int last) {
+        switch (kind) {
+            case Change.INSERT -> fireTableRowsInserted(first, last);
+            case Change.DELETE -> fireTableRowsDeleted(first, last);
+            case Change.UPDATE -> fireTableRowsUpdated(first, last);
+            default -> { }
+        }
+    }
+
+    /**
+     * Sorted or filtered: the permutation is not patched row by row; the single re-sort after the
+     * batch replaces it. Appended tasks and edits leave its indices valid (new tasks show up with the
+     * re-sort); anything that shifts list indices under it makes it stale until then.
+     */
+    private void applyToView(Change[] batch) {
+        for (Change c : batch) {
+            if (c.kind == Change.RELOAD) { // old indices mean nothing now; sorted again by drain()
+                setView(null);
+                viewStale = false;
+                carried = null;
+                fireTableDataChanged();
+                return;
+            }
+            if (c.kind == Change.UPDATE) continue;
+            if (!viewStale && c.index < viewLimit) {
+                if (selection != null && !selection.isSelectionEmpty()) { // last chance to read it through the view
+                    carried = selectedModelRows();
+                    carriedLead = toModelRow(selection.getLeadSelectionIndex());
+                }
+                viewStale = true;
+            }
+            if (carried != null) carry(c);
+        }
+        repaintAll(view.length);
+    }
+
+    /** Move the saved selection across one insert or delete (a deleted task drops out of it). */
+    private void carry(Change c) {
+        int n = 0;
+        for (int index : carried) {
+            if (c.kind == Change.DELETE && index == c.index) continue;
+            carried[n++] = shift(index, c);
+        }
+        if (n < carried.length) carried = Arrays.copyOf(carried, n);
+        carriedLead = (c.kind == Change.DELETE && carriedLead == c.index) ? -1 : shift(carriedLead, c);
+    }
+
+    private static int shift(int index, Change c) {
+        if (index < c.index) return index;
+        return (c.kind == Change.INSERT) ? index + 1 : index - 1;
+    }
+
+    /** Repaint every row without dropping the selection (fireTableDataChanged would). */
+    private void repaintAll(int rowCount) {
+        if (rowCount > 0) fireTableRowsUpdated(0, rowCount - 1);
+    }
+
+    /** Swing models must fire on the Event Dispatch Thread; changes made elsewhere are queued there in order. */
+    private static void onEdt(Runnable r) {
+        if (SwingUtilities.isEventDispatchThread()) {
+            r.run();
+        } else {
+            SwingUtilities.invokeLater(r);
+        }
     }
 }
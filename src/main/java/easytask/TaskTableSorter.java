@@ -0,0 +1,186 @@
+package easytask;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Predicate;
+
+/**
+ * Computes the row order for a sorted and/or filtered task table on a ForkJoinPool.
+ * Rows are read in parallel chunks (TaskList.peekTasks), the filter is tested and one sort key
+ * per row is extracted in its native form (due date as an epoch-day number, priority as its
+ * normalized rank, text as the String itself; never the formatted cell text), and the row
+ * indices are merge-sorted in parallel. Ties keep list order.
+ * The result is a view-to-model permutation for TaskTableModel.
+ */
+public class TaskTableSorter {
+
+    public static final int TITLE = 0;
+    public static final int DESCRIPTION = 1;
+    public static final int DUE_DATE = 2;
+    public static final int PRIORITY = 3;
+    public static final int UNSORTED = -1;
+
+    private static final int CHUNK = 8192;      // rows per leaf task when reading
+    private static final int SORT_LEAF = 4096;  // below this a range is sorted on the current thread
+
+    private final ForkJoinPool pool;
+
+    public TaskTableSorter(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /** Compares two model rows; negative if a goes first. */
+    private interface RowOrder {
+        int compare(int a, int b);
+    }
+
+    /**
+     * Model indices of the rows that pass the filter (null = all), ordered by the column
+     * (UNSORTED = list order). The caller checks that the list did not change meanwhile.
+     */
+    public int[] sortedRows(TaskList list, int column, boolean ascending, Predicate<? super Task> filter) {
+        int n = list.size();
+        boolean[] keep = new boolean[n];
+        long[] numbers = (column == DUE_DATE || column == PRIORITY) ? new long[n] : null;
+        String[] texts = (column == TITLE || column == DESCRIPTION) ? new String[n] : null;
+        pool.invoke(new Extract(list, 0, n, column, filter, keep, numbers, texts));
+
+        int kept = 0;
+        for (boolean k : keep) if (k) kept++;
+        int[] rows = new int[kept];
+        for (int i = 0, j = 0; i < n; i++) if (keep[i]) rows[j++] = i;
+        if (column == UNSORTED) return rows;
+
+        int sign = ascending ? 1 : -1;
+        RowOrder order;
+        if (numbers != null) {
+            order = (a, b) -> {
+                int c = Long.compare(numbers[a], numbers[b]) * sign;
+                return (c != 0) ? c : Integer.compare(a, b);
+            };
+        } else {
+            order = (a, b) -> {
+                int c = compareText(texts[a], texts[b]) * sign;
+                return (c != 0) ? c : Integer.compare(a, b);
+            };
+        }
+        pool.invoke(new MergeSort(rows, new int[rows.length], 0, rows.length, order));
+        return rows;
+    }
+
+    /** Case-insensitive, nulls last. */
+    private static int compareText(String a, String b) {
+        if (a == null) return (b == null) ? 0 : 1;
+        if (b == null) return -1;
+        return String.CASE_INSENSITIVE_ORDER.compare(a, b);
+    }
+
+    /** Reads rows [from, to) and fills keep[] and the key array for them. */
+    private static final class Extract extends RecursiveAction {
+        private final TaskList list;
+        private final int from;
+        private final int to;
+        private final int column;
+        private final Predicate<? super Task> filter;
+        private final boolean[] keep;
+        private final long[] numbers;
+        private final String[] texts;
+
+        Extract(TaskList list, int from, int to, int column, Predicate<? super Task> filter,
+                boolean[] keep, long[] numbers, String[] texts) {
+            this.list = list;
+            this.from = from;
+            this.to = to;
+            this.column = column;
+            this.filter = filter;
+            this.keep = keep;
+            this.numbers = numbers;
+            this.texts = texts;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > CHUNK) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new Extract(list, from, mid, column, filter, keep, numbers, texts),
+                        new Extract(list, mid, to, column, filter, keep, numbers, texts));
+                return;
+            }
+            Task[] rows = list.peekTasks(from, to - from); // may be short if the list shrank meanwhile
+            for (int i = 0; i < rows.length; i++) {
+                Task t = rows[i];
+                int row = from + i;
+                keep[row] = t != null && (filter == null || filter.test(t));
+                if (!keep[row]) continue;
+                switch (column) {
+                    case TITLE -> texts[row] = t.getTitle();
+                    case DESCRIPTION -> texts[row] = t.getDescription();
+                    case DUE_DATE -> numbers[row] = t.getUrgencyKey() & 0xFFFFFFFFL; // unsigned epoch day, no date last
+                    case PRIORITY -> numbers[row] = t.getUrgencyKey() >>> 32;       // rank: High first
+                    default -> { }
+                }
+            }
+        }
+    }
+
+    /** Stable parallel merge sort of rows[lo, hi) using tmp as scratch space. */
+    private static final class MergeSort extends RecursiveAction {
+        private final int[] rows;
+        private final int[] tmp;
+        private final int lo;
+        private final int hi;
+        private final RowOrder order;
+
+        MergeSort(int[] rows, int[] tmp, int lo, int hi, RowOrder order) {
+            this.rows = rows;
+            this.tmp = tmp;
+            this.lo = lo;
+            this.hi = hi;
+            this.order = order;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= SORT_LEAF) {
+                sequential(lo, hi);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new MergeSort(rows, tmp, lo, mid, order), new MergeSort(rows, tmp, mid, hi, order));
+            merge(lo, mid, hi);
+        }
+
+        private void sequential(int from, int to) {
+            if (to - from <= 32) {
+                for (int i = from + 1; i < to; i++) { // insertion sort
+                    int row = rows[i];
+                    int j = i - 1;
+                    while (j >= from && order.compare(rows[j], row) > 0) {
+                        rows[j + 1] = rows[j];
+                        j--;
+                    }
+                    rows[j + 1] = row;
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            sequential(from, mid);
+            sequential(mid, to);
+            merge(from, mid, to);
+        }
+
+        private void merge(int from, int mid, int to) {
+            if (order.compare(rows[mid - 1], rows[mid]) <= 0) return; // already in order
+            System.arraycopy(rows, from, tmp, from, to - from);
+            int i = from;
+            int j = mid;
+            for (int k = from; k < to; k++) {
+                if (j >= to || (i < mid && order.compare(tmp[i], tmp[j]) <= 0)) {
+                    rows[k] = tmp[i++];
+                } else {
+                    rows[k] = tmp[j++];
+                }
+            }
+        }
+    }
+}
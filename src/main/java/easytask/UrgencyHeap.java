@@ -0,0 +1,268 @@
+package easytask;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Indexed binary min-heap of tasks ("most urgent" at the root).
+ * Unlike java.util.PriorityQueue it remembers where every task sits in the heap,
+ * so remove(task) and re-keying after a priority/due-date edit are O(log n) instead of O(n).
+ * Tasks are tracked by identity; each task object is held at most once. Positions live in an
+ * identity-keyed int table, so sifting (which moves O(log n) tasks per update) allocates nothing.
+ */
+public class UrgencyHeap {
+
+    private final Comparator<Task> comparator;
+    private final Positions positions;
+    private Task[] heap;
+    private int size;
+
+    public UrgencyHeap(Comparator<Task> comparator) {
+        this(comparator, 16);
+    }
+
+    private UrgencyHeap(Comparator<Task> comparator, int capacity) {
+        this.comparator = comparator;
+        this.positions = new Positions(capacity);
+        this.heap = new Task[Math.max(16, capacity)];
+    }
+
+    /** Heap of the given tasks (nulls and repeats skipped), built bottom-up in O(n) instead of n offers. */
+    public static UrgencyHeap of(Comparator<Task> comparator, Task[] tasks) {
+        UrgencyHeap h = new UrgencyHeap(comparator, tasks.length);
+        for (Task t : tasks) {
+            if (t != null && h.positions.get(t) < 0) {
+                h.positions.put(t, h.size);
+                h.heap[h.size++] = t;
+            }
+        }
+        for (int i = (h.size >>> 1) - 1; i >= 0; i--) h.siftDown(i);
+        return h;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(Task task) {
+        return positions.get(task) >= 0;
+    }
+
+    /** Insert a task, O(log n). If it is already present it is only re-positioned. */
+    public void offer(Task task) {
+        int pos = positions.get(task);
+        if (pos >= 0) {
+            siftEither(pos);
+            return;
+        }
+        if (size == heap.length) heap = Arrays.copyOf(heap, size * 2);
+        heap[size] = task;
+        positions.put(task, size);
+        siftUp(size++);
+    }
+
+    /** Most urgent task without removing it, O(1). */
+    public Task peek() {
+        return size == 0 ? null : heap[0];
+    }
+
+    /** Remove and return the most urgent task, O(log n). */
+    public Task poll() {
+        if (size == 0) return null;
+        Task top = heap[0];
+        removeAt(0);
+        return top;
+    }
+
+    /** Remove a specific task, O(log n); returns false if it was not in the heap. */
+    public boolean remove(Task task) {
+        int pos = positions.get(task);
+        if (pos < 0) return false;
+        removeAt(pos);
+        return true;
+    }
+
+    /**
+     * Restore heap order after the task's priority or due date changed in place
+     * (increase- or decrease-key), O(log n). Returns false if the task is not in the heap.
+     */
+    public boolean update(Task task) {
+        int pos = positions.get(task);
+        if (pos < 0) return false;
+        siftEither(pos);
+        return true;
+    }
+
+    /** Swap oldTask for newTask in the same slot and re-sift, O(log n). Falls back to offer if oldTask is absent. */
+    public void replace(Task oldTask, Task newTask) {
+        int pos = (oldTask == null) ? -1 : positions.remove(oldTask);
+        if (pos < 0 || (newTask != null && positions.get(newTask) >= 0)) {
+            if (pos >= 0) removeSlot(pos);
+            if (newTask != null) offer(newTask);
+            return;
+        }
+        if (newTask == null) {
+            positions.put(oldTask, pos);
+            removeAt(pos);
+            return;
+        }
+        heap[pos] = newTask;
+        positions.put(newTask, pos);
+        siftEither(pos);
+    }
+
+    public void clear() {
+        Arrays.fill(heap, 0, size, null);
+        positions.clear();
+        size = 0;
+    }
+
+    private void removeAt(int pos) {
+        positions.remove(heap[pos]);
+        removeSlot(pos);
+    }
+
+    /** Fill slot pos (already dropped from positions) with the last element and re-sift. */
+    private void removeSlot(int pos) {
+        int last = --size;
+        if (pos != last) {
+            heap[pos] = heap[last];
+            positions.put(heap[pos], pos);
+            heap[last] = null;
+            siftEither(pos);
+        } else {
+            heap[last] = null;
+        }
+    }
+
+    private void siftEither(int pos) {
+        if (pos > 0 && comparator.compare(heap[pos], heap[(pos - 1) >>> 1]) < 0) {
+            siftUp(pos);
+        } else {
+            siftDown(pos);
+        }
+    }
+
+    private void siftUp(int pos) {
+        Task task = heap[pos];
+        while (pos > 0) {
+            int parent = (pos - 1) >>> 1;
+            if (comparator.compare(task, heap[parent]) >= 0) break;
+            heap[pos] = heap[parent];
+            positions.put(heap[pos], pos);
+            pos = parent;
+        }
+        heap[pos] = task;
+        positions.put(task, pos);
+    }
+
+    private void siftDown(int pos) {
+        Task task = heap[pos];
+        int half = size >>> 1;
+        while (pos < half) {
+            int child = 2 * pos + 1;
+            int right = child + 1;
+            if (right < size && comparator.compare(heap[right], heap[child]) < 0) child = right;
+            if (comparator.compare(task, heap[child]) <= 0) break;
+            heap[pos] = heap[child];
+            positions.put(heap[pos], pos);
+            pos = child;
+        }
+        heap[pos] = task;
+        positions.put(task, pos);
+    }
+
+    /**
+     * Task -> heap slot, keyed by identity: open addressing with linear probing over parallel
+     * key/slot arrays, kept at most half full. remove() shifts later entries of the probe run
+     * back, so no tombstones build up.
+     */
+    private static final class Positions {
+        private Task[] keys;
+        private int[] slots;
+        private int count;
+
+        Positions(int expected) {
+            int capacity = 16;
+            while (capacity < expected * 2) capacity <<= 1;
+            keys = new Task[capacity];
+            slots = new int[capacity];
+        }
+
+        /** Slot of task, or -1 if absent. */
+        int get(Task task) {
+            if (task == null) return -1;
+            int mask = keys.length - 1;
+            for (int i = indexFor(task, mask); ; i = (i + 1) & mask) {
+                Task k = keys[i];
+                if (k == task) return slots[i];
+                if (k == null) return -1;
+            }
+        }
+
+        void put(Task task, int slot) {
+            int mask = keys.length - 1;
+            int i = indexFor(task, mask);
+            while (keys[i] != null && keys[i] != task) i = (i + 1) & mask;
+            if (keys[i] == null) {
+                if (count + 1 > keys.length >>> 1) {
+                    grow();
+                    put(task, slot);
+                    return;
+                }
+                keys[i] = task;
+                count++;
+            }
+            slots[i] = slot;
+        }
+
+        /** Remove task; returns its slot, or -1 if it was absent. */
+        int remove(Task task) {
+            if (task == null) return -1;
+            int mask = keys.length - 1;
+            int i = indexFor(task, mask);
+            while (keys[i] != task) {
+                if (keys[i] == null) return -1;
+                i = (i + 1) & mask;
+            }
+            int removed = slots[i];
+            // shift back entries whose probe run passes through the freed cell
+            for (int j = (i + 1) & mask; keys[j] != null; j = (j + 1) & mask) {
+                int home = indexFor(keys[j], mask);
+                if (((j - home) & mask) >= ((j - i) & mask)) {
+                    keys[i] = keys[j];
+                    slots[i] = slots[j];
+                    i = j;
+                }
+            }
+            keys[i] = null;
+            count--;
+            return removed;
+        }
+
+        void clear() {
+            Arrays.fill(keys, null);
+            count = 0;
+        }
+
+        private void grow() {
+            Task[] oldKeys = keys;
+            int[] oldSlots = slots;
+            keys = new Task[oldKeys.length * 2];
+            slots = new int[oldKeys.length * 2];
+            count = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != null) put(oldKeys[i], oldSlots[i]);
+            }
+        }
+
+        private static int indexFor(Task task, int mask) {
+            int h = System.identityHashCode(task) * 0x9E3779B1; // spread consecutive hash codes
+            return (h ^ (h >>> 16)) & mask;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package easytask;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AttributeIndexTest {
+
+    @TempDir
+    Path dir;
+
+    private static final String[] PRIORITIES = {"High", "Medium", "Low"};
+    private static final String[] COURSES = {"MATH101", "IST261", "ENGL202"};
+
+    @Test
+    void testIntersectionsMatchBruteForce() {
+        Random rnd = new Random(3);
+        AttributeIndex index = AttributeIndex.standard();
+        List<Task> live = new ArrayList<>();
+        for (int step = 0; step < 6000; step++) {
+            if (live.isEmpty() || rnd.nextInt(4) != 0) {
+                Task t = (rnd.nextBoolean())
+                        ? new SchoolTask("S" + step, "", LocalDate.of(2025, 1, 1), PRIORITIES[rnd.nextInt(3)], COURSES[rnd.nextInt(3)])
+                        : new PersonalTask("P" + step, "", LocalDate.of(2025, 1, 1), PRIORITIES[rnd.nextInt(3)], "Calm");
+                t.setCompleted(rnd.nextInt(3) == 0);
+                index.add(t);
+                live.add(t);
+            } else {
+                index.remove(live.remove(rnd.nextInt(live.size())));
+            }
+        }
+        assertEquals(live.size(), index.size());
+
+        // dense (bitset) and sparse (array) postings mixed
+        assertMatches(index, live, Map.of(AttributeIndex.PRIORITY, Priority.HIGH, AttributeIndex.COMPLETED, false,
+                AttributeIndex.COURSE, "MATH101"),
+                t -> t.getPriorityLevel() == Priority.HIGH && !t.isCompleted()
+                        && t instanceof SchoolTask s && s.getCourseCode().equals("MATH101"));
+        assertMatches(index, live, Map.of(AttributeIndex.COMPLETED, true, AttributeIndex.MOOD, "Calm"),
+                t -> t.isCompleted() && t instanceof PersonalTask);
+        assertMatches(index, live, Map.of(AttributeIndex.PRIORITY, Priority.LOW),
+                t -> t.getPriorityLevel() == Priority.LOW);
+        assertEquals(0, index.count(Map.of(AttributeIndex.COURSE, "PHYS211")));
+        assertThrows(IllegalArgumentException.class, () -> index.count(Map.of("color", "red")));
+    }
+
+    private static void assertMatches(AttributeIndex index, List<Task> live, Map<String, ?> criteria, Predicate<Task> filter) {
+        List<Task> expected = live.stream().filter(filter).toList();
+        List<Task> actual = index.select(criteria);
+        assertEquals(expected.size(), index.count(criteria));
+        assertEquals(expected.size(), actual.size());
+        assertTrue(actual.containsAll(expected));
+    }
+
+    @Test
+    void testTaskListFiltersAndRegisteredIndexes() {
+        TaskList list = new TaskList(dir.toFile());
+        list.setAsyncCommit(false);
+        Task calc = new SchoolTask("Calc", "", LocalDate.of(2025, 3, 1), "High", "MATH101");
+        Task essay = new SchoolTask("Essay", "", LocalDate.of(2025, 3, 2), "High", "ENGL202");
+        list.addAll(List.of(calc, essay));
+        DueDateIndex custom = new DueDateIndex();
+        list.registerIndex(custom);
+
+        Map<String, Object> highOpenMath = Map.of(AttributeIndex.PRIORITY, Priority.HIGH,
+                AttributeIndex.COMPLETED, false, AttributeIndex.COURSE, "MATH101");
+        assertEquals(List.of(calc), list.findWhere(highOpenMath));
+        list.editTask(calc, t -> t.setCompleted(true));
+        assertTrue(list.findWhere(highOpenMath).isEmpty());
+        assertEquals(2, list.countWhere(Map.of(AttributeIndex.PRIORITY, Priority.HIGH)));
+
+        list.removeByTitle("Essay");
+        assertEquals(1, custom.size());
+        list.close();
+    }
+}
@@ -0,0 +1,88 @@
+package easytask;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarTaskStoreTest {
+
+    private static final String[] PRIORITIES = {"High", "Medium", "Low", "urgent", null};
+
+    private static Task randomTask(Random rnd, int i) {
+        LocalDate due = (rnd.nextInt(5) == 0) ? null : LocalDate.of(2025, 1, 1).plusDays(rnd.nextInt(400));
+        String priority = PRIORITIES[rnd.nextInt(PRIORITIES.length)];
+        Task t = rnd.nextBoolean()
+                ? new SchoolTask("Task " + i + " ü", (i % 3 == 0) ? null : "desc " + i, due, priority, "C" + rnd.nextInt(5))
+                : new PersonalTask("Task " + i, "", due, priority, (i % 4 == 0) ? null : "Mood" + rnd.nextInt(3));
+        t.setCompleted(rnd.nextInt(3) == 0);
+        return t;
+    }
+
+    private static void assertSameFields(Task expected, Task actual) {
+        assertEquals(expected.getClass(), actual.getClass());
+        assertEquals(expected.getTitle(), actual.getTitle());
+        assertEquals(expected.getDescription(), actual.getDescription());
+        assertEquals(expected.getDueDate(), actual.getDueDate());
+        assertEquals(expected.getPriority(), actual.getPriority());
+        assertEquals(expected.isCompleted(), actual.isCompleted());
+        assertEquals(expected.getDetails(), actual.getDetails());
+    }
+
+    @Test
+    void testColumnsMatchTasksThroughEdits() {
+        Random rnd = new Random(9);
+        List<Task> expected = new ArrayList<>();
+        ColumnarTaskStore store = new ColumnarTaskStore();
+        for (int step = 0; step < 20000; step++) {
+            int op = rnd.nextInt(10);
+            if (expected.isEmpty() || op < 6) {
+                Task t = randomTask(rnd, step);
+                expected.add(t);
+                store.add(t);
+            } else if (op < 8) {
+                int row = rnd.nextInt(expected.size());
+                Task t = randomTask(rnd, step);
+                expected.set(row, t);
+                store.set(row, t);
+            } else {
+                int row = rnd.nextInt(expected.size());
+                expected.remove(row);
+                store.remove(row);
+            }
+        }
+        int removed = store.removeIf(r -> r.getDueEpochDay() % 7 == 0);
+        assertEquals(removed, expected.size() - store.size());
+        expected.removeIf(t -> t.getDueDate() != null && t.getDueDate().toEpochDay() % 7 == 0);
+
+        assertEquals(expected.size(), store.size());
+        ColumnarTaskStore.Row row = store.row();
+        for (int i = 0; i < expected.size(); i++) {
+            Task t = expected.get(i);
+            assertSameFields(t, store.toTask(i));
+            row.at(i);
+            assertEquals(t.getTitle(), row.getTitle());
+            assertEquals(t.getPriorityLevel(), row.getPriorityLevel());
+            assertEquals(t.getUrgencyKey(), row.getUrgencyKey());
+        }
+
+        // scans agree with the same question asked of the Task objects
+        LocalDate today = LocalDate.of(2025, 6, 1);
+        assertEquals(expected.stream().filter(t -> !t.isCompleted() && t.getDueDate() != null
+                && t.getDueDate().isBefore(today)).count(), store.countOverdue(today));
+        int[] byPriority = store.countByPriority();
+        for (Priority p : Priority.values()) {
+            assertEquals(expected.stream().filter(t -> t.getPriorityLevel() == p).count(), byPriority[p.ordinal()]);
+        }
+        int[] rows = store.rowsDueBetween(LocalDate.of(2025, 2, 1), LocalDate.of(2025, 2, 7));
+        assertEquals(expected.stream().filter(t -> t.getDueDate() != null && !t.getDueDate().isBefore(LocalDate.of(2025, 2, 1))
+                && !t.getDueDate().isAfter(LocalDate.of(2025, 2, 7))).count(), rows.length);
+        long minKey = expected.stream().mapToLong(Task::getUrgencyKey).min().getAsLong();
+        assertEquals(minKey, expected.get(store.mostUrgent()).getUrgencyKey());
+        assertTrue(store.bytesPerTask() > 0);
+    }
+}
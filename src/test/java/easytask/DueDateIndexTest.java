@@ -0,0 +1,101 @@
+package easytask;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DueDateIndexTest {
+
+    @TempDir
+    Path dir;
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 10, 15);
+
+    private static Task due(String title, LocalDate date) {
+        return new PersonalTask(title, "", date, "Medium", "Calm");
+    }
+
+    @Test
+    void testRangeAndOverdue() {
+        Task lastWeek = due("Last week", TODAY.minusDays(7));
+        Task yesterday = due("Yesterday", TODAY.minusDays(1));
+        Task today = due("Today", TODAY);
+        Task nextWeek = due("Next week", TODAY.plusDays(7));
+        Task undated = due("Someday", null);
+        DueDateIndex index = new DueDateIndex();
+        for (Task t : List.of(nextWeek, today, yesterday, lastWeek, undated)) index.add(t);
+
+        assertEquals(4, index.size());
+        assertEquals(List.of(yesterday, today), index.dueBetween(TODAY.minusDays(1), TODAY.plusDays(6)));
+        assertEquals(List.of(lastWeek, yesterday), index.overdue(TODAY));
+        assertEquals(2, index.overdueCount(TODAY));
+        assertTrue(index.dueBetween(TODAY, TODAY.minusDays(1)).isEmpty());
+
+        yesterday.setCompleted(true);
+        index.add(yesterday); // re-index with the new completed flag
+        assertEquals(1, index.overdueCount(TODAY));
+        assertEquals(List.of(lastWeek), index.overdue(TODAY));
+
+        lastWeek.setDueDate(TODAY.plusDays(30)); // moved in place, then removed
+        index.remove(lastWeek);
+        assertEquals(0, index.overdueCount(TODAY));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void testRunningOverdueCountMatchesScan() {
+        Random rnd = new Random(7);
+        DueDateIndex index = new DueDateIndex();
+        List<Task> tasks = new ArrayList<>();
+        LocalDate today = TODAY;
+        for (int step = 0; step < 20_000; step++) {
+            int op = rnd.nextInt(10);
+            if (op < 4 || tasks.isEmpty()) {
+                Task t = due("T" + step, (rnd.nextInt(20) == 0) ? null : TODAY.plusDays(rnd.nextInt(200) - 100));
+                t.setCompleted(rnd.nextInt(4) == 0);
+                tasks.add(t);
+                index.add(t);
+            } else if (op < 6) {
+                index.remove(tasks.remove(rnd.nextInt(tasks.size())));
+            } else if (op < 8) {
+                Task t = tasks.get(rnd.nextInt(tasks.size()));
+                t.setCompleted(!t.isCompleted());
+                index.add(t); // re-index after the edit, as TaskList does
+            } else {
+                today = (rnd.nextInt(5) == 0) ? TODAY.plusDays(rnd.nextInt(300) - 150) : today.plusDays(1);
+            }
+            LocalDate now = today;
+            long expected = tasks.stream()
+                    .filter(t -> !t.isCompleted() && t.getDueDate() != null && t.getDueDate().isBefore(now)).count();
+            assertEquals(expected, index.overdueCount(today), "step " + step);
+        }
+    }
+
+    @Test
+    void testTaskListKeepsDueIndexCurrent() {
+        TaskList list = new TaskList(dir.toFile());
+        list.setAsyncCommit(false);
+        Task a = due("A", TODAY.minusDays(2));
+        Task b = due("B", TODAY.plusDays(1));
+        list.addAll(List.of(a, b));
+        assertEquals(1, list.countOverdue(TODAY)); // builds the index
+
+        list.addTask(due("C", TODAY.minusDays(3)));
+        list.editTask(a, t -> t.setCompleted(true));
+        assertEquals(List.of("C"), list.getOverdueTasks(TODAY).stream().map(Task::getTitle).toList());
+
+        list.updateTask(list.indexOf(b), due("B2", TODAY.minusDays(1)));
+        list.removeByTitle("C");
+        assertEquals(1, list.countOverdue(TODAY));
+        assertEquals(List.of("A", "B2"),
+                list.getTasksDueBetween(TODAY.minusDays(7), TODAY).stream().map(Task::getTitle).toList());
+        list.close();
+    }
+}
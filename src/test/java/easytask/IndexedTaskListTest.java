@@ -0,0 +1,79 @@
+package easytask;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndexedTaskListTest {
+
+    @TempDir
+    Path dir;
+
+    private static Task task(int n) {
+        return new PersonalTask("T" + n, "", LocalDate.of(2025, 1, 1).plusDays(n % 365), "Low", "");
+    }
+
+    @Test
+    void testRandomOperationsMatchArrayList() {
+        Random rnd = new Random(7);
+        IndexedTaskList list = new IndexedTaskList();
+        List<Task> reference = new ArrayList<>();
+
+        for (int step = 0; step < 20000; step++) {
+            int op = rnd.nextInt(6);
+            if (op <= 1 || reference.isEmpty()) {
+                Task t = task(step);
+                list.add(t);
+                reference.add(t);
+            } else if (op == 2) {
+                int i = rnd.nextInt(reference.size());
+                assertSame(reference.remove(i), list.remove(i));
+            } else if (op == 3) {
+                Task t = reference.get(rnd.nextInt(reference.size()));
+                assertTrue(list.remove(t));
+                reference.remove(t);
+            } else if (op == 4) {
+                int i = rnd.nextInt(reference.size());
+                Task t = task(-step);
+                assertSame(reference.set(i, t), list.set(i, t));
+            } else {
+                Task t = reference.get(rnd.nextInt(reference.size()));
+                assertEquals(reference.indexOf(t), list.indexOf(t));
+            }
+            assertEquals(reference.size(), list.size());
+        }
+        assertEquals(reference, new ArrayList<>(list));
+        assertEquals(-1, list.indexOf(task(1)));
+
+        list.removeIf(t -> t.getTitle().hashCode() % 3 == 0);
+        reference.removeIf(t -> t.getTitle().hashCode() % 3 == 0);
+        assertEquals(reference, list);
+        for (int i = 0; i < reference.size(); i++) assertEquals(i, list.indexOf(reference.get(i)));
+    }
+
+    @Test
+    void testIndexOfTasksDecodedFromStore() throws Exception {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 50; i++) tasks.add(task(i));
+        File file = dir.resolve("tasks.ser").toFile();
+        TaskSnapshot.write(file, tasks, BinaryTaskCodec.INSTANCE, 0);
+
+        IndexedTaskList lazy = new IndexedTaskList(MappedTaskStore.open(file));
+        Task t40 = lazy.copy().get(40); // decoded through another view of the same store
+        lazy.remove(3);
+        assertEquals(39, lazy.indexOf(t40));
+        lazy.set(39, t40);
+        assertEquals(39, lazy.indexOf(t40));
+        assertTrue(lazy.remove(t40));
+        assertEquals(-1, lazy.indexOf(t40));
+        assertEquals(48, lazy.size());
+    }
+}
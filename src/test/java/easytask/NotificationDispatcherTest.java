@@ -0,0 +1,115 @@
+package easytask;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotificationDispatcherTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testBatchesReachEverySinkInOrder() throws Exception {
+        List<String> lines = new ArrayList<>();
+        NotificationSink collecting = (batch, count) -> {
+            LockSupport.parkNanos(1_000_000); // slow enough for the queue to fill up
+            String[] got = batch.toString().split("\n");
+            assertEquals(count, got.length);
+            lines.addAll(List.of(got));
+        };
+        NotificationSink failing = (batch, count) -> {
+            throw new IOException("offline");
+        };
+        Path log = dir.resolve("notifications.log");
+        NotificationDispatcher dispatcher = new NotificationDispatcher(
+                List.of(collecting, failing, NotificationSink.file(log)), 16, 50);
+
+        for (int i = 0; i < 2000; i++) { // blocks whenever 16 are waiting
+            dispatcher.submit((i % 2 == 0)
+                    ? new TaskReminder("T" + i, LocalDate.of(2025, 5, 1))
+                    : new MotivationalQuote("Q" + i));
+        }
+        dispatcher.flush();
+        assertEquals(2000, lines.size());
+        assertEquals(new TaskReminder("T0", LocalDate.of(2025, 5, 1)).sendNotification(), lines.get(0));
+        assertEquals(new MotivationalQuote("Q1999").sendNotification(), lines.get(1999));
+
+        List<NotificationDispatcher.SinkStats> stats = dispatcher.stats();
+        assertEquals(2000, stats.get(0).getNotifications());
+        assertTrue(stats.get(0).getBatches() < 2000, "notifications were batched");
+        assertEquals(0, stats.get(1).getNotifications());
+        assertEquals(stats.get(0).getBatches(), stats.get(1).getFailures());
+        dispatcher.close();
+        assertFalse(dispatcher.offer(new MotivationalQuote("late"), 1, TimeUnit.MILLISECONDS));
+        assertEquals(lines, Files.readAllLines(log, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testCloseDeliversEverySubmitThatReturned() throws Exception {
+        for (int round = 0; round < 20; round++) {
+            AtomicLong delivered = new AtomicLong();
+            NotificationSink counting = (batch, count) -> {
+                LockSupport.parkNanos(20_000);
+                delivered.addAndGet(count);
+            };
+            NotificationDispatcher dispatcher = new NotificationDispatcher(List.of(counting), 4, 8); // producers block
+            AtomicLong accepted = new AtomicLong();
+            List<Thread> producers = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                Thread producer = new Thread(() -> {
+                    try {
+                        while (true) {
+                            dispatcher.submit(new MotivationalQuote("Q"));
+                            accepted.incrementAndGet();
+                        }
+                    } catch (IllegalStateException closed) {
+                        // expected once close() ran
+                    }
+                });
+                producer.start();
+                producers.add(producer);
+            }
+            Thread.sleep(2);
+            dispatcher.close(); // races submits that passed the closed check, some blocked on the full queue
+            for (Thread producer : producers) {
+                producer.join(5000);
+                assertFalse(producer.isAlive(), "a submit blocked forever after close");
+            }
+            assertTimeoutPreemptively(Duration.ofSeconds(5), dispatcher::flush);
+            assertEquals(accepted.get(), delivered.get(), "round " + round);
+        }
+    }
+
+    @Test
+    void testSocketSink() throws Exception {
+        try (ServerSocket server = new ServerSocket(0)) {
+            NotificationDispatcher dispatcher = new NotificationDispatcher(
+                    List.of(NotificationSink.socket("localhost", server.getLocalPort())), 8, 8);
+            dispatcher.submit(new MotivationalQuote("Keep going"));
+            try (Socket client = server.accept();
+                 BufferedReader in = new BufferedReader(new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8))) {
+                assertEquals(new MotivationalQuote("Keep going").sendNotification(), in.readLine());
+                dispatcher.close();
+            }
+            assertEquals(1, dispatcher.stats().get(0).getNotifications());
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package easytask;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReminderSchedulerTest {
+
+    @TempDir
+    Path dir;
+
+    /** A clock the test moves by hand. */
+    private static final class ManualClock extends Clock {
+        Instant now;
+
+        ManualClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    private static Instant at(int year, int month, int day) {
+        return LocalDate.of(year, month, day).atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+
+    @Test
+    void testRemindersFollowTheList() {
+        TaskList list = new TaskList(dir.toFile());
+        list.setAsyncCommit(false);
+        ManualClock clock = new ManualClock(at(2025, 3, 1));
+        List<String> fired = new ArrayList<>();
+        ReminderScheduler reminders = new ReminderScheduler(list,
+                n -> fired.add(n.sendNotification()), Runnable::run, clock, Duration.ofDays(1));
+        Task essay = new SchoolTask("Essay", "", LocalDate.of(2025, 3, 10), "High", "ENGL202");
+        list.addTask(essay);
+        reminders.start();
+        assertEquals(1, reminders.pendingCount());
+
+        list.addTask(new PersonalTask("Yoga", "", LocalDate.of(2025, 3, 20), "Low", ""));
+        list.addTask(new PersonalTask("Tomorrow", "", LocalDate.of(2025, 3, 2), "Low", "")); // reminder time is now
+        list.addTask(new PersonalTask("Late", "", LocalDate.of(2025, 2, 1), "Low", ""));     // overdue: none
+        assertEquals(1, fired.size());
+        assertTrue(fired.get(0).contains("Tomorrow"));
+        assertEquals(2, reminders.pendingCount());
+
+        clock.now = at(2025, 3, 9).minusSeconds(60);
+        reminders.advance();
+        assertEquals(1, fired.size());
+        clock.now = at(2025, 3, 9);
+        reminders.advance();
+        assertEquals(2, fired.size());
+        assertTrue(fired.get(1).contains("Essay"));
+
+        // a new due date reschedules; deleting cancels
+        list.updateTask(1, new PersonalTask("Yoga", "", LocalDate.of(2025, 4, 1), "Low", ""));
+        clock.now = at(2025, 3, 25);
+        reminders.advance();
+        assertEquals(2, fired.size());
+        list.removeByTitle("Yoga");
+        assertEquals(0, reminders.pendingCount());
+        clock.now = at(2025, 5, 1);
+        reminders.advance();
+        assertEquals(2, fired.size());
+        reminders.close();
+        list.close();
+    }
+
+    @Test
+    void testWheelFiresInDueOrderAcrossLevels() {
+        TaskList list = new TaskList(dir.toFile());
+        list.setAsyncCommit(false);
+        ManualClock clock = new ManualClock(at(2025, 1, 1).plusSeconds(37 * 60)); // not on a wheel boundary
+        List<LocalDate> fired = new ArrayList<>();
+        List<Task> tasks = new ArrayList<>();
+        Random rnd = new Random(5);
+        for (int i = 0; i < 20000; i++) {
+            tasks.add(new PersonalTask("T" + i, "", LocalDate.of(2025, 1, 3).plusDays(rnd.nextInt(1500)), "Low", ""));
+        }
+        list.addAll(tasks);
+        ReminderScheduler reminders = new ReminderScheduler(list,
+                n -> fired.add(((TaskReminder) n).getDueDate()), Runnable::run, clock, Duration.ofHours(3));
+        reminders.start();
+        assertEquals(20000, reminders.pendingCount());
+
+        for (int step = 1; step <= 10; step++) { // years in a few jumps
+            clock.now = at(2025, 1, 1).plus(Duration.ofDays(160L * step));
+            reminders.advance();
+            for (LocalDate due : fired) {
+                assertTrue(due.atStartOfDay(ZoneOffset.UTC).minusHours(3).toInstant().compareTo(clock.now) <= 0);
+            }
+        }
+        assertEquals(20000, fired.size());
+        for (int i = 1; i < fired.size(); i++) assertFalse(fired.get(i).isBefore(fired.get(i - 1)));
+        assertEquals(0, reminders.pendingCount());
+        reminders.close();
+        list.close();
+    }
+}
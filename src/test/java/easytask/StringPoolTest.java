@@ -0,0 +1,60 @@
+package easytask;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StringPoolTest {
+
+    @Test
+    void testTagsAndPrioritiesAreShared() throws Exception {
+        SchoolTask a = new SchoolTask("A", "", LocalDate.of(2025, 1, 1), new String("High"), new String("IST261"));
+        SchoolTask b = new SchoolTask("B", "", LocalDate.of(2025, 1, 1), new String("High"), new String("IST261"));
+        assertSame(a.getCourseCode(), b.getCourseCode());
+        assertSame(Priority.HIGH.getLabel(), a.getPriority());
+        PersonalTask c = new PersonalTask("C", "", null, new String("urgent"), "Calm");
+        c.setMoodTag(new String("Calm"));
+        assertSame(new PersonalTask("D", "", null, new String("urgent"), new String("Calm")).getMoodTag(), c.getMoodTag());
+        assertEquals("urgent", c.getPriority()); // custom text is kept as typed, just shared
+
+        // Java serialization (tasks.ser) and the binary codec both come back canonical
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(a);
+        }
+        SchoolTask read;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            read = (SchoolTask) in.readObject();
+        }
+        assertSame(a.getCourseCode(), read.getCourseCode());
+        assertSame(a.getPriority(), read.getPriority());
+
+        BinaryTaskCodec codec = new BinaryTaskCodec();
+        bytes.reset();
+        codec.write(b, new DataOutputStream(bytes));
+        Task decoded = codec.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        assertSame(b.getCourseCode(), ((SchoolTask) decoded).getCourseCode());
+    }
+
+    @Test
+    void testPoolStaysBoundedAndCorrect() {
+        StringPool pool = new StringPool(16);
+        String first = pool.intern(new String("tag0"));
+        for (int i = 0; i < 1000; i++) { // far more distinct strings than slots
+            String s = "tag" + i;
+            assertEquals(s, pool.intern(new String(s)));
+        }
+        String again = pool.intern(new String("tag999"));
+        assertSame(again, pool.intern(new String("tag999"))); // recent ones are shared
+        assertEquals(first, pool.intern(new String("tag0"))); // evicted ones are still equal
+        assertNull(pool.intern(null));
+    }
+}
@@ -0,0 +1,57 @@
+package easytask;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskCodecTest {
+
+    private static Task roundTrip(TaskCodec codec, Task task) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        codec.write(task, new DataOutputStream(bytes));
+        return codec.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+
+    @Test
+    void testBinaryRoundTripSchoolTask() throws IOException {
+        SchoolTask in = new SchoolTask("Math HW", "Chapter 5 – exercises", LocalDate.of(2025, 8, 1), "High", "MATH101");
+        in.setCompleted(true);
+
+        Task out = roundTrip(BinaryTaskCodec.INSTANCE, in);
+        assertTrue(out instanceof SchoolTask);
+        assertEquals("Math HW", out.getTitle());
+        assertEquals("Chapter 5 – exercises", out.getDescription());
+        assertEquals(LocalDate.of(2025, 8, 1), out.getDueDate());
+        assertEquals("High", out.getPriority());
+        assertEquals("MATH101", ((SchoolTask) out).getCourseCode());
+        assertTrue(out.isCompleted());
+    }
+
+    @Test
+    void testBinaryKeepsCustomPriorityAndNulls() throws IOException {
+        PersonalTask in = new PersonalTask("Walk", null, null, "urgent!", null);
+
+        Task out = roundTrip(BinaryTaskCodec.INSTANCE, in);
+        assertTrue(out instanceof PersonalTask);
+        assertEquals("urgent!", out.getPriority());
+        assertNull(out.getDescription());
+        assertNull(out.getDueDate());
+        assertNull(((PersonalTask) out).getMoodTag());
+        assertFalse(out.isCompleted());
+    }
+
+    @Test
+    void testBinaryIsSmallerThanSerialization() throws IOException {
+        Task task = new PersonalTask("Meditation", "10 mins in the morning", LocalDate.of(2025, 8, 2), "Low", "Wellness");
+        ByteArrayOutputStream binary = new ByteArrayOutputStream();
+        ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+        BinaryTaskCodec.INSTANCE.write(task, new DataOutputStream(binary));
+        SerializationTaskCodec.INSTANCE.write(task, new DataOutputStream(serialized));
+
+        assertTrue(binary.size() * 4 < serialized.size());
+        assertEquals("Meditation", roundTrip(SerializationTaskCodec.INSTANCE, task).getTitle());
+    }
+}
@@ -0,0 +1,145 @@
+package easytask;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskHistoryTest {
+
+    @TempDir
+    Path dir;
+
+    private static Task task(String title, int day, String priority) {
+        return new PersonalTask(title, "", LocalDate.of(2025, 8, 1).plusDays(day), priority, "Calm");
+    }
+
+    private static List<String> titles(List<Task> tasks) {
+        List<String> out = new ArrayList<>();
+        for (Task t : tasks) out.add(t.getTitle());
+        return out;
+    }
+
+    @Test
+    void testPersistentVectorMatchesArrayListAndKeepsOldVersions() {
+        Random rnd = new Random(21);
+        List<Task> expected = new ArrayList<>();
+        PersistentTaskVector v = PersistentTaskVector.EMPTY;
+        List<PersistentTaskVector> versions = new ArrayList<>();
+        List<List<Task>> copies = new ArrayList<>();
+
+        for (int op = 0; op < 5000; op++) {
+            int r = rnd.nextInt(10);
+            if (r < 5 || expected.isEmpty()) {
+                int i = rnd.nextInt(expected.size() + 1);
+                Task t = task("T" + op, op % 30, "Low");
+                expected.add(i, t);
+                v = v.insert(i, t);
+            } else if (r < 7) {
+                int i = rnd.nextInt(expected.size());
+                Task t = task("S" + op, op % 30, "High");
+                expected.set(i, t);
+                v = v.set(i, t);
+            } else {
+                int i = rnd.nextInt(expected.size());
+                expected.remove(i);
+                v = v.remove(i);
+            }
+            if (op % 500 == 0) {
+                versions.add(v);
+                copies.add(new ArrayList<>(expected));
+            }
+        }
+
+        assertEquals(expected, v.toList());
+        assertEquals(expected, v.asList());
+        for (int k = 0; k < versions.size(); k++) {
+            assertEquals(copies.get(k), versions.get(k).toList()); // old versions are untouched
+        }
+        assertEquals(expected, PersistentTaskVector.of(expected).toList());
+        assertThrows(IndexOutOfBoundsException.class, () -> PersistentTaskVector.EMPTY.get(0));
+    }
+
+    @Test
+    void testUndoRedoRestoresPositions() {
+        TaskList list = new TaskList(dir.toFile());
+        TaskHistory history = new TaskHistory(list, 100);
+        Task a = task("A", 5, "Low");
+        Task b = task("B", 1, "High");
+        Task c = task("C", 3, "Medium");
+        history.execute(TaskHistory.add(a));
+        history.execute(TaskHistory.add(b));
+        history.execute(TaskHistory.add(c));
+        PersistentTaskVector before = history.snapshot();
+
+        Task b2 = task("B2", 2, "Low");
+        assertTrue(history.execute(TaskHistory.update(1, b2)));
+        assertTrue(history.execute(TaskHistory.delete(0)));
+        TaskHistory.Removal pop = TaskHistory.popMostUrgent();
+        assertTrue(history.execute(pop));
+        assertSame(c, pop.getRemoved());
+        assertEquals(List.of("B2"), titles(list.getAllTasks()));
+        assertEquals(List.of("B2"), titles(history.snapshot().toList()));
+        assertEquals(List.of("A", "B", "C"), titles(before.toList()));
+
+        assertEquals("Pop \"C\"", history.peekUndo());
+        assertTrue(history.undo());
+        assertTrue(history.undo());
+        assertEquals(List.of("A", "B2", "C"), titles(list.getAllTasks()));
+        assertTrue(history.undo());
+        assertEquals(List.of("A", "B", "C"), titles(list.getAllTasks()));
+        assertSame(b, list.getTask(1));
+        assertEquals(before.toList(), history.snapshot().toList());
+
+        assertTrue(history.redo());
+        assertTrue(history.redo());
+        assertEquals(List.of("B2", "C"), titles(list.getAllTasks()));
+        assertTrue(history.canRedo());
+
+        // a new command drops what was left to redo
+        assertTrue(history.execute(TaskHistory.deleteByTitle("C")));
+        assertFalse(history.canRedo());
+        assertFalse(history.redo());
+        assertTrue(history.undo());
+        assertEquals(List.of("B2", "C"), titles(list.getAllTasks()));
+    }
+
+    @Test
+    void testUndoOfVanishedTaskIsRefused() {
+        TaskList list = new TaskList(dir.toFile());
+        TaskHistory history = new TaskHistory(list, 2);
+        Task a = task("A", 1, "Low");
+        history.execute(TaskHistory.add(a));
+        list.removeTask(0); // changed behind the history's back
+        assertFalse(history.undo());
+        assertFalse(history.canUndo());
+
+        for (int i = 0; i < 5; i++) history.execute(TaskHistory.add(task("X" + i, i, "Low")));
+        assertTrue(history.undo());
+        assertTrue(history.undo());
+        assertFalse(history.undo()); // only the last two were kept
+        assertEquals(List.of("X0", "X1", "X2"), titles(list.getAllTasks()));
+    }
+
+    @Test
+    void testUndoneDeleteSurvivesReopen() {
+        TaskList list = new TaskList(dir.toFile());
+        TaskHistory history = new TaskHistory(list, 100);
+        history.execute(TaskHistory.add(task("A", 1, "Low")));
+        history.execute(TaskHistory.add(task("B", 2, "Low")));
+        history.execute(TaskHistory.add(task("C", 3, "Low")));
+        history.execute(TaskHistory.delete(1));
+        history.undo(); // journaled as an ADD at index 1
+        list.close();
+
+        TaskList reopened = new TaskList(dir.toFile());
+        assertEquals(List.of("A", "B", "C"), titles(reopened.getAllTasks()));
+        reopened.close();
+    }
+}
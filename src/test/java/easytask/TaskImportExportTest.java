@@ -0,0 +1,167 @@
+package easytask;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskImportExportTest {
+
+    @TempDir
+    Path dir;
+
+    private static List<Task> sampleTasks() {
+        List<Task> tasks = new ArrayList<>();
+        tasks.add(new SchoolTask("Essay, draft 2", "Quote: \"to be\"\nsecond line", LocalDate.of(2025, 8, 1), "High", "ENG101"));
+        PersonalTask run = new PersonalTask("Run 🏃", "5 km\tslow", null, "Low", "Energetic");
+        run.setCompleted(true);
+        tasks.add(run);
+        tasks.add(new SchoolTask("Lab", "", LocalDate.of(2026, 2, 28), "Urgent-ish", null));
+        tasks.add(new PersonalTask("Back\\slash", "ctrl \u0001 char", LocalDate.of(2025, 12, 31), "Medium", ""));
+        return tasks;
+    }
+
+    private static String describe(Task t) {
+        String tag = (t instanceof SchoolTask s) ? "school:" + s.getCourseCode() : "personal:" + ((PersonalTask) t).getMoodTag();
+        return String.join("|", t.getTitle(), t.getDescription(), String.valueOf(t.getDueDate()),
+                t.getPriority(), String.valueOf(t.isCompleted()), tag);
+    }
+
+    private static List<String> describeAll(List<Task> tasks) {
+        List<String> out = new ArrayList<>();
+        for (Task t : tasks) out.add(describe(t));
+        return out;
+    }
+
+    @Test
+    void testRoundTripThroughTaskList() throws Exception {
+        for (String name : new String[] {"tasks.csv", "tasks.jsonl"}) {
+            Path file = dir.resolve(name);
+            assertEquals(4, TaskExporter.export(sampleTasks(), file, TaskFileFormat.forPath(file)));
+
+            TaskList list = new TaskList(dir.resolve("store-" + name).toFile());
+            TaskImporter.Result result = TaskImporter.importInto(list, file);
+            assertEquals(4, result.getRows());
+            assertEquals(0, result.getSkipped());
+
+            List<String> expected = describeAll(sampleTasks());
+            // CSV cannot tell a missing course code from an empty one
+            if (name.endsWith(".csv")) expected.set(2, expected.get(2).replace("school:null", "school:"));
+            assertEquals(expected, describeAll(list.getAllTasks()), name);
+
+            Path again = dir.resolve("again-" + name);
+            TaskExporter.export(list, again, TaskFileFormat.forPath(again));
+            if (name.endsWith(".jsonl")) assertEquals(Files.readString(file), Files.readString(again));
+            list.close();
+        }
+    }
+
+    @Test
+    void testCsvHeaderOrderBomCrlfAndBadRows() throws Exception {
+        Path file = dir.resolve("in.csv");
+        String csv = "﻿title,priority,dueDate,type,extra,moodTag\r\n"
+                + "A,High,2025-08-01,School,x,\r\n"
+                + "\r\n"
+                + "B,Low,not-a-date,Personal,x,Calm\r\n"
+                + "\"C \"\"quoted\"\"\",Low,,Personal,x,Calm\r\n"
+                + "D,Low,,Alien,x,\r\n"
+                + "\"E\"junk,Low,,School,x,\r\n"
+                + "F,Medium,2025-02-30,School,x,\r\n"
+                + "G,Medium,,Personal,x,Happy";
+        Files.writeString(file, csv, StandardCharsets.UTF_8);
+
+        List<Task> out = new ArrayList<>();
+        TaskImporter.Result result;
+        try (TaskImporter in = new TaskImporter(file, TaskFileFormat.CSV)) {
+            result = in.readBatches(2, out::addAll, null);
+        }
+        assertEquals(List.of("A", "C \"quoted\"", "G"), out.stream().map(Task::getTitle).toList());
+        assertEquals(3, result.getRows());
+        assertEquals(4, result.getSkipped());
+        assertEquals("Happy", ((PersonalTask) out.get(2)).getMoodTag());
+        assertEquals(LocalDate.of(2025, 8, 1), out.get(0).getDueDate());
+    }
+
+    @Test
+    void testCsvWithoutHeaderAndJsonEdgeCases() throws Exception {
+        Path csv = dir.resolve("plain.csv");
+        Files.writeString(csv, "Personal,Walk,,,Low,true,,Calm\nSchool,Quiz,,2025-09-09,High,false,CS101,\n");
+        List<Task> out = new ArrayList<>();
+        try (TaskImporter in = new TaskImporter(csv, TaskFileFormat.CSV)) {
+            in.readBatches(10, out::addAll, null);
+        }
+        assertEquals(List.of("Walk", "Quiz"), out.stream().map(Task::getTitle).toList());
+        assertTrue(out.get(0).isCompleted());
+
+        Path jsonl = dir.resolve("in.jsonl");
+        Files.writeString(jsonl, String.join("\n",
+                "  { \"title\" : \"A\\u00e9\\/\", \"type\":\"Personal\", \"n\": 12, \"moodTag\":null }  ",
+                "   ",
+                "{\"title\":\"broken\"",
+                "{\"title\":\"B\",\"completed\":true} trailing",
+                "{\"title\":\"C\",\"completed\":true}",
+                ""));
+        out.clear();
+        TaskImporter.Result result;
+        try (TaskImporter in = new TaskImporter(jsonl, TaskFileFormat.JSON_LINES)) {
+            result = in.readBatches(10, out::addAll, null);
+        }
+        assertEquals(List.of("Aé/", "C"), out.stream().map(Task::getTitle).toList());
+        assertInstanceOf(PersonalTask.class, out.get(0));
+        assertTrue(out.get(1).isCompleted());
+        assertEquals(2, result.getSkipped());
+    }
+
+    @Test
+    void testImportedTaskWithoutDueDateOpensInDetailView() throws Exception {
+        Path csv = dir.resolve("undated.csv");
+        Files.writeString(csv, "Personal,Walk,,,Low,false,,Calm\n");
+        TaskList list = new TaskList(dir.resolve("store").toFile());
+        TaskImporter.importInto(list, csv);
+        Task walk = list.getByTitle("Walk");
+        assertNull(walk.getDueDate());
+
+        // what "Show Details" puts in the due date field, and reads back on Save
+        String shown = TaskDetailUI.dueDateText(walk);
+        assertEquals("", shown);
+        assertNull(TaskDetailUI.parseDueDate(shown));
+        assertEquals(LocalDate.of(2025, 9, 9), TaskDetailUI.parseDueDate(" 2025-09-09 "));
+        list.close();
+    }
+
+    @Test
+    void testStreamsAcrossBufferBoundaries() throws Exception {
+        int n = 50_000;
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            tasks.add(new SchoolTask("Task ñ " + i, "desc, \"" + i + "\"", LocalDate.of(2025, 1, 1).plusDays(i % 365),
+                    (i % 3 == 0) ? "High" : "Low", "C" + (i % 10)));
+        }
+        for (TaskFileFormat format : TaskFileFormat.values()) {
+            Path file = dir.resolve("big." + format);
+            TaskExporter.export(tasks, file, format);
+            long[] seen = {0};
+            List<TaskImporter.Result> progress = new ArrayList<>();
+            TaskImporter.Result result;
+            try (TaskImporter in = new TaskImporter(file, format)) {
+                result = in.readBatches(4096, batch -> {
+                    for (Task t : batch) {
+                        assertEquals("Task ñ " + seen[0], t.getTitle());
+                        seen[0]++;
+                    }
+                }, progress::add);
+            }
+            assertEquals(n, result.getRows());
+            assertEquals(n, seen[0]);
+            assertEquals((n + 4095) / 4096, progress.size());
+            assertTrue(result.getRowsPerSecond() > 0);
+        }
+    }
+}
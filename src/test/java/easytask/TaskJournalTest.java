@@ -0,0 +1,143 @@
+package easytask;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskJournalTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testReplayAppliesRecordsInOrder() throws Exception {
+        String base = dir.resolve("tasks.journal").toString();
+        TaskJournal journal = new TaskJournal(base);
+        journal.open(0);
+        journal.append(TaskJournal.ADD, 0, new SchoolTask("A", "d", LocalDate.of(2025, 8, 1), "High", "MATH101"));
+        journal.append(TaskJournal.ADD, 1, new PersonalTask("B", "d", LocalDate.of(2025, 8, 2), "Low", "Calm"));
+        journal.append(TaskJournal.UPDATE, 0, new SchoolTask("A2", "d", LocalDate.of(2025, 8, 3), "Medium", "IST261"));
+        journal.append(TaskJournal.REMOVE, 1, null);
+        journal.close();
+
+        List<Task> replayed = new ArrayList<>();
+        new TaskJournal(base).replay(0, replayed);
+        assertEquals(1, replayed.size());
+        assertEquals("A2", replayed.get(0).getTitle());
+    }
+
+    @Test
+    void testRollAndDeleteBefore() throws Exception {
+        String base = dir.resolve("tasks.journal").toString();
+        TaskJournal journal = new TaskJournal(base);
+        journal.open(0);
+        journal.append(TaskJournal.ADD, 0, new PersonalTask("Old", "d", LocalDate.of(2025, 8, 1), "Low", "Calm"));
+        long gen = journal.roll();
+        journal.append(TaskJournal.ADD, 0, new PersonalTask("New", "d", LocalDate.of(2025, 8, 1), "Low", "Calm"));
+        journal.deleteBefore(gen);
+        journal.close();
+
+        assertFalse(new File(base + ".0").exists());
+        List<Task> replayed = new ArrayList<>();
+        new TaskJournal(base).replay(gen, replayed);
+        assertEquals(1, replayed.size());
+        assertEquals("New", replayed.get(0).getTitle());
+    }
+
+    @Test
+    void testCommitOnlySyncsNewRecords() throws Exception {
+        TaskJournal journal = new TaskJournal(dir.resolve("tasks.journal").toString());
+        journal.open(0);
+        journal.append(TaskJournal.ADD, 0, new PersonalTask("A", "d", LocalDate.of(2025, 8, 1), "Low", "Calm"));
+        journal.append(TaskJournal.ADD, 1, new PersonalTask("B", "d", LocalDate.of(2025, 8, 1), "Low", "Calm"));
+        journal.commit();
+        journal.commit(); // nothing new: no fsync
+        assertEquals(1, journal.syncCount());
+        journal.append(TaskJournal.REMOVE, 0, null);
+        journal.commit();
+        assertEquals(2, journal.syncCount());
+        journal.close();
+    }
+
+    @Test
+    void testConcurrentCommitsInsideWindowShareOneSync() throws Exception {
+        String base = dir.resolve("tasks.journal").toString();
+        TaskJournal journal = new TaskJournal(base);
+        journal.open(0);
+        journal.setCommitWindow(300);
+        int writers = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(writers);
+        try {
+            List<Future<?>> done = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                String title = "W" + w;
+                done.add(pool.submit(() -> {
+                    start.await();
+                    journal.append(TaskJournal.ADD, Integer.MAX_VALUE, new PersonalTask(title, "d", LocalDate.of(2025, 8, 1), "Low", "Calm"));
+                    journal.commit(); // waits in the window for the others, or finds its record already synced
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> f : done) f.get();
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(1, journal.syncCount());
+        journal.close();
+
+        List<Task> replayed = new ArrayList<>();
+        new TaskJournal(base).replay(0, replayed);
+        assertEquals(writers, replayed.size());
+    }
+
+    @Test
+    void testReplayStopsAtCorruptRecordAndSetsLaterSegmentsAside() throws Exception {
+        String base = dir.resolve("tasks.journal").toString();
+        for (int bad : new int[] {Integer.MAX_VALUE, -7}) { // would have been an OutOfMemoryError / NegativeArraySizeException
+            for (File f : dir.toFile().listFiles()) assertTrue(f.delete());
+            TaskJournal journal = new TaskJournal(base);
+            journal.open(0);
+            journal.append(TaskJournal.ADD, 0, new PersonalTask("A", "d", LocalDate.of(2025, 8, 1), "Low", "Calm"));
+            journal.append(TaskJournal.ADD, 1, new PersonalTask("B", "d", LocalDate.of(2025, 8, 2), "Low", "Calm"));
+            journal.append(TaskJournal.ADD, 2, new PersonalTask("C", "d", LocalDate.of(2025, 8, 3), "Low", "Calm"));
+            journal.roll();
+            journal.append(TaskJournal.REMOVE, 0, null); // builds on B and C, which will be lost
+            journal.close();
+
+            File first = new File(base + ".0");
+            long goodBytes;
+            try (RandomAccessFile raf = new RandomAccessFile(first, "rw")) {
+                raf.seek(2 + 5);
+                goodBytes = 2 + 9 + raf.readInt(); // header + record A
+                raf.seek(goodBytes + 5);
+                raf.writeInt(bad); // length of record B
+            }
+
+            List<Task> replayed = new ArrayList<>();
+            new TaskJournal(base).replay(0, replayed);
+            assertEquals(List.of("A"), replayed.stream().map(Task::getTitle).toList());
+            assertEquals(goodBytes, first.length());
+            assertFalse(new File(base + ".1").exists());
+            String[] aside = dir.toFile().list((d, name) -> name.contains(".orphaned-"));
+            assertEquals(2, aside.length); // the damaged segment as it was, and the one after it
+
+            replayed.clear();
+            new TaskJournal(base).replay(0, replayed); // the cut-back journal replays cleanly
+            assertEquals(1, replayed.size());
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package easytask;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskListConcurrencyTest {
+
+    @TempDir
+    Path dir;
+
+    private static Task task(String title, int day, String priority) {
+        return new SchoolTask(title, "stress", LocalDate.of(2025, 1, 1).plusDays(day), priority, "IST261");
+    }
+
+    @Test
+    void testConcurrentWritersAndReadersKeepStructuresConsistent() throws Exception {
+        TaskList list = new TaskList(dir.toFile());
+        int writers = 4;
+        int perWriter = 500;
+        String[] priorities = {"High", "Medium", "Low"};
+        ExecutorService pool = Executors.newFixedThreadPool(writers + 2);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CountDownLatch writersDone = new CountDownLatch(writers);
+
+        for (int w = 0; w < writers; w++) {
+            int id = w;
+            pool.execute(() -> {
+                try {
+                    ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                    for (int i = 0; i < perWriter; i++) {
+                        String title = "W" + id + "-" + i;
+                        list.addTask(task(title, rnd.nextInt(365), priorities[rnd.nextInt(3)]));
+                        if (i % 5 == 0) list.removeByTitle("W" + id + "-" + (i / 2));
+                        if (i % 7 == 0) {
+                            Task t = list.getByTitle(title);
+                            String priority = priorities[rnd.nextInt(3)];
+                            if (t != null) list.editTask(t, e -> e.setPriority(priority));
+                        }
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    writersDone.countDown();
+                }
+            });
+        }
+        for (int r = 0; r < 2; r++) {
+            pool.execute(() -> {
+                try {
+                    while (writersDone.getCount() > 0) {
+                        List<Task> snapshot = list.getAllTasks();
+                        for (Task t : snapshot) assertNotNull(t.getTitle()); // snapshot never changes under us
+                        list.peekMostUrgent();
+                        list.getByTitle("W0-10");
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(60, TimeUnit.SECONDS));
+        assertNull(failure.get());
+
+        // index agrees with the list
+        List<Task> all = list.getAllTasks();
+        for (Task t : all) assertSame(t, list.getByTitle(t.getTitle()));
+
+        // queue holds exactly the listed tasks, in urgency order
+        List<Task> popped = new ArrayList<>();
+        Task t;
+        while ((t = list.popMostUrgent()) != null) popped.add(t);
+        assertEquals(all.size(), popped.size());
+        for (int i = 1; i < popped.size(); i++) {
+            assertTrue(popped.get(i - 1).getUrgencyKey() <= popped.get(i).getUrgencyKey());
+        }
+        assertTrue(list.getAllTasks().isEmpty());
+    }
+}
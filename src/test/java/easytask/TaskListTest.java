@@ -4,8 +4,15 @@
 package easytask;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -52,4 +59,226 @@ class TaskListTest {
         taskList.removeTask(t1);
         assertEquals(0, taskList.getAllTasks().size());
     }
+
+    @Test
+    void testChangeEventsCarryIndices(@TempDir Path dir) {
+        TaskList taskList = new TaskList(dir.toFile());
+        List<String> events = new ArrayList<>();
+        taskList.addListener(new TaskListListener() {
+            @Override
+            public void taskInserted(int index, Task task) { events.add("insert " + index + " " + task.getTitle()); }
+
+            @Override
+            public void taskUpdated(int index, Task oldTask, Task newTask) { events.add("update " + index + " " + newTask.getTitle()); }
+
+            @Override
+            public void taskDeleted(int index, Task task) { events.add("delete " + index + " " + task.getTitle()); }
+        });
+
+        taskList.addTask(new SchoolTask("A", "", LocalDate.of(2025, 8, 1), "Low", "IST261"));
+        taskList.addTask(new SchoolTask("B", "", LocalDate.of(2025, 8, 2), "High", "IST261"));
+        taskList.updateTask(0, new PersonalTask("A2", "", LocalDate.of(2025, 8, 3), "Low", "Calm"));
+        taskList.popMostUrgent();
+        taskList.removeByTitle("A2");
+
+        assertEquals(List.of("insert 0 A", "insert 1 B", "update 0 A2", "delete 1 B", "delete 0 A2"), events);
+    }
+
+    @Test
+    void testBatchCommitsJournalOnce(@TempDir Path dir) {
+        TaskList taskList = new TaskList(dir.toFile());
+        taskList.setAsyncCommit(false); // commits run on this thread, so they can be counted right away
+        taskList.addTask(new PersonalTask("First", "", LocalDate.of(2025, 8, 1), "Low", "Calm"));
+        long syncs = taskList.journalSyncCount();
+
+        taskList.batch(() -> {
+            for (int i = 0; i < 50; i++) {
+                taskList.addTask(new SchoolTask("B" + i, "", LocalDate.of(2025, 8, 1).plusDays(i), "High", "IST261"));
+            }
+            taskList.updateTask(0, new PersonalTask("First2", "", LocalDate.of(2025, 8, 2), "Low", "Calm"));
+            taskList.removeByTitle("B7");
+        });
+        assertEquals(syncs + 1, taskList.journalSyncCount());
+
+        List<Task> more = new ArrayList<>();
+        for (int i = 0; i < 100; i++) more.add(new PersonalTask("M" + i, "", null, "Medium", "Calm"));
+        taskList.addAll(more);
+        assertEquals(syncs + 2, taskList.journalSyncCount());
+
+        taskList.beginBatch();
+        taskList.addAll(more.subList(0, 10)); // nested: only the outermost endBatch commits
+        taskList.removeAll(more.subList(0, 5));
+        assertEquals(syncs + 2, taskList.journalSyncCount());
+        taskList.endBatch();
+        assertEquals(syncs + 3, taskList.journalSyncCount());
+        taskList.close();
+    }
+
+    @Test
+    void testCommitWindowSurvivesReload(@TempDir Path dir) {
+        TaskList taskList = new TaskList(dir.toFile());
+        taskList.setAsyncCommit(false);
+        taskList.setCommitWindow(300);
+        taskList.loadFromFile(); // opens a new journal
+
+        long start = System.nanoTime();
+        taskList.addTask(new PersonalTask("A", "", null, "Low", "Calm")); // commits on this thread
+        assertTrue(System.nanoTime() - start >= 250_000_000L, "the commit did not wait for its window");
+        taskList.close();
+    }
+
+    @Test
+    void testRemoveAllReplaysToSameList(@TempDir Path dir) {
+        TaskList taskList = new TaskList(dir.toFile());
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            tasks.add(new SchoolTask("T" + i, "", LocalDate.of(2025, 8, 1).plusDays(i % 9), (i % 2 == 0) ? "High" : "Low", "IST261"));
+        }
+        taskList.addAll(tasks);
+        taskList.saveToFile();
+
+        // scattered positions, in no particular order, with a repeat and a task that is not listed
+        List<Task> doomed = new ArrayList<>(List.of(tasks.get(31), tasks.get(2), tasks.get(17), tasks.get(0),
+                tasks.get(39), tasks.get(18), tasks.get(2)));
+        doomed.add(new SchoolTask("T5", "", LocalDate.of(2025, 8, 1), "High", "IST261")); // equal title, other instance
+        assertEquals(6, taskList.removeAll(doomed));
+        List<String> expected = titles(taskList.getAllTasks());
+        assertEquals(34, expected.size());
+        assertFalse(expected.contains("T17"));
+        assertTrue(expected.contains("T5"));
+        taskList.close();
+
+        TaskList reopened = new TaskList(dir.toFile()); // snapshot + REMOVE records replayed one by one
+        assertEquals(expected, titles(reopened.getAllTasks()));
+        reopened.close();
+    }
+
+    @Test
+    void testUnencodableTaskDoesNotShiftJournalRecords(@TempDir Path dir) {
+        TaskList taskList = new TaskList(dir.toFile());
+        taskList.setAsyncCommit(false);
+        taskList.addTask(new SchoolTask("A", "", LocalDate.of(2025, 8, 1), "Low", "IST261"));
+        Task custom = new Task("X", "Desc", LocalDate.of(2025, 8, 2), "High") { // the binary codec cannot encode it
+            @Override
+            public String getDetails() {
+                return null;
+            }
+        };
+        taskList.insertTask(0, custom);
+        taskList.addTask(new SchoolTask("B", "", LocalDate.of(2025, 8, 3), "Low", "IST261"));
+        assertEquals(List.of("X", "A", "B"), titles(taskList.getAllTasks())); // kept in memory all along
+        taskList.removeTask(custom); // a journaled REMOVE at 0 would now take A with it
+        taskList.addTask(new PersonalTask("C", "", null, "Low", "Calm"));
+        taskList.close();
+
+        TaskList reopened = new TaskList(dir.toFile());
+        assertEquals(List.of("A", "B", "C"), titles(reopened.getAllTasks()));
+        reopened.addTask(new PersonalTask("D", "", null, "Low", "Calm")); // journaling resumed
+        reopened.close();
+        assertEquals(List.of("A", "B", "C", "D"), titles(new TaskList(dir.toFile()).getAllTasks()));
+    }
+
+    @Test
+    void testDuplicateTitlesKeepTheIndexedTask(@TempDir Path dir) {
+        TaskList taskList = new TaskList(dir.toFile());
+        Task first = new SchoolTask("Dup", "", LocalDate.of(2025, 8, 1), "High", "IST261"); // most urgent
+        Task second = new PersonalTask("Dup", "", LocalDate.of(2025, 8, 9), "Low", "Calm");
+        Task third = new PersonalTask("Dup", "", LocalDate.of(2025, 8, 8), "Low", "Calm");
+        Task fourth = new PersonalTask("Dup", "", LocalDate.of(2025, 8, 7), "Low", "Calm");
+        Task last = new PersonalTask("Dup", "", LocalDate.of(2025, 8, 6), "Medium", "Calm");
+        for (Task t : List.of(first, second, third, fourth, last)) taskList.addTask(t);
+        assertSame(last, taskList.getByTitle("Dup")); // the latest one wins
+
+        assertSame(first, taskList.popMostUrgent());
+        assertSame(last, taskList.getByTitle("Dup"));
+        taskList.removeTask(second);
+        assertSame(last, taskList.getByTitle("Dup"));
+        taskList.removeTask(taskList.indexOf(third));
+        assertSame(last, taskList.getByTitle("Dup"));
+        taskList.updateTask(taskList.indexOf(fourth), new PersonalTask("Other", "", null, "Low", "Calm"));
+        assertSame(last, taskList.getByTitle("Dup"));
+        assertNotNull(taskList.getByTitle("Other"));
+
+        taskList.removeTask(last);
+        assertNull(taskList.getByTitle("Dup"));
+        taskList.close();
+    }
+
+    @Test
+    void testEditTaskIgnoresUnlistedTask(@TempDir Path dir) {
+        TaskList taskList = new TaskList(dir.toFile());
+        Task kept = new SchoolTask("Kept", "", LocalDate.of(2025, 8, 1), "Low", "IST261");
+        Task removed = new SchoolTask("Removed", "", LocalDate.of(2025, 8, 2), "Low", "IST261");
+        taskList.addTask(kept);
+        taskList.addTask(removed);
+        assertNotNull(taskList.getByTitle("Removed")); // builds the title index
+        taskList.removeTask(removed);
+
+        taskList.editTask(removed, t -> {
+            t.setTitle("Renamed");
+            t.setPriority("High");
+        });
+
+        assertEquals("Removed", removed.getTitle());
+        assertNull(taskList.getByTitle("Renamed"));
+        assertNull(taskList.getByTitle("Removed"));
+        assertSame(kept, taskList.peekMostUrgent());
+        assertEquals(1, taskList.size());
+
+        taskList.editTask(kept, t -> t.setTitle("Kept2"));
+        assertSame(kept, taskList.getByTitle("Kept2"));
+        assertNull(taskList.getByTitle("Kept"));
+    }
+
+    @Test
+    void testPreloadMatchesLazyBuild(@TempDir Path dir) throws Exception {
+        Path lazyDir = Files.createDirectory(dir.resolve("lazy"));
+        Path preloadDir = Files.createDirectory(dir.resolve("preload"));
+        TaskList writer = new TaskList(lazyDir.toFile());
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 40_000; i++) {
+            String title = (i % 1000 == 0) ? "Repeat " + (i % 3) : "Task " + i; // duplicates: the last one wins
+            tasks.add(i % 2 == 0
+                    ? new SchoolTask(title, "chapter " + (i % 50), LocalDate.of(2025, 1, 1).plusDays(i % 400), (i % 3 == 0) ? "High" : "Low", "IST" + (i % 7))
+                    : new PersonalTask(title, "walk " + (i % 50), LocalDate.of(2025, 1, 1).plusDays(i % 300), "Medium", "Calm"));
+        }
+        writer.addAll(tasks);
+        writer.saveToFile();
+        writer.close();
+        Files.copy(lazyDir.resolve("tasks.ser"), preloadDir.resolve("tasks.ser"));
+
+        TaskList lazy = new TaskList(lazyDir.toFile());
+        TaskList preloaded = new TaskList(preloadDir.toFile());
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            preloaded.preload(pool);
+        } finally {
+            pool.shutdown();
+        }
+
+        for (int r = 0; r < 3; r++) {
+            Task expected = lazy.getByTitle("Repeat " + r);
+            Task actual = preloaded.getByTitle("Repeat " + r);
+            assertEquals(lazy.indexOf(expected), preloaded.indexOf(actual));
+        }
+        assertSame(preloaded.getTask(12_345), preloaded.getByTitle("Task 12345")); // one instance per record
+        assertEquals(titles(lazy.search("chapter 7", 20)), titles(preloaded.search("chapter 7", 20)));
+        assertEquals(lazy.getTasksDueBetween(LocalDate.of(2025, 2, 1), LocalDate.of(2025, 2, 3)).size(),
+                preloaded.getTasksDueBetween(LocalDate.of(2025, 2, 1), LocalDate.of(2025, 2, 3)).size());
+        assertEquals(lazy.countWhere(Map.of("courseCode", "IST3")), preloaded.countWhere(Map.of("courseCode", "IST3")));
+        for (int i = 0; i < 50; i++) {
+            Task a = lazy.popMostUrgent();
+            Task b = preloaded.popMostUrgent();
+            assertEquals(a.getUrgencyKey(), b.getUrgencyKey());
+        }
+        assertEquals(lazy.size(), preloaded.size());
+        lazy.close();
+        preloaded.close();
+    }
+
+    private static List<String> titles(List<Task> tasks) {
+        List<String> out = new ArrayList<>();
+        for (Task t : tasks) out.add(t.getTitle());
+        return out;
+    }
 }
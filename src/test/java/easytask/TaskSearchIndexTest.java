@@ -0,0 +1,66 @@
+package easytask;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskSearchIndexTest {
+
+    @TempDir
+    Path dir;
+
+    private final Task calculus = new SchoolTask("Calculus homework", "Integrals chapter 5", LocalDate.of(2025, 3, 1), "High", "MATH220");
+    private final Task essay = new SchoolTask("Essay draft", "Compare calculus and algebra textbooks", LocalDate.of(2025, 3, 2), "Low", "ENGL202");
+    private final Task gym = new PersonalTask("Gym", "Leg day", LocalDate.of(2025, 3, 3), "Medium", "Motivated");
+
+    @Test
+    void testPrefixAndRanking() {
+        TaskSearchIndex index = new TaskSearchIndex();
+        index.add(calculus);
+        index.add(essay);
+        index.add(gym);
+
+        assertEquals(List.of(calculus, essay), index.search("calc", 10)); // title hit outranks description hit
+        assertEquals(List.of(calculus), index.search("MATH220", 10));
+        assertEquals(List.of(gym), index.search("motiv", 10));
+        assertEquals(List.of(essay), index.search("calculus ALGEBRA", 10)); // every word must match
+        assertEquals(List.of(calculus), index.search("calc", 1));
+        assertTrue(index.search("physics", 10).isEmpty());
+        assertTrue(index.search("  ", 10).isEmpty());
+    }
+
+    @Test
+    void testRemoveAfterInPlaceEdit() {
+        TaskSearchIndex index = new TaskSearchIndex();
+        index.add(gym);
+        gym.setTitle("Swimming"); // edited without telling the index
+        index.remove(gym);
+        assertTrue(index.search("gym", 10).isEmpty());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void testTaskListKeepsSearchIndexCurrent() {
+        TaskList list = new TaskList(dir.toFile());
+        list.setAsyncCommit(false);
+        list.addAll(List.of(calculus, essay));
+        assertEquals(List.of(calculus, essay), list.search("calculus", 10)); // builds the index
+
+        list.addTask(gym);
+        list.editTask(calculus, t -> t.setTitle("Limits worksheet"));
+        list.removeByTitle("Essay draft");
+        assertTrue(list.search("calculus", 10).isEmpty());
+        assertEquals(List.of(calculus), list.search("limits", 10));
+        assertEquals(List.of(gym), list.search("leg", 10));
+
+        list.updateTask(list.indexOf(gym), new PersonalTask("Yoga", "Stretching", null, "Low", "Calm"));
+        assertTrue(list.search("gym", 10).isEmpty());
+        assertEquals(1, list.search("yoga", 10).size());
+        list.close();
+    }
+}
@@ -0,0 +1,180 @@
+package easytask;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskSnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    private static List<Task> sampleTasks(int n) {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            tasks.add(i % 2 == 0
+                    ? new SchoolTask("School " + i, "desc", LocalDate.of(2025, 8, 1).plusDays(i), "High", "IST261")
+                    : new PersonalTask("Personal " + i, "desc", LocalDate.of(2025, 8, 1).plusDays(i), "Low", "Calm"));
+        }
+        return tasks;
+    }
+
+    @Test
+    void testMappedStoreReadsRecordsOnDemand() throws Exception {
+        File file = dir.resolve("tasks.ser").toFile();
+        TaskSnapshot.write(file, sampleTasks(100), BinaryTaskCodec.INSTANCE, 7);
+
+        MappedTaskStore store = MappedTaskStore.open(file);
+        assertEquals(100, store.size());
+        assertEquals(7, store.nextGen());
+        assertEquals("Personal 57", store.read(57).getTitle());
+
+        TaskSnapshot eager = TaskSnapshot.read(file);
+        assertEquals(100, eager.getTasks().size());
+        assertEquals("School 98", eager.getTasks().get(98).getTitle());
+    }
+
+    @Test
+    void testLazyListEditsSurviveRewrite() throws Exception {
+        File file = dir.resolve("tasks.ser").toFile();
+        TaskSnapshot.write(file, sampleTasks(10), BinaryTaskCodec.INSTANCE, 0);
+
+        IndexedTaskList lazy = new IndexedTaskList(MappedTaskStore.open(file));
+        lazy.remove(0);
+        lazy.set(2, new PersonalTask("Edited", "desc", LocalDate.of(2025, 9, 1), "Medium", "Happy"));
+        lazy.add(new SchoolTask("Added", "desc", LocalDate.of(2025, 9, 2), "High", "MATH101"));
+
+        File rewritten = dir.resolve("tasks2.ser").toFile();
+        TaskSnapshot.write(rewritten, lazy, BinaryTaskCodec.INSTANCE, 1);
+        List<Task> reloaded = TaskSnapshot.read(rewritten).getTasks();
+        assertEquals(10, reloaded.size());
+        assertEquals("Personal 1", reloaded.get(0).getTitle());
+        assertEquals("Edited", reloaded.get(2).getTitle());
+        assertEquals("Added", reloaded.get(9).getTitle());
+    }
+
+    private static void flipByte(File file, long position) throws Exception {
+        long modified = file.lastModified();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(position);
+            int b = raf.read();
+            raf.seek(position);
+            raf.write(b ^ 0x5A);
+        }
+        file.setLastModified(modified);
+    }
+
+    @Test
+    void testAtomicWriteAndWarmRestartTrustsRecordedChecksum() throws Exception {
+        File file = dir.resolve("tasks.ser").toFile();
+        File tmp = dir.resolve("tasks.ser.tmp").toFile();
+        Files.writeString(tmp.toPath(), "left over from a crash mid-write");
+        TaskSnapshot.write(file, sampleTasks(50), BinaryTaskCodec.INSTANCE, 3);
+        assertFalse(tmp.exists());
+        assertTrue(new File(file.getPath() + ".verified").exists());
+        assertEquals(50, MappedTaskStore.open(file).size());
+
+        // unchanged length, checksum and timestamp: the checksum pass is skipped
+        flipByte(file, file.length() / 2);
+        assertEquals(50, MappedTaskStore.open(file).size());
+
+        // without the marker the damage is found
+        assertTrue(new File(file.getPath() + ".verified").delete());
+        assertThrows(TaskSnapshot.CorruptSnapshotException.class, () -> MappedTaskStore.open(file));
+        assertThrows(TaskSnapshot.CorruptSnapshotException.class, () -> TaskSnapshot.read(file));
+    }
+
+    @Test
+    void testCorruptSnapshotIsQuarantinedNotOverwritten() throws Exception {
+        TaskList list = new TaskList(dir.toFile());
+        list.addAll(sampleTasks(20));
+        list.saveToFile();
+        list.close();
+
+        File file = dir.resolve("tasks.ser").toFile();
+        new File(file.getPath() + ".verified").delete();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(raf.length() / 2); // torn write of an old-style in-place save
+        }
+        assertThrows(TaskSnapshot.CorruptSnapshotException.class, () -> MappedTaskStore.open(file));
+
+        TaskList reopened = new TaskList(dir.toFile());
+        assertEquals(0, reopened.size());
+        assertFalse(file.exists());
+        File[] aside = dir.toFile().listFiles((d, name) -> name.startsWith("tasks.ser.corrupt-"));
+        assertNotNull(aside);
+        assertEquals(1, aside.length);
+
+        reopened.addTask(new SchoolTask("New", "desc", LocalDate.of(2025, 9, 1), "High", "IST261"));
+        reopened.saveToFile();
+        reopened.close();
+        assertTrue(aside[0].exists()); // the damaged snapshot is still there for recovery
+        assertEquals(List.of("New"), TaskSnapshot.read(file).getTasks().stream().map(Task::getTitle).toList());
+    }
+
+    @Test
+    void testJournalAfterCorruptSnapshotIsSetAsideNotReplayed() throws Exception {
+        TaskList list = new TaskList(dir.toFile());
+        list.addAll(sampleTasks(20));
+        list.saveToFile();
+        // positional records relative to the snapshot, in the segments after it
+        list.removeTask(3);
+        list.updateTask(5, new SchoolTask("Edited", "desc", LocalDate.of(2025, 9, 1), "High", "IST261"));
+        list.addTask(new PersonalTask("Added", "desc", LocalDate.of(2025, 9, 2), "Low", "Calm"));
+        list.close();
+
+        File file = dir.resolve("tasks.ser").toFile();
+        new File(file.getPath() + ".verified").delete();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(raf.length() / 2);
+            raf.write(~raf.read() & 0xFF); // flipped bits: the checksum no longer matches
+        }
+
+        TaskList reopened = new TaskList(dir.toFile());
+        assertEquals(0, reopened.size()); // no partial list rebuilt from records without their base
+        File[] orphaned = dir.toFile().listFiles((d, name) -> name.matches("tasks\\.journal\\.\\d+\\.orphaned-\\d+"));
+        assertNotNull(orphaned);
+        assertTrue(orphaned.length > 0);
+        reopened.addTask(new SchoolTask("New", "desc", LocalDate.of(2025, 9, 1), "High", "IST261"));
+        reopened.close();
+
+        // a restart before the next snapshot still replays only what was recorded after the loss
+        TaskList again = new TaskList(dir.toFile());
+        assertEquals(List.of("New"), again.getAllTasks().stream().map(Task::getTitle).toList());
+        again.close();
+        for (File f : orphaned) assertTrue(f.exists()); // kept for recovery
+    }
+
+    @Test
+    void testSnapshotThatCannotReplaceTasksSerIsPromotedOnLoad() throws Exception {
+        File file = dir.resolve("tasks.ser").toFile();
+        Path blocker = Files.createDirectories(dir.resolve("tasks.ser").resolve("in-use")); // stands in for a mapped file
+        TaskSnapshot.write(file, sampleTasks(6), BinaryTaskCodec.INSTANCE, 7);
+        File pending = dir.resolve("tasks.ser.7").toFile();
+        assertTrue(pending.exists());
+        assertEquals(6, TaskSnapshot.read(pending).getTasks().size());
+
+        Files.delete(blocker);
+        Files.delete(file.toPath());
+        Path older = dir.resolve("older.ser");
+        TaskSnapshot.write(older.toFile(), sampleTasks(2), BinaryTaskCodec.INSTANCE, 3);
+        Files.copy(older, file.toPath()); // the snapshot the pending one should have replaced
+        Files.copy(older, dir.resolve("tasks.ser.2")); // a stale pending snapshot
+
+        TaskList list = new TaskList(dir.toFile());
+        assertEquals(6, list.size());
+        list.close();
+        assertFalse(pending.exists());
+        assertFalse(dir.resolve("tasks.ser.2").toFile().exists());
+        assertEquals(7, TaskSnapshot.read(file).getNextGen());
+    }
+}
@@ -0,0 +1,88 @@
+package easytask;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskStoreManagerTest {
+
+    @TempDir
+    Path root;
+
+    private static Task task(String title, int day) {
+        return new SchoolTask(title, "", LocalDate.of(2025, 9, 1).plusDays(day), "Medium", "IST261");
+    }
+
+    @Test
+    void testManyListsWithBoundedOpenSetAndWriteBack() {
+        BufferPool pool = new BufferPool(4096, 16);
+        int lists = 300;
+        try (TaskStoreManager stores = new TaskStoreManager(root.toFile(), 8, null, pool)) {
+            for (int i = 0; i < lists; i++) {
+                int n = i;
+                stores.with("team-" + i, list -> {
+                    list.addTask(task("T" + n + "a", n % 20));
+                    list.addTask(task("T" + n + "b", n % 30));
+                    return null;
+                });
+                assertTrue(stores.openCount() <= 8);
+            }
+            // a second round reloads evicted lists from disk
+            for (int i = 0; i < lists; i += 7) {
+                int n = i;
+                stores.with("team-" + i, list -> {
+                    assertEquals(List.of("T" + n + "a", "T" + n + "b"), titles(list));
+                    list.removeTask(0);
+                    return null;
+                });
+            }
+            assertEquals(lists, stores.listNames().size());
+        }
+        // journal buffers are borrowed per write: at most one per loaded list, never one per list ever opened
+        assertTrue(pool.allocatedCount() <= 8, "allocated " + pool.allocatedCount());
+
+        try (TaskStoreManager stores = new TaskStoreManager(root.toFile(), 4)) {
+            for (int i = 0; i < lists; i++) {
+                List<String> expected = (i % 7 == 0) ? List.of("T" + i + "b") : List.of("T" + i + "a", "T" + i + "b");
+                assertEquals(expected, stores.with("team-" + i, TaskStoreManagerTest::titles));
+            }
+        }
+    }
+
+    @Test
+    void testPinnedListIsNotEvicted() {
+        try (TaskStoreManager stores = new TaskStoreManager(root.toFile(), 2)) {
+            TaskList pinned = stores.acquire("keep");
+            for (int i = 0; i < 10; i++) {
+                stores.with("other" + i, TaskList::size);
+            }
+            assertTrue(stores.isOpen("keep"));
+            assertSame(pinned, stores.acquire("keep"));
+            stores.release("keep");
+            stores.release("keep");
+            stores.with("last1", TaskList::size);
+            stores.with("last2", TaskList::size);
+            assertFalse(stores.isOpen("keep"));
+            assertThrows(IllegalStateException.class, () -> stores.release("keep"));
+        }
+    }
+
+    @Test
+    void testInvalidNamesAreRejected() {
+        try (TaskStoreManager stores = new TaskStoreManager(root.toFile(), 2)) {
+            assertThrows(IllegalArgumentException.class, () -> stores.acquire("../escape"));
+            assertThrows(IllegalArgumentException.class, () -> stores.acquire(".."));
+            assertThrows(IllegalArgumentException.class, () -> stores.acquire(""));
+            assertThrows(IllegalArgumentException.class, () -> stores.acquire(null));
+        }
+    }
+
+    private static List<String> titles(TaskList list) {
+        return list.getAllTasks().stream().map(Task::getTitle).toList();
+    }
+}
@@ -0,0 +1,227 @@
+package easytask;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.swing.DefaultListSelectionModel;
+import javax.swing.ListSelectionModel;
+import javax.swing.SwingUtilities;
+import javax.swing.event.TableModelEvent;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskTableModelTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testPagedCellsFollowListChanges() {
+        TaskList list = new TaskList(dir.toFile());
+        list.setAsyncCommit(false);
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            tasks.add(new PersonalTask("T" + i, "d" + i, LocalDate.of(2025, 1, 1).plusDays(i), "Low", ""));
+        }
+        list.addAll(tasks);
+        TaskTableModel model = new TaskTableModel(list);
+
+        assertEquals(1000, model.getRowCount());
+        assertEquals("T500", model.getValueAt(500, 0));
+        assertEquals("2025-01-02", model.getValueAt(1, 2));
+
+        list.updateTask(500, new PersonalTask("Edited", "", null, "High", ""));
+        assertEquals("Edited", model.getValueAt(500, 0)); // cached page was dropped by the update
+        assertEquals("", model.getValueAt(500, 2));
+
+        list.removeTask(0);
+        assertEquals("T1", model.getValueAt(0, 0));
+        assertEquals("Edited", model.getValueAt(499, 0));
+        assertEquals("T999", model.getValueAt(998, 0));
+        list.close();
+    }
+
+    @Test
+    void testBackgroundSortAndFilter() throws Exception {
+        TaskList list = new TaskList(dir.toFile());
+        list.setAsyncCommit(false);
+        String[] priorities = {"Low", "High", "Medium"};
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) { // several sort leaves
+            LocalDate due = (i % 7 == 0) ? null : LocalDate.of(2025, 1, 1).plusDays((i * 7919L) % 1000);
+            tasks.add(new PersonalTask("T" + i, "", due, priorities[i % 3], ""));
+        }
+        list.addAll(tasks);
+        TaskTableModel model = new TaskTableModel(list);
+
+        SwingUtilities.invokeAndWait(() -> model.setSort(TaskTableSorter.DUE_DATE, true));
+        awaitSorted(model);
+        String previous = "";
+        for (int row = 0; row < model.getRowCount(); row++) {
+            String due = (String) model.getValueAt(row, 2);
+            if (due.isEmpty()) {
+                assertTrue(row >= 20000 - 20000 / 7 - 1, "tasks without a date go last"); // 2858 have none
+                continue;
+            }
+            assertTrue(previous.compareTo(due) <= 0, "row " + row);
+            previous = due;
+        }
+
+        SwingUtilities.invokeAndWait(() -> {
+            model.setSort(TaskTableSorter.TITLE, false);
+            model.setFilter(t -> t.getPriorityLevel() == Priority.HIGH); // replaces the running sort
+        });
+        awaitSorted(model);
+        assertEquals(6667, model.getRowCount());
+        assertEquals("T9997", model.getValueAt(0, 0)); // descending, case-insensitive text order
+        assertSame(tasks.get(9997), model.getTaskAt(0));
+        assertEquals(9997, model.toModelRow(0));
+
+        // changes are not patched into the view; the batch is sorted again once
+        list.removeTask(9997);
+        list.addTask(new PersonalTask("T99999", "", null, "High", ""));
+        awaitSorted(model);
+        assertEquals(6667, model.getRowCount());
+        assertEquals("T99999", model.getValueAt(0, 0));
+        assertEquals(list.size() - 1, model.toModelRow(0));
+        assertEquals("T9994", model.getValueAt(1, 0));
+
+        SwingUtilities.invokeAndWait(() -> {
+            model.setFilter(null);
+            model.setSort(TaskTableSorter.UNSORTED, true);
+        });
+        awaitSorted(model);
+        assertEquals(20000, model.getRowCount());
+        assertEquals("T0", model.getValueAt(0, 0));
+        list.close();
+    }
+
+    @Test
+    void testListChangesReachTableInOneDrain() throws Exception {
+        TaskList list = new TaskList(dir.toFile());
+        list.setAsyncCommit(false);
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 600; i++) tasks.add(new PersonalTask("T" + i, "", null, (i % 2 == 0) ? "High" : "Low", ""));
+        list.addAll(tasks.subList(0, 100));
+        TaskTableModel model = new TaskTableModel(list);
+        List<String> events = new ArrayList<>();
+        model.addTableModelListener(e -> events.add(e.getType() + " " + e.getFirstRow() + "-" + e.getLastRow()));
+
+        CountDownLatch hold = holdEdt();
+        list.addAll(tasks.subList(100, 600));
+        list.removeAll(tasks.subList(200, 300)); // deleted from the highest index down
+        list.updateTask(0, new PersonalTask("A", "", null, "Low", ""));
+        list.updateTask(1, new PersonalTask("B", "", null, "Low", ""));
+        hold.countDown();
+        SwingUtilities.invokeAndWait(() -> { });
+        assertEquals(List.of(TableModelEvent.INSERT + " 100-599", TableModelEvent.DELETE + " 200-299",
+                TableModelEvent.UPDATE + " 0-1"), events);
+
+        SwingUtilities.invokeAndWait(() -> model.setSort(TaskTableSorter.TITLE, true));
+        awaitSorted(model);
+        events.clear();
+        hold = holdEdt();
+        for (int i = 0; i < 50; i++) list.removeTask(10); // shifts every index under the view
+        list.addTask(new PersonalTask("0 first", "", null, "Low", ""));
+        Object[] seen = new Object[3];
+        SwingUtilities.invokeLater(() -> { // runs right after the drain, before the sort can hand off
+            seen[0] = model.isSorting();
+            seen[1] = model.toModelRow(0);
+            seen[2] = model.getTaskAt(0);
+        });
+        hold.countDown();
+        awaitSorted(model);
+        assertEquals(true, seen[0]); // one re-sort for the whole batch
+        assertEquals(-1, seen[1]);   // the view went stale: no guessing which task row 0 is
+        assertNull(seen[2]);
+        assertEquals(List.of(TableModelEvent.UPDATE + " 0-499", TableModelEvent.DELETE + " 451-499", // the repaint, then
+                TableModelEvent.UPDATE + " 0-450"), events);                                         // the new order
+        assertEquals(451, model.getRowCount());
+        assertEquals("0 first", model.getValueAt(0, 0));
+        assertEquals(list.size() - 1, model.toModelRow(0));
+        list.close();
+    }
+
+    @Test
+    void testSelectionFollowsTasksAcrossResorts() throws Exception {
+        TaskList list = new TaskList(dir.toFile());
+        list.setAsyncCommit(false);
+        for (int i = 0; i < 1000; i++) list.addTask(new PersonalTask(String.format("T%04d", i), "", null, "Low", ""));
+        TaskTableModel model = new TaskTableModel(list);
+        DefaultListSelectionModel selection = new DefaultListSelectionModel();
+        model.keepSelection(selection);
+        List<TableModelEvent> events = new ArrayList<>();
+        model.addTableModelListener(events::add);
+        SwingUtilities.invokeAndWait(() -> model.setSort(TaskTableSorter.TITLE, false));
+        awaitSorted(model);
+        Task picked = list.getTask(600);
+        Task lead = list.getTask(300);
+        SwingUtilities.invokeAndWait(() -> {
+            selection.setSelectionInterval(999 - 600, 999 - 600); // descending: row = 999 - index
+            selection.addSelectionInterval(999 - 300, 999 - 300);
+        });
+
+        list.updateTask(0, new PersonalTask("T9999", "", null, "Low", "")); // moves to the top
+        awaitSorted(model);
+        assertSelected(model, selection, lead, picked, lead);
+
+        list.removeTask(10); // shifts list indices under the view, and the view with them
+        list.removeTask(10);
+        list.addTask(new PersonalTask("T0500x", "", null, "Low", ""));
+        list.removeTask(list.indexOf(lead)); // a deleted task drops out of the selection
+        awaitSorted(model);
+        assertSelected(model, selection, null, picked);
+
+        SwingUtilities.invokeAndWait(() -> model.setSort(TaskTableSorter.UNSORTED, true));
+        awaitSorted(model);
+        assertSelected(model, selection, null, picked);
+        for (TableModelEvent e : events) {
+            assertNotEquals(Integer.MAX_VALUE, e.getLastRow(), "fireTableDataChanged drops the selection");
+        }
+        list.close();
+    }
+
+    private static void assertSelected(TaskTableModel model, ListSelectionModel selection, Task lead, Task... tasks)
+            throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            List<Task> selected = new ArrayList<>();
+            for (int r = selection.getMinSelectionIndex(); r >= 0 && r <= selection.getMaxSelectionIndex(); r++) {
+                if (selection.isSelectedIndex(r)) selected.add(model.getTaskAt(r));
+            }
+            assertEquals(List.of(tasks), selected);
+            if (lead != null) assertSame(lead, model.getTaskAt(selection.getLeadSelectionIndex()));
+        });
+    }
+
+    /** Block the EDT until the latch is released, so list changes pile up behind it. */
+    private static CountDownLatch holdEdt() throws Exception {
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        SwingUtilities.invokeLater(() -> {
+            held.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        held.await();
+        return release;
+    }
+
+    /** Wait until queued list events and background sorts have reached the table. */
+    private static void awaitSorted(TaskTableModel model) throws Exception {
+        boolean[] busy = {true};
+        for (int i = 0; i < 500 && busy[0]; i++) {
+            Thread.sleep(10);
+            SwingUtilities.invokeAndWait(() -> busy[0] = model.isSorting());
+        }
+        SwingUtilities.invokeAndWait(() -> { }); // let a finished sort's hand-off run
+        assertFalse(busy[0], "sort did not finish");
+    }
+}
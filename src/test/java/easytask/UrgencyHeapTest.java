@@ -0,0 +1,91 @@
+package easytask;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UrgencyHeapTest {
+
+    private static final Comparator<Task> BY_DUE = Comparator.comparing(Task::getDueDate);
+
+    private static Task task(int day) {
+        return new PersonalTask("T" + day, "", LocalDate.of(2025, 1, 1).plusDays(day), "Low", "");
+    }
+
+    @Test
+    void testRandomOperationsMatchSortedReference() {
+        Random rnd = new Random(42);
+        UrgencyHeap heap = new UrgencyHeap(BY_DUE);
+        List<Task> reference = new ArrayList<>();
+
+        for (int step = 0; step < 5000; step++) {
+            int op = rnd.nextInt(4);
+            if (op == 0 || reference.isEmpty()) {
+                Task t = task(rnd.nextInt(1000));
+                heap.offer(t);
+                reference.add(t);
+            } else if (op == 1) {
+                Task t = reference.remove(rnd.nextInt(reference.size()));
+                assertTrue(heap.remove(t));
+            } else if (op == 2) {
+                Task t = reference.get(rnd.nextInt(reference.size()));
+                t.setDueDate(LocalDate.of(2025, 1, 1).plusDays(rnd.nextInt(1000)));
+                assertTrue(heap.update(t));
+            } else {
+                Task expected = reference.stream().min(BY_DUE).orElseThrow();
+                Task polled = heap.poll();
+                assertEquals(expected.getDueDate(), polled.getDueDate());
+                reference.remove(polled);
+            }
+            assertEquals(reference.size(), heap.size());
+        }
+    }
+
+    @Test
+    void testPositionsSurviveGrowthAndRemovals() {
+        UrgencyHeap heap = new UrgencyHeap(BY_DUE);
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            Task t = task(i % 997);
+            tasks.add(t);
+            heap.offer(t);
+        }
+        for (int i = 0; i < tasks.size(); i += 3) assertTrue(heap.remove(tasks.get(i)));
+        for (int i = 0; i < tasks.size(); i++) {
+            assertEquals(i % 3 != 0, heap.contains(tasks.get(i)));
+        }
+        assertFalse(heap.remove(tasks.get(0)));
+        assertFalse(heap.contains(null));
+
+        LocalDate last = LocalDate.MIN;
+        int polled = 0;
+        for (Task t; (t = heap.poll()) != null; polled++) {
+            assertFalse(t.getDueDate().isBefore(last));
+            last = t.getDueDate();
+        }
+        assertEquals(tasks.size() - (tasks.size() + 2) / 3, polled);
+    }
+
+    @Test
+    void testReplaceKeepsSingleEntry() {
+        UrgencyHeap heap = new UrgencyHeap(BY_DUE);
+        Task a = task(5);
+        Task b = task(1);
+        Task c = task(3);
+        heap.offer(a);
+        heap.offer(b);
+
+        heap.replace(b, c);
+        assertEquals(2, heap.size());
+        assertFalse(heap.contains(b));
+        assertSame(c, heap.poll());
+        assertSame(a, heap.poll());
+        assertNull(heap.poll());
+    }
+}